@@ -2,9 +2,15 @@ package com.adrian.blogweb1.controller;
 
 import com.adrian.blogweb1.dto.AuthLoginRequestDTO;
 import com.adrian.blogweb1.dto.AuthResponseDTO;
+import com.adrian.blogweb1.dto.RefreshTokenRequestDTO;
+import com.adrian.blogweb1.dto.TokenPairDTO;
+import com.adrian.blogweb1.service.IRefreshTokenService;
+import com.adrian.blogweb1.service.ITokenRevocationService;
 import com.adrian.blogweb1.utils.JwtUtils;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,6 +20,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller; // <-- CAMBIO 1
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @Controller // <-- CAMBIO 1: De @RestController a @Controller para más flexibilidad
 @RequestMapping("/auth")
 @RequiredArgsConstructor
@@ -21,6 +29,8 @@ public class AuthenticationController {
 
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
+    private final IRefreshTokenService refreshTokenService;
+    private final ITokenRevocationService tokenRevocationService;
 
     /**
      * Endpoint para autenticar usuarios con nombre de usuario y contraseña.
@@ -38,17 +48,57 @@ public class AuthenticationController {
         Authentication authentication = this.authenticationManager.authenticate(loginToken);
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         String jwt = this.jwtUtils.createToken(authentication);
+        String refreshToken = this.refreshTokenService.issueRefreshToken(userDetails.getUsername());
 
         AuthResponseDTO response = new AuthResponseDTO(
                 userDetails.getUsername(),
                 "User logged in successfully",
                 jwt,
+                refreshToken,
                 true
         );
 
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    /**
+     * Renueva el access token a partir de un refresh token.
+     * No pasa por el AuthenticationManager (ni por BCrypt): una consulta por índice y rotación del token.
+     */
+    @PostMapping("/refresh")
+    @ResponseBody
+    public ResponseEntity<AuthResponseDTO> refresh(@RequestBody @Valid RefreshTokenRequestDTO refreshRequest) {
+        TokenPairDTO tokens = this.refreshTokenService.rotate(refreshRequest.refreshToken());
+
+        AuthResponseDTO response = new AuthResponseDTO(
+                tokens.username(),
+                "Token refreshed successfully",
+                tokens.accessToken(),
+                tokens.refreshToken(),
+                true
+        );
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Cierra la sesión: revoca el access token actual (por su jti) y, si se envía, la familia del refresh token.
+     * Requiere estar autenticado, por lo que el filtro JWT ya ha validado la cabecera.
+     */
+    @PostMapping("/logout")
+    @ResponseBody
+    public ResponseEntity<Map<String, String>> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+                                                      @RequestBody(required = false) @Valid RefreshTokenRequestDTO refreshRequest) {
+        DecodedJWT decodedJWT = this.jwtUtils.validateToken(authHeader.substring(7));
+        this.tokenRevocationService.revokeToken(decodedJWT.getId(), decodedJWT.getExpiresAtAsInstant());
+
+        if (refreshRequest != null) {
+            this.refreshTokenService.revokeFamilyOf(refreshRequest.refreshToken());
+        }
+
+        return ResponseEntity.ok(Map.of("status", "success", "message", "User logged out successfully"));
+    }
+
     /**
      * CAMBIO 3: Nuevo endpoint para iniciar el flujo de login con GitHub.
      * No devuelve JSON, sino que redirige al usuario.
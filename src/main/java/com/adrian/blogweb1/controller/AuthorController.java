@@ -2,16 +2,20 @@ package com.adrian.blogweb1.controller;
 
 import com.adrian.blogweb1.dto.AuthorCreateRequestDTO;
 import com.adrian.blogweb1.dto.AuthorDTO;
+import com.adrian.blogweb1.dto.AuthorImportSummaryDTO;
 import com.adrian.blogweb1.dto.AuthorUpdateRequestDTO;
+import com.adrian.blogweb1.service.IAuthorImportService;
 import com.adrian.blogweb1.service.IAuthorService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -20,6 +24,7 @@ import java.util.List;
 public class AuthorController {
 
     private final IAuthorService authorService;
+    private final IAuthorImportService authorImportService;
 
     @GetMapping
     @PreAuthorize("hasAuthority('READ')")
@@ -42,6 +47,13 @@ public class AuthorController {
         return new ResponseEntity<>(createdAuthor, HttpStatus.CREATED);
     }
 
+    // Se recibe el InputStream crudo: el array se procesa en streaming y nunca se carga entero.
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('CREATE')")
+    public ResponseEntity<AuthorImportSummaryDTO> importAuthors(InputStream body) {
+        return ResponseEntity.ok(authorImportService.importAuthors(body));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('UPDATE')")
     public ResponseEntity<AuthorDTO> updateAuthor(@PathVariable Long id, @RequestBody @Valid AuthorUpdateRequestDTO authorRequest) {
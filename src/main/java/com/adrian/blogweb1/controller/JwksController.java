@@ -0,0 +1,35 @@
+package com.adrian.blogweb1.controller;
+
+import com.adrian.blogweb1.security.config.JwtSigningKeys;
+import com.adrian.blogweb1.security.config.props.JwtSigningProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtSigningKeys jwtSigningKeys;
+    private final JwtSigningProperties jwtSigningProperties;
+
+    /**
+     * Clave pública de firma en formato JWK Set, para que proxies y sidecars verifiquen los JWT por su cuenta.
+     * Cacheable: la clave solo cambia al reiniciar con otro keystore. En modo HMAC devuelve 404.
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return jwtSigningKeys.jwks()
+                .map(keys -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.maxAge(Duration.ofSeconds(jwtSigningProperties.getJwksMaxAgeSeconds()))
+                                .cachePublic())
+                        .eTag(jwtSigningKeys.keyId())
+                        .body(keys))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -1,20 +1,34 @@
 package com.adrian.blogweb1.controller;
 
+import com.adrian.blogweb1.dto.PostChangesDTO;
 import com.adrian.blogweb1.dto.PostCreateRequestDTO;
 import com.adrian.blogweb1.dto.PostResponseDTO;
 import com.adrian.blogweb1.dto.PostUpdateRequestDTO;
+import com.adrian.blogweb1.dto.PostViewCountDTO;
+import com.adrian.blogweb1.dto.TrendingPostDTO;
 import com.adrian.blogweb1.model.Post;
+import com.adrian.blogweb1.security.config.beanconfig.JacksonConfig;
+import com.adrian.blogweb1.service.IPostChangeService;
 import com.adrian.blogweb1.service.IPostService;
+import com.adrian.blogweb1.service.IPostStreamService;
+import com.adrian.blogweb1.service.IPostViewService;
+import com.adrian.blogweb1.service.ITrendingPostsService;
 import jakarta.persistence.EntityNotFoundException;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
 import java.util.List;
+import java.util.Set;
 
 
 @RestController
@@ -23,6 +37,10 @@ import java.util.List;
 public class PostController {
 
     private final IPostService  postService;
+    private final IPostViewService postViewService;
+    private final ITrendingPostsService trendingPostsService;
+    private final IPostChangeService postChangeService;
+    private final IPostStreamService postStreamService;
 
     @PostMapping
     @PreAuthorize("hasAuthority('CREATE')")
@@ -37,15 +55,45 @@ public class PostController {
 
     @GetMapping
     @PreAuthorize("hasAuthority('READ')")
-    public ResponseEntity<List<PostResponseDTO>> getPosts() {
-        return ResponseEntity.ok(postService.getPosts());
+    public ResponseEntity<MappingJacksonValue> getPosts(@RequestParam(required = false) Set<String> fields) {
+        // El listado devuelve extractos; ?fields=idPost,title permite recortarlo aún más.
+        return ResponseEntity.ok(withSparseFields(postService.getPosts(), fields));
+    }
+
+    @GetMapping("/most-viewed")
+    @PreAuthorize("hasAuthority('READ')")
+    public ResponseEntity<List<PostViewCountDTO>> getMostViewedPosts(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(postViewService.getMostViewed(limit));
+    }
+
+    @GetMapping("/trending")
+    @PreAuthorize("hasAuthority('READ')")
+    public ResponseEntity<List<TrendingPostDTO>> getTrendingPosts() {
+        // Snapshot precalculado en memoria: no hay consulta a la BD.
+        return ResponseEntity.ok(trendingPostsService.getTrending());
+    }
+
+    @GetMapping("/changes")
+    @PreAuthorize("hasAuthority('READ')")
+    public ResponseEntity<PostChangesDTO> getPostChanges(@RequestParam(defaultValue = "0") long since,
+                                                         @RequestParam(defaultValue = "100") int limit) {
+        // Sincronización incremental: el consumidor reenvía nextSince en lugar de volver a leer todos los posts.
+        return ResponseEntity.ok(postChangeService.getChanges(since, limit));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAuthority('READ')")
+    public SseEmitter streamPosts() {
+        // Petición asíncrona: no ocupa un hilo mientras no hay posts nuevos que enviar.
+        return postStreamService.subscribe();
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('READ')")
-    public ResponseEntity<PostResponseDTO> getPostById(@PathVariable Long id) {
+    public ResponseEntity<MappingJacksonValue> getPostById(@PathVariable Long id,
+                                                           @RequestParam(required = false) Set<String> fields) {
         return postService.getPostById(id)
-                .map(ResponseEntity::ok)
+                .map(post -> ResponseEntity.ok(withSparseFields(post, fields)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -71,6 +119,16 @@ public class PostController {
         return ResponseEntity.noContent().build();
     }
 
+    private static MappingJacksonValue withSparseFields(Object body, Set<String> fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (fields != null && !fields.isEmpty()) {
+            // Los nombres desconocidos se ignoran; el filtro se aplica al escribir, sin copiar los DTO.
+            value.setFilters(new SimpleFilterProvider().addFilter(JacksonConfig.SPARSE_FIELDS_FILTER,
+                    SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        }
+        return value;
+    }
+
     /**
      * Manejador de excepciones para EntityNotFoundException.
      * Este método se activa automáticamente cuando cualquier método en este controlador
@@ -61,15 +61,12 @@ public class RoleController {
     @PreAuthorize("hasAuthority('CREATE')")
     @Transactional
     public ResponseEntity<Role> createRole(@RequestBody Role role) {
-        // Lógica mejorada para recuperar los permisos y evitar detached entities
+        // Recuperamos los permisos gestionados con una sola consulta; un id inexistente devuelve 404.
         if (role.getPermissionsList() != null && !role.getPermissionsList().isEmpty()) {
-            Set<Permission> managedPermissions = role.getPermissionsList().stream()
+            Set<Long> permissionIds = role.getPermissionsList().stream()
                     .map(Permission::getIdPermission) // Extraemos los IDs de los permisos de la petición
-                    .map(permissionService::findById) // Buscamos cada permiso en la BD
-                    .filter(Optional::isPresent)      // Filtramos los que no se encontraron
-                    .map(Optional::get)               // Obtenemos el objeto Permission del Optional
-                    .collect(Collectors.toSet());     // Los recolectamos en un nuevo Set
-            role.setPermissionsList(managedPermissions);
+                    .collect(Collectors.toSet());
+            role.setPermissionsList(permissionService.findAllByIds(permissionIds));
         }
 
         Role newRole = roleService.save(role);
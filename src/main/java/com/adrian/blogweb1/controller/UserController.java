@@ -1,10 +1,13 @@
 package com.adrian.blogweb1.controller;
 
 
+import com.adrian.blogweb1.dto.UserBatchResultDTO;
+import com.adrian.blogweb1.dto.UserProvisionRowDTO;
 import com.adrian.blogweb1.exception.ResourceNotFoundException;
 import com.adrian.blogweb1.model.Role;
 import com.adrian.blogweb1.model.UserSec;
 import com.adrian.blogweb1.service.IRoleService;
+import com.adrian.blogweb1.service.IUserProvisioningService;
 import com.adrian.blogweb1.service.IUserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -34,6 +37,7 @@ public class UserController {
 
     private final IUserService userService;
     private final IRoleService roleService;
+    private final IUserProvisioningService userProvisioningService;
 
     /**
      * Obtiene todos los usuarios. Operación sensible, solo para administradores.
@@ -96,6 +100,16 @@ public class UserController {
         }
     }
 
+    /**
+     * Crea usuarios en lote. Devuelve cuántos se crearon y los errores de validación por fila.
+     * Requiere el permiso 'CREATE'. Solo accesible por ADMIN.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('CREATE')")
+    public ResponseEntity<UserBatchResultDTO> createUsersBatch(@RequestBody List<UserProvisionRowDTO> rows) {
+        return ResponseEntity.ok(userProvisioningService.provision(rows));
+    }
+
     /**
      * Actualiza un usuario existente.
      * Requiere el permiso 'UPDATE'. Solo accesible por ADMIN.
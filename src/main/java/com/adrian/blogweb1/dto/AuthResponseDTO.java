@@ -2,10 +2,11 @@ package com.adrian.blogweb1.dto;
 
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
-@JsonPropertyOrder({"username", "message", "jwt", "status"})
+@JsonPropertyOrder({"username", "message", "jwt", "refreshToken", "status"})
 public record AuthResponseDTO(String username,
                               String message,
                               String jwt,
+                              String refreshToken,
                               boolean status) {
 }
 
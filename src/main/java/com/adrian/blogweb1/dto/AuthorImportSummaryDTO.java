@@ -0,0 +1,10 @@
+package com.adrian.blogweb1.dto;
+
+import java.util.List;
+
+/**
+ * Resumen de una importación masiva de autores.
+ * Los errores se limitan a los primeros, para que la respuesta no crezca con el tamaño de la entrada.
+ */
+public record AuthorImportSummaryDTO(long received, long upserted, long duplicates, long rejected, List<String> errors) {
+}
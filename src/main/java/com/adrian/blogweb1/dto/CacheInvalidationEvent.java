@@ -0,0 +1,30 @@
+package com.adrian.blogweb1.dto;
+
+import java.util.List;
+
+/**
+ * Invalidación recibida de otro nodo a través de ICacheInvalidationService; se publica como evento
+ * de aplicación para que CacheInvalidationHandler la aplique a las cachés locales.
+ * Sin claves, afecta a la caché completa.
+ */
+public record CacheInvalidationEvent(CacheType cache, List<String> keys) {
+
+    public enum CacheType {
+        USER_DETAILS,
+        UNKNOWN_USERNAMES,
+        // Claves: usernames locales de los usuarios OAuth2 afectados.
+        OAUTH2_USERS,
+        ROLE_EPOCHS,
+        PERMISSION_BITS,
+        // Posts borrados: se olvidan sus visitas pendientes y su entrada en tendencias.
+        POSTS,
+        // Posts editados: se vuelve a leer su título/autor para las tendencias, sin perder su puntuación.
+        POST_METADATA,
+        // Se han podido perder mensajes (p. ej. reconexión del LISTEN): se vacía todo.
+        ALL
+    }
+
+    public boolean isWholeCache() {
+        return keys == null || keys.isEmpty();
+    }
+}
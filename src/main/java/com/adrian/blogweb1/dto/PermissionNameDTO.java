@@ -0,0 +1,4 @@
+package com.adrian.blogweb1.dto;
+
+public record PermissionNameDTO(Long idPermission, String permissionName) {
+}
@@ -0,0 +1,9 @@
+package com.adrian.blogweb1.dto;
+
+import java.time.Instant;
+
+/**
+ * Cambio de un post tal y como lo reciben los sinks del outbox y los consumidores del feed de cambios.
+ */
+public record PostChangeEventDTO(Long eventId, Long idPost, String type, String title, Instant occurredAt) {
+}
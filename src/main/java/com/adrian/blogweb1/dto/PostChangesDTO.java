@@ -0,0 +1,9 @@
+package com.adrian.blogweb1.dto;
+
+import java.util.List;
+
+/**
+ * Página del feed de cambios. El consumidor guarda nextSince y lo envía como ?since= en la siguiente llamada.
+ */
+public record PostChangesDTO(List<PostChangeEventDTO> events, long nextSince) {
+}
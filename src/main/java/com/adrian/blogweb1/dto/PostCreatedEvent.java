@@ -0,0 +1,7 @@
+package com.adrian.blogweb1.dto;
+
+/**
+ * Evento de aplicación publicado por PostService al crear un post; se difunde tras el commit.
+ */
+public record PostCreatedEvent(PostSummaryDTO post) {
+}
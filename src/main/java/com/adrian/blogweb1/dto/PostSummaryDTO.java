@@ -0,0 +1,9 @@
+package com.adrian.blogweb1.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vista de listado de un post: título, autor y extracto, sin el contenido completo.
+ */
+public record PostSummaryDTO(Long idPost, String title, String excerpt, LocalDateTime createdAt, String authorName) {
+}
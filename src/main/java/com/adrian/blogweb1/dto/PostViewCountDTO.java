@@ -0,0 +1,7 @@
+package com.adrian.blogweb1.dto;
+
+/**
+ * Entrada del ranking de posts más vistos.
+ */
+public record PostViewCountDTO(Long idPost, String title, String authorName, long viewCount) {
+}
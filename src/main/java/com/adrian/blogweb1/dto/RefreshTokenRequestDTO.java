@@ -0,0 +1,6 @@
+package com.adrian.blogweb1.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenRequestDTO(@NotBlank String refreshToken) {
+}
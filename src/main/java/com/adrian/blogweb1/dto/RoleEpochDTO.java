@@ -0,0 +1,4 @@
+package com.adrian.blogweb1.dto;
+
+public record RoleEpochDTO(String role, long authzEpoch) {
+}
@@ -0,0 +1,7 @@
+package com.adrian.blogweb1.dto;
+
+// Par de tokens resultante de una rotación: access token (JWT) + nuevo refresh token en claro.
+public record TokenPairDTO(String username,
+                           String accessToken,
+                           String refreshToken) {
+}
@@ -0,0 +1,7 @@
+package com.adrian.blogweb1.dto;
+
+/**
+ * Entrada del feed de tendencias. La puntuación decae exponencialmente con el tiempo.
+ */
+public record TrendingPostDTO(Long idPost, String title, String authorName, double score) {
+}
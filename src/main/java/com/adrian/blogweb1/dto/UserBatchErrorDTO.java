@@ -0,0 +1,5 @@
+package com.adrian.blogweb1.dto;
+
+// index es la posición de la fila en el array de la petición (empezando en 0).
+public record UserBatchErrorDTO(int index, String username, String message) {
+}
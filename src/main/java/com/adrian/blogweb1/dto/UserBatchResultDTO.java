@@ -0,0 +1,6 @@
+package com.adrian.blogweb1.dto;
+
+import java.util.List;
+
+public record UserBatchResultDTO(int received, int created, List<UserBatchErrorDTO> errors) {
+}
@@ -0,0 +1,9 @@
+package com.adrian.blogweb1.dto;
+
+import java.util.Set;
+
+/**
+ * Fila de POST /api/users/batch. La contraseña llega en claro y se cifra en el servidor.
+ */
+public record UserProvisionRowDTO(String username, String email, String password, Set<Long> roleIds) {
+}
@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Map;
 
@@ -26,6 +27,13 @@ public class GlobalExceptionHandler {
                 .body(Map.of(STATUS_KEY, STATUS_ERROR, MESSAGE_KEY, ex.getMessage()));
     }
 
+    @ExceptionHandler(InvalidTokenException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidTokenException(InvalidTokenException ex) {
+        return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of(STATUS_KEY, STATUS_ERROR, MESSAGE_KEY, ex.getMessage()));
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<Map<String, String>> handleAccessDeniedException(AccessDeniedException ex) {
         return ResponseEntity
@@ -33,6 +41,15 @@ public class GlobalExceptionHandler {
                 .body(Map.of(STATUS_KEY, STATUS_ERROR, MESSAGE_KEY, "Acceso denegado. No tienes los permisos necesarios."));
     }
 
+    // Sin este manejador, el genérico convertiría en 500 los 400/503 que los servicios lanzan a propósito.
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, String>> handleResponseStatusException(ResponseStatusException ex) {
+        String reason = ex.getReason() != null ? ex.getReason() : ex.getStatusCode().toString();
+        return ResponseEntity
+                .status(ex.getStatusCode())
+                .body(Map.of(STATUS_KEY, STATUS_ERROR, MESSAGE_KEY, reason));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGenericException(Exception ex) {
         log.error("Ocurrió un error inesperado", ex);
@@ -23,6 +23,10 @@ public class Author {
 
     private String name;
 
+    // Clave natural con la que los sistemas externos identifican al autor (importación masiva).
+    @Column(name = "external_id", unique = true, length = 100)
+    private String externalId;
+
     @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
     private List<Post> posts = new ArrayList<>();
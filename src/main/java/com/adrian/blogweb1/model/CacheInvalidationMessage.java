@@ -0,0 +1,34 @@
+package com.adrian.blogweb1.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Mensaje del bus de invalidación cuando no hay LISTEN/NOTIFY (H2): los nodos leen la tabla por id creciente.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "cache_invalidation", indexes = {
+        @Index(name = "idx_cache_invalidation_created_at", columnList = "created_at")
+})
+public class CacheInvalidationMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long idCacheInvalidation;
+
+    // Mismo JSON que viaja como payload de pg_notify.
+    @Column(nullable = false, length = 8000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
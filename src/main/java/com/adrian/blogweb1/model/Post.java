@@ -2,10 +2,12 @@ package com.adrian.blogweb1.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -15,6 +17,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 public class Post {
+
+    public static final int EXCERPT_LENGTH = 200;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long idPost;
@@ -24,14 +29,50 @@ public class Post {
     @Column(length = 2000)
     private String content;
 
+    // Resumen precalculado para los listados, que así nunca leen el contenido completo.
+    @Column(length = EXCERPT_LENGTH + 1)
+    @Setter(AccessLevel.NONE)
+    private String excerpt;
+
 
     private LocalDateTime createdAt;
 
+    // Agregado de visitas; solo lo escribe PostViewService en lotes. JPA nunca lo incluye en INSERT/UPDATE,
+    // así que guardar un post no pisa las visitas volcadas mientras tanto.
+    @ColumnDefault("0")
+    @Column(name = "view_count", nullable = false, insertable = false, updatable = false)
+    private long viewCount;
+
     @ManyToOne
     @JoinColumn(name = "author_id", referencedColumnName = "idAuthor", nullable = false)
     @JsonBackReference
     private Author author;
 
+    // El extracto se mantiene siempre sincronizado con el contenido.
+    public void setContent(String content) {
+        this.content = content;
+        this.excerpt = excerptOf(content);
+    }
+
+    /**
+     * Primeros EXCERPT_LENGTH caracteres con los espacios normalizados, cortando en el último espacio
+     * para no partir palabras y añadiendo "…" si el texto se ha truncado.
+     */
+    public static String excerptOf(String content) {
+        if (content == null) {
+            return null;
+        }
+        String normalized = content.strip().replaceAll("\\s+", " ");
+        if (normalized.length() <= EXCERPT_LENGTH) {
+            return normalized;
+        }
+        int cut = normalized.lastIndexOf(' ', EXCERPT_LENGTH);
+        if (cut <= 0) {
+            cut = EXCERPT_LENGTH;
+        }
+        return normalized.substring(0, cut).stripTrailing() + "…";
+    }
+
     // El servidor genera automaticamente la fecha
     @PrePersist
     protected void onCreate() {
@@ -0,0 +1,53 @@
+package com.adrian.blogweb1.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "post_outbox", indexes = {
+        @Index(name = "idx_post_outbox_unpublished", columnList = "published_at, id_post_outbox_event"),
+        @Index(name = "idx_post_outbox_feed_sequence", columnList = "feed_sequence", unique = true)
+})
+public class PostOutboxEvent {
+
+    public enum EventType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    // Asignado al insertar: ordena la cola del relay, pero no sirve de cursor (ver feedSequence).
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long idPostOutboxEvent;
+
+    @Column(nullable = false)
+    private Long postId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 10)
+    private EventType type;
+
+    // Título en el momento del cambio, para que los consumidores no tengan que consultar el post. Nulo en DELETED.
+    private String title;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    // Nulo hasta que el relay lo entrega al sink.
+    @Column(name = "published_at")
+    private Instant publishedAt;
+
+    // Posición en el feed GET /api/posts/changes?since=. La asigna el relay, ya confirmado el evento, y en orden creciente.
+    @Column(name = "feed_sequence")
+    private Long feedSequence;
+}
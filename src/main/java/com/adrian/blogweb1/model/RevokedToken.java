@@ -0,0 +1,46 @@
+package com.adrian.blogweb1.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_lookup", columnList = "revocation_type, revoked_value")
+})
+public class RevokedToken {
+
+    public enum RevocationType {
+        // Revoca un único access token por su claim "jti" (logout).
+        JTI,
+        // Revoca todos los access tokens de un usuario emitidos hasta "revokedAt" (usuario deshabilitado o borrado).
+        SUBJECT
+    }
+
+    // Id monotónico: cada nodo sincroniza solo las filas con id mayor que la última que vio.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long idRevokedToken;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "revocation_type", nullable = false, length = 10)
+    private RevocationType type;
+
+    @Column(name = "revoked_value", nullable = false)
+    private String value;
+
+    @Column(nullable = false)
+    private Instant revokedAt;
+
+    // Pasada esta fecha ningún token afectado sigue siendo válido y la fila puede purgarse.
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 
 import java.util.HashSet;
@@ -25,6 +26,11 @@ public class Role {
     private Long idRole;
     private String role;
 
+    // Se incrementa cada vez que cambian los permisos del rol; viaja en el JWT para detectar tokens obsoletos.
+    @ColumnDefault("0")
+    @Column(name = "authz_epoch", nullable = false)
+    private long authzEpoch;
+
     @JsonIgnore  // Lado "no manejado" de la relación UserSec ↔ Role
     @ManyToMany(mappedBy = "rolesList")
     private Set<UserSec> users = new HashSet<>();
@@ -1,9 +1,22 @@
 package com.adrian.blogweb1.repository;
 
+import com.adrian.blogweb1.dto.AuthorDTO;
 import com.adrian.blogweb1.model.Author;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface IAuthorRepository extends JpaRepository<Author, Long> {
+
+    // Proyecciones para lectura: no cargan entidades Author en el contexto de persistencia.
+    @Query("SELECT new com.adrian.blogweb1.dto.AuthorDTO(a.idAuthor, a.name) FROM Author a ORDER BY a.idAuthor")
+    List<AuthorDTO> findAllDTO();
+
+    @Query("SELECT new com.adrian.blogweb1.dto.AuthorDTO(a.idAuthor, a.name) FROM Author a WHERE a.idAuthor = :idAuthor")
+    Optional<AuthorDTO> findDTOById(@Param("idAuthor") Long idAuthor);
 }
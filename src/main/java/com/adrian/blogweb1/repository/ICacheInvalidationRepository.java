@@ -0,0 +1,26 @@
+package com.adrian.blogweb1.repository;
+
+import com.adrian.blogweb1.model.CacheInvalidationMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ICacheInvalidationRepository extends JpaRepository<CacheInvalidationMessage, Long> {
+
+    @Query("SELECT m FROM CacheInvalidationMessage m WHERE m.idCacheInvalidation > :since ORDER BY m.idCacheInvalidation")
+    List<CacheInvalidationMessage> findAfter(@Param("since") long since, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(m.idCacheInvalidation), 0) FROM CacheInvalidationMessage m")
+    long findMaxId();
+
+    @Modifying
+    @Query("DELETE FROM CacheInvalidationMessage m WHERE m.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
@@ -1,10 +1,13 @@
 package com.adrian.blogweb1.repository;
 
 
+import com.adrian.blogweb1.dto.PermissionNameDTO;
 import com.adrian.blogweb1.model.Permission;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,5 +16,9 @@ public interface IPermissionRepository extends JpaRepository <Permission, Long>
     // Spring Data JPA entenderá que debe crear una consulta para buscar un Permiso por su campo 'name'.
     Optional<Permission> findByPermissionName(String permissionName);
 
+    // Solo id y nombre, sin cargar la relación con los roles.
+    @Query("SELECT new com.adrian.blogweb1.dto.PermissionNameDTO(p.idPermission, p.permissionName) FROM Permission p")
+    List<PermissionNameDTO> findAllNames();
+
 
 }
@@ -0,0 +1,45 @@
+package com.adrian.blogweb1.repository;
+
+import com.adrian.blogweb1.model.PostOutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface IPostOutboxRepository extends JpaRepository<PostOutboxEvent, Long> {
+
+    // FOR UPDATE: dos relays (p. ej. en nodos distintos) compiten por las mismas filas y el segundo espera
+    // al commit del primero, así que nunca numeran el feed a la vez.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM PostOutboxEvent e WHERE e.publishedAt IS NULL ORDER BY e.idPostOutboxEvent")
+    List<PostOutboxEvent> findUnpublished(Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(e.feedSequence), 0) FROM PostOutboxEvent e")
+    long findMaxFeedSequence();
+
+    // Feed incremental para consumidores: solo eventos ya numerados por el relay (ver PostChangeService).
+    @Query("SELECT e FROM PostOutboxEvent e WHERE e.feedSequence > :since ORDER BY e.feedSequence")
+    List<PostOutboxEvent> findChangesAfter(@Param("since") long since, Pageable pageable);
+
+    // Un evento DELETED por post en una sola sentencia, para los borrados masivos (p. ej. al eliminar un autor).
+    @Modifying
+    @Query(value = "INSERT INTO post_outbox (post_id, event_type, occurred_at) " +
+            "SELECT p.id_post, 'DELETED', :now FROM post p WHERE p.id_post IN :ids ORDER BY p.id_post", nativeQuery = true)
+    int insertDeletedEvents(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    // Conserva el evento con la secuencia más alta: si se borrara, la numeración volvería a empezar por debajo
+    // de los cursores que ya tienen los consumidores.
+    @Modifying
+    @Query("DELETE FROM PostOutboxEvent e WHERE e.publishedAt IS NOT NULL AND e.occurredAt < :before " +
+            "AND e.feedSequence < (SELECT MAX(f.feedSequence) FROM PostOutboxEvent f)")
+    int deletePublishedBefore(@Param("before") Instant before);
+}
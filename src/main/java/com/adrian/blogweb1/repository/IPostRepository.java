@@ -1,12 +1,46 @@
 package com.adrian.blogweb1.repository;
 
+import com.adrian.blogweb1.dto.PostResponseDTO;
+import com.adrian.blogweb1.dto.PostSummaryDTO;
+import com.adrian.blogweb1.dto.PostViewCountDTO;
 import com.adrian.blogweb1.model.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface IPostRepository extends JpaRepository<Post, Long> {
     List<Post>findByAuthor_IdAuthor(Long idAuthor);
+
+    // Solo los ids, por tramos: el borrado masivo de un autor no carga sus posts en el contexto de persistencia.
+    @Query("SELECT p.idPost FROM Post p WHERE p.author.idAuthor = :idAuthor ORDER BY p.idPost")
+    List<Long> findIdsByAuthor(@Param("idAuthor") Long idAuthor, Pageable pageable);
+
+    // Proyección para listados: solo lee el extracto, nunca la columna content.
+    @Query("SELECT new com.adrian.blogweb1.dto.PostSummaryDTO(p.idPost, p.title, p.excerpt, p.createdAt, a.name) " +
+            "FROM Post p JOIN p.author a ORDER BY p.idPost")
+    List<PostSummaryDTO> findAllSummaries();
+
+    @Query("SELECT new com.adrian.blogweb1.dto.PostSummaryDTO(p.idPost, p.title, p.excerpt, p.createdAt, a.name) " +
+            "FROM Post p JOIN p.author a WHERE p.idPost IN :ids")
+    List<PostSummaryDTO> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // Detalle de un post sin cargar la entidad: no deja instancias gestionadas ni snapshots en la sesión.
+    @Query("SELECT new com.adrian.blogweb1.dto.PostResponseDTO(p.idPost, p.title, p.content, p.createdAt, a.name) " +
+            "FROM Post p JOIN p.author a WHERE p.idPost = :idPost")
+    Optional<PostResponseDTO> findResponseById(@Param("idPost") Long idPost);
+
+    // Ranking sobre la columna agregada: no incluye las visitas aún pendientes de volcar.
+    @Query("SELECT new com.adrian.blogweb1.dto.PostViewCountDTO(p.idPost, p.title, a.name, p.viewCount) " +
+            "FROM Post p JOIN p.author a ORDER BY p.viewCount DESC, p.idPost")
+    List<PostViewCountDTO> findMostViewed(Pageable pageable);
+
+    // Posts anteriores a la columna excerpt, para rellenarla por lotes.
+    List<Post> findByExcerptIsNullAndContentIsNotNull(Pageable pageable);
 }
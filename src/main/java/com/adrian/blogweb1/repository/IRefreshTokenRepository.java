@@ -0,0 +1,36 @@
+package com.adrian.blogweb1.repository;
+
+import com.adrian.blogweb1.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface IRefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    // Una sola consulta por el índice único de token_hash, trayendo también al usuario.
+    @Query("SELECT t FROM RefreshToken t JOIN FETCH t.user WHERE t.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHashWithUser(@Param("tokenHash") String tokenHash);
+
+    // Marca el token como usado solo si nadie lo ha hecho antes (evita rotaciones concurrentes).
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.idRefreshToken = :id AND t.revoked = false")
+    int markAsUsed(@Param("id") Long idRefreshToken);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.familyId = :familyId AND t.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.user.idUserSec = :userId AND t.revoked = false")
+    int revokeAllForUser(@Param("userId") Long idUserSec);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
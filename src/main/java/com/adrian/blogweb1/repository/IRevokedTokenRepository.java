@@ -0,0 +1,31 @@
+package com.adrian.blogweb1.repository;
+
+import com.adrian.blogweb1.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IRevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    // Sincronización incremental: solo las revocaciones nuevas y todavía vigentes.
+    @Query("SELECT r FROM RevokedToken r WHERE r.idRevokedToken > :lastId AND r.expiresAt > :now ORDER BY r.idRevokedToken")
+    List<RevokedToken> findActiveAfter(@Param("lastId") long lastId, @Param("now") Instant now);
+
+    // Consulta de respaldo cuando el conjunto exacto en memoria se ha desbordado.
+    @Query("SELECT MAX(r.revokedAt) FROM RevokedToken r " +
+            "WHERE r.type = :type AND r.value = :value AND r.expiresAt > :now")
+    Optional<Instant> findLatestRevocation(@Param("type") RevokedToken.RevocationType type,
+                                           @Param("value") String value,
+                                           @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
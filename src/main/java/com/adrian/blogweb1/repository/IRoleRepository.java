@@ -2,12 +2,15 @@ package com.adrian.blogweb1.repository;
 
 
 
+import com.adrian.blogweb1.dto.RoleEpochDTO;
 import com.adrian.blogweb1.model.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +23,40 @@ public interface IRoleRepository extends JpaRepository<Role, Long> {
 
     Optional<Role> findByRole(String role);
 
+    @Query("SELECT new com.adrian.blogweb1.dto.RoleEpochDTO(r.role, r.authzEpoch) FROM Role r")
+    List<RoleEpochDTO> findAllEpochs();
+
+    // Incrementa la época de los roles que contienen el permiso; debe ejecutarse antes de desasignarlo.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Role r SET r.authzEpoch = r.authzEpoch + 1 WHERE r.idRole IN " +
+            "(SELECT r2.idRole FROM Role r2 JOIN r2.permissionsList p WHERE p.idPermission = :permissionId)")
+    int bumpEpochsByPermissionId(@Param("permissionId") Long permissionId);
+
+    @Query("SELECT new com.adrian.blogweb1.dto.RoleEpochDTO(r.role, r.authzEpoch) FROM Role r " +
+            "JOIN r.permissionsList p WHERE p.idPermission = :permissionId")
+    List<RoleEpochDTO> findEpochsByPermissionId(@Param("permissionId") Long permissionId);
+
+    // Altas y bajas de permisos de un rol: una sentencia para cada conjunto, sea cual sea su tamaño.
+    // clearAutomatically: la colección permissionsList cargada ya no refleja la tabla tras el cambio.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO roles_permissions (role_id, permission_id) " +
+            "SELECT :roleId, p.id_permission FROM permissions p WHERE p.id_permission IN :permissionIds", nativeQuery = true)
+    int addPermissions(@Param("roleId") Long roleId, @Param("permissionIds") Collection<Long> permissionIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM roles_permissions WHERE role_id = :roleId AND permission_id IN :permissionIds",
+            nativeQuery = true)
+    int removePermissions(@Param("roleId") Long roleId, @Param("permissionIds") Collection<Long> permissionIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Role r SET r.authzEpoch = r.authzEpoch + 1 WHERE r.idRole = :roleId")
+    int bumpEpoch(@Param("roleId") Long roleId);
+
+    // Quita el permiso de todos los roles en una sola sentencia, sin cargar los roles ni sus colecciones.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM roles_permissions WHERE permission_id = :permissionId", nativeQuery = true)
+    int removePermissionFromAllRoles(@Param("permissionId") Long permissionId);
+
     }
 
 
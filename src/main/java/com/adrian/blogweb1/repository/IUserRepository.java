@@ -5,8 +5,12 @@ package com.adrian.blogweb1.repository;
 import com.adrian.blogweb1.model.Role;
 import com.adrian.blogweb1.model.UserSec;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +25,27 @@ public interface IUserRepository extends JpaRepository <UserSec, Long>{
 
     Optional<UserSec> findByEmail(String email);
 
+    // Solo el ID, sin cargar el grafo EAGER de roles y permisos.
+    @Query("SELECT u.idUserSec FROM UserSec u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    // Para el alta masiva: qué usernames/emails del lote ya están ocupados, sin cargar entidades.
+    @Query("SELECT u.username FROM UserSec u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM UserSec u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Desasigna el rol de todos los usuarios en una sola sentencia, sin cargar ningún UserSec.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM user_roles WHERE role_id = :roleId", nativeQuery = true)
+    int removeRoleFromAllUsers(@Param("roleId") Long roleId);
+
+    // Sustituye el hash de la contraseña sin cargar la entidad (re-cifrado transparente al hacer login).
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserSec u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
 
 }
 
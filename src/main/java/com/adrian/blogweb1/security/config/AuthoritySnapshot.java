@@ -0,0 +1,23 @@
+package com.adrian.blogweb1.security.config;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Autoridades de un token en dos formas inmutables: la lista que espera Spring Security
+ * y un conjunto de nombres con búsqueda O(1) para las decisiones de autorización precompiladas.
+ */
+public record AuthoritySnapshot(List<GrantedAuthority> authorities, Set<String> names) {
+
+    public static AuthoritySnapshot of(Collection<? extends GrantedAuthority> authorities) {
+        List<GrantedAuthority> list = List.copyOf(authorities);
+        Set<String> names = list.stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toUnmodifiableSet());
+        return new AuthoritySnapshot(list, names);
+    }
+}
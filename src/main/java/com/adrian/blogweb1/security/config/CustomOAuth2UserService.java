@@ -15,9 +15,11 @@ import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -31,32 +33,65 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
     private final IRoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final DefaultAdminProperties adminProperties;
+    private final OAuth2UserCache oAuth2UserCache;
+    private final UnknownUsernameCache unknownUsernameCache;
+    private final UserDetailsCache userDetailsCache;
+    private final TransactionTemplate transactionTemplate;
 
     public CustomOAuth2UserService(IUserRepository userRepository,
                                    IRoleRepository roleRepository,
                                    PasswordEncoder passwordEncoder,
-                                   DefaultAdminProperties adminProperties) {
+                                   DefaultAdminProperties adminProperties,
+                                   OAuth2UserCache oAuth2UserCache,
+                                   UnknownUsernameCache unknownUsernameCache,
+                                   UserDetailsCache userDetailsCache,
+                                   PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.adminProperties = adminProperties;
+        this.oAuth2UserCache = oAuth2UserCache;
+        this.unknownUsernameCache = unknownUsernameCache;
+        this.userDetailsCache = userDetailsCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
-    @Transactional
     public OAuth2User loadUser(OAuth2UserRequest userRequest) throws OAuth2AuthenticationException {
+        // La llamada a GitHub se hace fuera de cualquier transacción para no retener una conexión de BD.
         OAuth2User oauthUser = super.loadUser(userRequest);
         String registrationId = userRequest.getClientRegistration().getRegistrationId();
 
-        UserSec userSec = findOrCreateUser(oauthUser);
-
-        Collection<? extends GrantedAuthority> authorities = userSec.getAuthorities();
+        Collection<? extends GrantedAuthority> authorities = resolveAuthorities(oauthUser);
         String userNameAttributeName = userRequest.getClientRegistration()
                 .getProviderDetails().getUserInfoEndpoint().getUserNameAttributeName();
 
         return new CustomOAuth2User(oauthUser, registrationId, userNameAttributeName, authorities);
     }
 
+    /**
+     * Resuelve las autoridades del usuario local. Si el login de GitHub está en la caché,
+     * no se abre transacción ni se consulta la BD.
+     */
+    Collection<? extends GrantedAuthority> resolveAuthorities(OAuth2User oauthUser) {
+        String login = oauthUser.getAttribute("login");
+        String email = oauthUser.getAttribute("email");
+
+        if (login != null && email != null) {
+            Optional<OAuth2UserCache.CachedOAuth2User> cached = oAuth2UserCache.get(login, email);
+            if (cached.isPresent()) {
+                log.debug(">>> Usuario OAuth2 '{}' resuelto desde la caché.", login);
+                return cached.get().authorities();
+            }
+        }
+
+        UserSec userSec = transactionTemplate.execute(status -> findOrCreateUser(oauthUser));
+        if (login != null && userSec != null) {
+            oAuth2UserCache.put(login, userSec);
+        }
+        return userSec != null ? userSec.getAuthorities() : List.of();
+    }
+
     UserSec findOrCreateUser(OAuth2User oauthUser) {
         String email = Optional.ofNullable(oauthUser.<String>getAttribute("email"))
                 .orElseThrow(() -> new OAuth2AuthenticationException("No se pudo obtener el email de GitHub. Asegúrate de que sea público en tu perfil."));
@@ -67,8 +102,12 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
         return userRepository.findByEmail(email)
                 .map(existingUser -> {
                     log.info(">>> Usuario existente encontrado por email: {}", email);
+                    boolean usernameChanged = !username.equals(existingUser.getUsername());
+                    if (usernameChanged) {
+                        userDetailsCache.evict(existingUser.getUsername());
+                    }
                     existingUser.setUsername(username);
-                    return checkAndApplyAdminRole(existingUser);
+                    return checkAndApplyAdminRole(existingUser, usernameChanged);
                 })
                 .orElseGet(() -> {
                     log.info(">>> No se encontró usuario por email: {}. Creando nuevo usuario...", email);
@@ -85,10 +124,10 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
         newUser.setAccountNotExpired(true);
         newUser.setAccountNotLocked(true);
         newUser.setCredentialNotExpired(true);
-        return checkAndApplyAdminRole(newUser);
+        return checkAndApplyAdminRole(newUser, true);
     }
 
-    private UserSec checkAndApplyAdminRole(UserSec user) {
+    private UserSec checkAndApplyAdminRole(UserSec user, boolean changed) {
         String adminEmail = adminProperties.getEmail();
         String adminUsername = adminProperties.getUsername();
 
@@ -105,7 +144,17 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
             Role assignedRole = roleRepository.findByRole(roleName)
                     .orElseThrow(() -> new IllegalStateException("Error crítico: Rol '" + roleName + "' no encontrado."));
             user.setRolesList(Set.of(assignedRole));
+        } else if (!changed) {
+            // Nada ha cambiado: evitamos una escritura innecesaria en cada login.
+            return user;
+        }
+
+        if (changed) {
+            // Usuario nuevo o renombrado: su username puede estar marcado como inexistente.
+            unknownUsernameCache.forget(user.getUsername());
         }
+        // Rol o username nuevos: el login por contraseña no debe seguir viendo la versión cacheada.
+        userDetailsCache.evict(user.getUsername());
 
         return userRepository.save(user);
     }
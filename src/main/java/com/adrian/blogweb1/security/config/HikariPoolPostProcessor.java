@@ -0,0 +1,58 @@
+package com.adrian.blogweb1.security.config;
+
+import com.adrian.blogweb1.security.config.props.DataSourcePoolProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+/**
+ * Aplica database.pool.* al HikariDataSource autoconfigurado antes de que arranque el pool.
+ * Se ejecuta después del enlace de spring.datasource.hikari.*, así que estas propiedades prevalecen.
+ */
+public class HikariPoolPostProcessor implements BeanPostProcessor, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(HikariPoolPostProcessor.class);
+
+    private final ObjectProvider<DataSourcePoolProperties> properties;
+
+    public HikariPoolPostProcessor(ObjectProvider<DataSourcePoolProperties> properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            apply(dataSource, properties.getObject());
+        }
+        return bean;
+    }
+
+    public static void apply(HikariDataSource dataSource, DataSourcePoolProperties pool) {
+        dataSource.setPoolName(pool.getPoolName());
+        dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+        dataSource.setMinimumIdle(pool.getMinimumIdle());
+        dataSource.setConnectionTimeout(pool.getConnectionTimeoutMs());
+        dataSource.setIdleTimeout(pool.getIdleTimeoutMs());
+        dataSource.setMaxLifetime(pool.getMaxLifetimeMs());
+        dataSource.setLeakDetectionThreshold(pool.getLeakDetectionThresholdMs());
+
+        String url = dataSource.getJdbcUrl();
+        if (url != null && url.startsWith("jdbc:postgresql:")) {
+            dataSource.addDataSourceProperty("prepareThreshold", pool.getPrepareThreshold());
+            dataSource.addDataSourceProperty("preparedStatementCacheQueries", pool.getPreparedStatementCacheQueries());
+            dataSource.addDataSourceProperty("preparedStatementCacheSizeMiB", pool.getPreparedStatementCacheSizeMib());
+        }
+
+        log.info(">>> Pool '{}': {} conexiones máx., {} mínimas, espera máx. {} ms, detección de fugas {} ms.",
+                pool.getPoolName(), pool.getMaximumPoolSize(), pool.getMinimumIdle(),
+                pool.getConnectionTimeoutMs(), pool.getLeakDetectionThresholdMs());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,23 @@
+package com.adrian.blogweb1.security.config;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.Set;
+
+/**
+ * Autenticación creada por JwtTokenValidator. Además de las autoridades, expone el conjunto de nombres
+ * precalculado para que PrecompiledAuthorizationManager resuelva cada comprobación con un lookup en hash.
+ */
+public class JwtAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+    private final transient AuthoritySnapshot authoritySnapshot;
+
+    public JwtAuthenticationToken(String username, AuthoritySnapshot authoritySnapshot) {
+        super(username, null, authoritySnapshot.authorities());
+        this.authoritySnapshot = authoritySnapshot;
+    }
+
+    public Set<String> getAuthorityNames() {
+        return authoritySnapshot.names();
+    }
+}
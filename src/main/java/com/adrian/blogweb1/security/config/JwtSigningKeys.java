@@ -0,0 +1,180 @@
+package com.adrian.blogweb1.security.config;
+
+import com.adrian.blogweb1.security.config.props.JwtSigningProperties;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECPoint;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Claves de firma asimétricas (RS256 / ES256 / ES384 / ES512) cargadas una sola vez desde un keystore local.
+ * En modo HMAC no carga nada y JwtUtils sigue usando el secreto compartido.
+ * EdDSA no está disponible: la librería java-jwt no implementa ese algoritmo.
+ */
+@Component
+public class JwtSigningKeys {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtSigningKeys.class);
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final Algorithm algorithm;
+    private final String keyId;
+    private final Map<String, Object> jwks;
+
+    public JwtSigningKeys(JwtSigningProperties properties, ResourceLoader resourceLoader) {
+        if (!properties.isAsymmetric()) {
+            this.algorithm = null;
+            this.keyId = null;
+            this.jwks = null;
+            return;
+        }
+
+        KeyStore.PrivateKeyEntry entry = loadEntry(properties, resourceLoader);
+        PrivateKey privateKey = entry.getPrivateKey();
+        PublicKey publicKey = entry.getCertificate().getPublicKey();
+
+        Map<String, Object> jwk;
+        if (properties.getMode() == JwtSigningProperties.Mode.RSA
+                && publicKey instanceof RSAPublicKey rsaPublic && privateKey instanceof RSAPrivateKey rsaPrivate) {
+            this.keyId = thumbprint("{\"e\":\"" + unsigned(rsaPublic.getPublicExponent()) + "\",\"kty\":\"RSA\",\"n\":\""
+                    + unsigned(rsaPublic.getModulus()) + "\"}");
+            this.algorithm = Algorithm.RSA256(rsaPublic, rsaPrivate);
+            jwk = rsaJwk(rsaPublic);
+        } else if (properties.getMode() == JwtSigningProperties.Mode.EC
+                && publicKey instanceof ECPublicKey ecPublic && privateKey instanceof ECPrivateKey ecPrivate) {
+            int fieldSize = ecPublic.getParams().getCurve().getField().getFieldSize();
+            String crv = switch (fieldSize) {
+                case 256 -> "P-256";
+                case 384 -> "P-384";
+                case 521 -> "P-521";
+                default -> throw new IllegalStateException("Curva EC no soportada para JWT: " + fieldSize + " bits");
+            };
+            ECPoint point = ecPublic.getW();
+            String x = coordinate(point.getAffineX(), fieldSize);
+            String y = coordinate(point.getAffineY(), fieldSize);
+            this.keyId = thumbprint("{\"crv\":\"" + crv + "\",\"kty\":\"EC\",\"x\":\"" + x + "\",\"y\":\"" + y + "\"}");
+            this.algorithm = switch (fieldSize) {
+                case 256 -> Algorithm.ECDSA256(ecPublic, ecPrivate);
+                case 384 -> Algorithm.ECDSA384(ecPublic, ecPrivate);
+                default -> Algorithm.ECDSA512(ecPublic, ecPrivate);
+            };
+            jwk = ecJwk(crv, x, y);
+        } else {
+            throw new IllegalStateException("La clave '" + properties.getKeyAlias() + "' del keystore no es de tipo "
+                    + properties.getMode());
+        }
+
+        jwk.put("kid", keyId);
+        jwk.put("use", "sig");
+        jwk.put("alg", algorithm.getName());
+        this.jwks = Map.of("keys", List.of(Map.copyOf(jwk)));
+        log.info(">>> Firma JWT asimétrica activada ({}), kid={}", algorithm.getName(), keyId);
+    }
+
+    public Optional<Algorithm> asymmetricAlgorithm() {
+        return Optional.ofNullable(algorithm);
+    }
+
+    public String keyId() {
+        return keyId;
+    }
+
+    /**
+     * JWK Set con la clave pública, precalculado al arrancar. Vacío en modo HMAC (no hay nada que publicar).
+     */
+    public Optional<Map<String, Object>> jwks() {
+        return Optional.ofNullable(jwks);
+    }
+
+    private static KeyStore.PrivateKeyEntry loadEntry(JwtSigningProperties properties, ResourceLoader resourceLoader) {
+        if (properties.getKeystorePath() == null || properties.getKeystorePath().isBlank()) {
+            throw new IllegalStateException("security.jwt.signing.keystore-path es obligatorio en modo " + properties.getMode());
+        }
+        char[] password = properties.getKeystorePassword() != null
+                ? properties.getKeystorePassword().toCharArray() : new char[0];
+        Resource resource = resourceLoader.getResource(properties.getKeystorePath());
+        try (InputStream in = resource.getInputStream()) {
+            KeyStore keyStore = KeyStore.getInstance(properties.getKeystoreType());
+            keyStore.load(in, password);
+            KeyStore.Entry entry = keyStore.getEntry(properties.getKeyAlias(), new KeyStore.PasswordProtection(password));
+            if (!(entry instanceof KeyStore.PrivateKeyEntry privateKeyEntry)) {
+                throw new IllegalStateException("No existe una clave privada con alias '" + properties.getKeyAlias()
+                        + "' en " + properties.getKeystorePath());
+            }
+            return privateKeyEntry;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo cargar el keystore JWT " + properties.getKeystorePath(), e);
+        } finally {
+            Arrays.fill(password, '\0');
+        }
+    }
+
+    private static Map<String, Object> rsaJwk(RSAPublicKey publicKey) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "RSA");
+        jwk.put("n", unsigned(publicKey.getModulus()));
+        jwk.put("e", unsigned(publicKey.getPublicExponent()));
+        return jwk;
+    }
+
+    private static Map<String, Object> ecJwk(String crv, String x, String y) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", crv);
+        jwk.put("x", x);
+        jwk.put("y", y);
+        return jwk;
+    }
+
+    // Entero sin signo en big-endian y base64url (RFC 7518, sección 6.3.1).
+    private static String unsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return BASE64_URL.encodeToString(bytes);
+    }
+
+    // Coordenada de longitud fija según el tamaño de la curva (RFC 7518, sección 6.2.1.2).
+    private static String coordinate(BigInteger value, int fieldSize) {
+        int length = (fieldSize + 7) / 8;
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[length];
+        int copy = Math.min(bytes.length, length);
+        System.arraycopy(bytes, bytes.length - copy, fixed, length - copy, copy);
+        return BASE64_URL.encodeToString(fixed);
+    }
+
+    // Huella JWK (RFC 7638) como identificador estable de la clave.
+    private static String thumbprint(String canonicalJwk) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return BASE64_URL.encodeToString(digest.digest(canonicalJwk.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 no disponible en la JVM", e);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.adrian.blogweb1.security.config;
 
+import com.adrian.blogweb1.service.IRefreshTokenService;
 import com.adrian.blogweb1.utils.JwtUtils;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -8,8 +12,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
 
@@ -20,12 +22,17 @@ public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
 
     private static final Logger log = LoggerFactory.getLogger(OAuth2LoginSuccessHandler.class);
 
+    // El generador no debe cerrar el writer del servlet; solo lo vaciamos al terminar.
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
     private final JwtUtils jwtUtils;
-    private final UserDetailsService userDetailsService;
+    private final IRefreshTokenService refreshTokenService;
 
-    public OAuth2LoginSuccessHandler(JwtUtils jwtUtils, UserDetailsService userDetailsService) {
+    public OAuth2LoginSuccessHandler(JwtUtils jwtUtils, IRefreshTokenService refreshTokenService) {
         this.jwtUtils = jwtUtils;
-        this.userDetailsService = userDetailsService;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @Override
@@ -45,28 +52,26 @@ public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
 
             log.info("Datos de GitHub -> Email: '{}', Username: '{}'", email, username);
 
-            log.info("Paso 1: Cargando UserDetails para el username: '{}'", username);
-            // CORRECCIÓN: Se elimina el try-catch anidado. Cualquier excepción será capturada por el bloque principal.
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            log.info("Paso 1: ÉXITO. UserDetails cargado. Roles: {}", userDetails.getAuthorities());
-
-            log.info("Paso 2: Creando la autenticación para el token JWT.");
+            // CustomOAuth2UserService ya resolvió el UserSec y sus autoridades: no volvemos a la BD.
             Authentication jwtAuthentication = new UsernamePasswordAuthenticationToken(
-                    userDetails.getUsername(),
+                    username,
                     null,
-                    userDetails.getAuthorities()
+                    oAuth2User.getAuthorities()
             );
-            log.info("Paso 2: ÉXITO. Objeto de autenticación para JWT creado.");
 
-            log.info("Paso 3: Creando el token JWT.");
             String token = jwtUtils.createToken(jwtAuthentication);
-            log.info("Paso 3: ÉXITO. Token JWT generado.");
+            String refreshToken = refreshTokenService.issueRefreshToken(username);
+            log.info("Token JWT generado para '{}'. Roles: {}", username, oAuth2User.getAuthorities());
 
-            log.info("Paso 4: Enviando respuesta JSON al cliente.");
             response.setContentType("application/json");
-            response.getWriter().write(
-                    String.format("{\"token\":\"Bearer %s\", \"email\":\"%s\", \"username\":\"%s\"}", token, email, username)
-            );
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(response.getWriter())) {
+                generator.writeStartObject();
+                generator.writeStringField("token", "Bearer " + token);
+                generator.writeStringField("refreshToken", refreshToken);
+                generator.writeStringField("email", email);
+                generator.writeStringField("username", username);
+                generator.writeEndObject();
+            }
             log.info("--- [OAuth2LoginSuccessHandler] - FIN. Respuesta enviada exitosamente.");
 
         } catch (Exception e) {
@@ -74,7 +79,12 @@ public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
             log.error("!!!!!!!! ERROR FATAL DENTRO DE OAuth2LoginSuccessHandler !!!!!!!!", e);
             response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             response.setContentType("application/json");
-            response.getWriter().write("{\"error\":\"Ocurrió un error interno al procesar el login de OAuth2. Revise los logs del servidor.\", \"message\":\"" + e.getMessage() + "\"}");
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(response.getWriter())) {
+                generator.writeStartObject();
+                generator.writeStringField("error", "Ocurrió un error interno al procesar el login de OAuth2. Revise los logs del servidor.");
+                generator.writeStringField("message", e.getMessage());
+                generator.writeEndObject();
+            }
         }
     }
 }
@@ -0,0 +1,93 @@
+package com.adrian.blogweb1.security.config;
+
+import com.adrian.blogweb1.dto.CacheInvalidationEvent.CacheType;
+import com.adrian.blogweb1.model.UserSec;
+import com.adrian.blogweb1.service.ICacheInvalidationService;
+import com.adrian.blogweb1.utils.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Caché de corta duración que asocia el login de GitHub con el usuario local y sus autoridades.
+ * Permite que los logins repetidos en pocos minutos no toquen la base de datos.
+ * Igual que UserDetailsCache, se invalida (aquí y en el resto de nodos) al cambiar usuarios, roles o permisos:
+ * si no, un login de GitHub recibiría autoridades antiguas con la época actual de sus roles.
+ */
+@Component
+public class OAuth2UserCache {
+
+    private final Cache<String, CachedOAuth2User> cache;
+    private final ICacheInvalidationService cacheInvalidationService;
+
+    public OAuth2UserCache(@Value("${security.oauth2.user-cache.ttl-seconds:300}") long ttlSeconds,
+                           @Value("${security.oauth2.user-cache.max-size:10000}") long maxSize,
+                           ICacheInvalidationService cacheInvalidationService) {
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Devuelve la entrada cacheada solo si el email de GitHub sigue siendo el mismo.
+     * Si el usuario cambió su email en GitHub, se fuerza una nueva resolución contra la BD.
+     */
+    public Optional<CachedOAuth2User> get(String login, String email) {
+        CachedOAuth2User cached = cache.getIfPresent(login);
+        if (cached == null || !cached.email().equalsIgnoreCase(email)) {
+            return Optional.empty();
+        }
+        return Optional.of(cached);
+    }
+
+    public void put(String login, UserSec user) {
+        cache.put(login, new CachedOAuth2User(
+                user.getIdUserSec(),
+                user.getEmail(),
+                user.getUsername(),
+                List.copyOf(user.getAuthorities())
+        ));
+    }
+
+    public void evictUser(String username) {
+        if (username != null) {
+            AfterCommit.runNowAndAfterCommit(() -> removeUsernames(List.of(username)));
+            cacheInvalidationService.publish(CacheType.OAUTH2_USERS, List.of(username));
+        }
+    }
+
+    // Cambios en roles o permisos: afectan a un número indeterminado de usuarios.
+    public void evictAll() {
+        AfterCommit.runNowAndAfterCommit(cache::invalidateAll);
+        cacheInvalidationService.publishAll(CacheType.OAUTH2_USERS);
+    }
+
+    // Invalidaciones recibidas de otros nodos: no se vuelven a publicar.
+    public void invalidateLocally(Collection<String> usernames) {
+        removeUsernames(usernames);
+    }
+
+    public void invalidateAllLocally() {
+        cache.invalidateAll();
+    }
+
+    // La caché está indexada por login de GitHub y las invalidaciones llegan por username local.
+    private void removeUsernames(Collection<String> usernames) {
+        cache.asMap().values().removeIf(cached -> usernames.contains(cached.username()));
+    }
+
+    public record CachedOAuth2User(Long idUserSec,
+                                   String email,
+                                   String username,
+                                   List<GrantedAuthority> authorities) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.adrian.blogweb1.security.config;
+
+import com.adrian.blogweb1.security.config.props.PasswordHashingProperties.Algorithm;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Construye el PasswordEncoder de la aplicación: un DelegatingPasswordEncoder que cifra con el algoritmo
+ * configurado y verifica cualquiera de los soportados según el prefijo {id} del hash.
+ */
+public final class PasswordEncoderFactory {
+
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int PBKDF2_SALT_LENGTH = 16;
+
+    private PasswordEncoderFactory() {
+    }
+
+    public static PasswordEncoder delegating(Algorithm algorithm, PasswordHashingParameters parameters) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        BCryptPasswordEncoder bcrypt = bcrypt(parameters.bcryptStrength());
+        encoders.put(Algorithm.BCRYPT.id(), bcrypt);
+        encoders.put(Algorithm.ARGON2.id(), argon2(parameters.argon2MemoryKib(), parameters.argon2Iterations(),
+                parameters.argon2Parallelism()));
+        encoders.put(Algorithm.PBKDF2.id(), pbkdf2(parameters.pbkdf2Iterations()));
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm.id(), encoders);
+        // Los hashes anteriores a este cambio son BCrypt sin prefijo: se aceptan y se re-cifran al hacer login.
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+
+    public static BCryptPasswordEncoder bcrypt(int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    public static Argon2PasswordEncoder argon2(int memoryKib, int iterations, int parallelism) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, parallelism, memoryKib, iterations);
+    }
+
+    public static Pbkdf2PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", PBKDF2_SALT_LENGTH, iterations, SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+}
@@ -0,0 +1,78 @@
+package com.adrian.blogweb1.security.config;
+
+import com.adrian.blogweb1.security.config.props.PasswordHashingProperties.Algorithm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Ajusta el coste del algoritmo activo al hardware actual: elige el mayor coste cuyo tiempo de cifrado
+ * no supera el objetivo. Nunca baja de los parámetros configurados, que actúan como mínimo de seguridad.
+ */
+public final class PasswordHashCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashCalibrator.class);
+
+    private static final String SAMPLE_PASSWORD = "calibracion-Contraseña-123";
+    private static final int SAMPLES = 3;
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+    private static final int MAX_ARGON2_ITERATIONS = 16;
+    private static final int PBKDF2_ROUNDING = 10_000;
+
+    private PasswordHashCalibrator() {
+    }
+
+    public static PasswordHashingParameters calibrate(Algorithm algorithm, PasswordHashingParameters base, Duration target) {
+        long targetNanos = target.toNanos();
+        PasswordHashingParameters calibrated = switch (algorithm) {
+            case BCRYPT -> base.withBcryptStrength(pickCost(base.bcryptStrength(), MAX_BCRYPT_STRENGTH,
+                    strength -> measure(PasswordEncoderFactory.bcrypt(strength)), targetNanos));
+            case ARGON2 -> base.withArgon2Iterations(pickCost(base.argon2Iterations(), MAX_ARGON2_ITERATIONS,
+                    iterations -> measure(PasswordEncoderFactory.argon2(base.argon2MemoryKib(), iterations,
+                            base.argon2Parallelism())), targetNanos));
+            case PBKDF2 -> base.withPbkdf2Iterations(scaleIterations(base.pbkdf2Iterations(),
+                    measure(PasswordEncoderFactory.pbkdf2(base.pbkdf2Iterations())), targetNanos));
+        };
+        log.info(">>> Hash de contraseñas calibrado para {} ms con {}: {}", target.toMillis(), algorithm, calibrated);
+        return calibrated;
+    }
+
+    /**
+     * Mayor coste en [min, max] cuyo tiempo medido no supera el objetivo; min si ni siquiera ese lo cumple.
+     * Se detiene en el primer coste que se pasa: en estos algoritmos el tiempo crece con el coste.
+     */
+    static int pickCost(int min, int max, IntToLongFunction nanosForCost, long targetNanos) {
+        int chosen = min;
+        for (int cost = min + 1; cost <= max; cost++) {
+            if (nanosForCost.applyAsLong(cost) > targetNanos) {
+                break;
+            }
+            chosen = cost;
+        }
+        return chosen;
+    }
+
+    // PBKDF2 es lineal en el número de iteraciones: basta una medida para extrapolar.
+    static int scaleIterations(int baseIterations, long baseNanos, long targetNanos) {
+        long scaled = baseIterations * targetNanos / Math.max(1, baseNanos);
+        long rounded = scaled / PBKDF2_ROUNDING * PBKDF2_ROUNDING;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(baseIterations, rounded));
+    }
+
+    // Mediana de varias muestras tras un cifrado de calentamiento.
+    private static long measure(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
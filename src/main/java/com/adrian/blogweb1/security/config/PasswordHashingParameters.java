@@ -0,0 +1,23 @@
+package com.adrian.blogweb1.security.config;
+
+/**
+ * Parámetros de coste de cada algoritmo de hash de contraseñas.
+ */
+public record PasswordHashingParameters(int bcryptStrength,
+                                        int argon2MemoryKib,
+                                        int argon2Iterations,
+                                        int argon2Parallelism,
+                                        int pbkdf2Iterations) {
+
+    public PasswordHashingParameters withBcryptStrength(int strength) {
+        return new PasswordHashingParameters(strength, argon2MemoryKib, argon2Iterations, argon2Parallelism, pbkdf2Iterations);
+    }
+
+    public PasswordHashingParameters withArgon2Iterations(int iterations) {
+        return new PasswordHashingParameters(bcryptStrength, argon2MemoryKib, iterations, argon2Parallelism, pbkdf2Iterations);
+    }
+
+    public PasswordHashingParameters withPbkdf2Iterations(int iterations) {
+        return new PasswordHashingParameters(bcryptStrength, argon2MemoryKib, argon2Iterations, argon2Parallelism, iterations);
+    }
+}
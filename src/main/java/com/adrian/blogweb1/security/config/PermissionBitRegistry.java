@@ -0,0 +1,197 @@
+package com.adrian.blogweb1.security.config;
+
+import com.adrian.blogweb1.dto.CacheInvalidationEvent.CacheType;
+import com.adrian.blogweb1.dto.PermissionNameDTO;
+import com.adrian.blogweb1.repository.IPermissionRepository;
+import com.adrian.blogweb1.service.ICacheInvalidationService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asignación estable permiso -> bit (bit = idPermission - 1) para codificar los permisos del JWT
+ * como una máscara de bits en base64url en lugar de una lista de cadenas.
+ * Al decodificar se reutilizan autoridades preasignadas y listas inmutables cacheadas por máscara,
+ * de modo que el filtro apenas asigna memoria por petición.
+ */
+@Component
+public class PermissionBitRegistry {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final long MIN_MISS_REFRESH_INTERVAL_MS = 1000;
+
+    private final IPermissionRepository permissionRepository;
+    private final ICacheInvalidationService cacheInvalidationService;
+    private final Cache<AuthorityKey, AuthoritySnapshot> authorityCache;
+    private final Map<String, GrantedAuthority> roleAuthorities = new ConcurrentHashMap<>();
+    private final AtomicLong lastMissRefresh = new AtomicLong();
+
+    private volatile Mapping mapping = Mapping.EMPTY;
+
+    public PermissionBitRegistry(IPermissionRepository permissionRepository,
+                                 @Value("${security.jwt.permission-bits.cache-size:1024}") long cacheSize,
+                                 ICacheInvalidationService cacheInvalidationService) {
+        this.permissionRepository = permissionRepository;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.authorityCache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.permission-bits.refresh-interval-ms:10000}")
+    public synchronized void refresh() {
+        Map<String, Integer> bitByName = new HashMap<>();
+        for (PermissionNameDTO permission : permissionRepository.findAllNames()) {
+            bitByName.put(permission.permissionName(), Math.toIntExact(permission.idPermission() - 1));
+        }
+        if (!bitByName.equals(mapping.bitByName)) {
+            this.mapping = Mapping.of(bitByName);
+            authorityCache.invalidateAll();
+        }
+    }
+
+    // Los cambios locales se avisan al resto de nodos fuera del monitor: publicar puede tocar la BD.
+    public void register(Long idPermission, String permissionName) {
+        applyRegister(idPermission, permissionName);
+        cacheInvalidationService.publishAll(CacheType.PERMISSION_BITS);
+    }
+
+    public void remove(Long idPermission) {
+        applyRemove(idPermission);
+        cacheInvalidationService.publishAll(CacheType.PERMISSION_BITS);
+    }
+
+    private synchronized void applyRegister(Long idPermission, String permissionName) {
+        Map<String, Integer> bitByName = new HashMap<>(mapping.bitByName);
+        int bit = Math.toIntExact(idPermission - 1);
+        bitByName.values().removeIf(existing -> existing == bit);
+        bitByName.put(permissionName, bit);
+        this.mapping = Mapping.of(bitByName);
+        authorityCache.invalidateAll();
+    }
+
+    private synchronized void applyRemove(Long idPermission) {
+        Map<String, Integer> bitByName = new HashMap<>(mapping.bitByName);
+        int bit = Math.toIntExact(idPermission - 1);
+        if (bitByName.values().removeIf(existing -> existing == bit)) {
+            this.mapping = Mapping.of(bitByName);
+            authorityCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Codifica los permisos como máscara base64url.
+     * Devuelve vacío si alguno todavía no tiene bit asignado en este nodo: el llamante usa entonces la lista clásica.
+     */
+    public Optional<String> encode(Collection<String> permissionNames) {
+        Mapping current = this.mapping;
+        BitSet bits = new BitSet();
+        for (String name : permissionNames) {
+            Integer bit = current.bitByName.get(name);
+            if (bit == null) {
+                return Optional.empty();
+            }
+            bits.set(bit);
+        }
+        return Optional.of(Base64.getUrlEncoder().withoutPadding().encodeToString(bits.toByteArray()));
+    }
+
+    /**
+     * Devuelve la lista inmutable de autoridades (roles con prefijo + permisos) para la combinación dada.
+     * Tras la primera petición con cada combinación, la respuesta sale de la caché sin asignar autoridades nuevas.
+     */
+    public List<GrantedAuthority> authoritiesFor(List<String> roles, String permissionMask) {
+        return snapshotFor(roles, permissionMask).authorities();
+    }
+
+    /**
+     * Igual que authoritiesFor, pero incluye también el conjunto de nombres que usa la autorización precompilada.
+     */
+    public AuthoritySnapshot snapshotFor(List<String> roles, String permissionMask) {
+        AuthorityKey key = new AuthorityKey(roles != null ? roles : List.of(), permissionMask);
+        AuthoritySnapshot cached = authorityCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        BitSet bits = BitSet.valueOf(Base64.getUrlDecoder().decode(permissionMask));
+        if (hasUnknownBits(bits) && refreshAfterMiss()) {
+            // Permiso creado en otro nodo y aún no sincronizado aquí.
+            return snapshotFor(roles, permissionMask);
+        }
+
+        Mapping current = this.mapping;
+        List<GrantedAuthority> authorities = new ArrayList<>(key.roles().size() + bits.cardinality());
+        for (String role : key.roles()) {
+            authorities.add(roleAuthorities.computeIfAbsent(role, r -> new SimpleGrantedAuthority(ROLE_PREFIX + r)));
+        }
+        for (int bit = bits.nextSetBit(0); bit >= 0; bit = bits.nextSetBit(bit + 1)) {
+            // Un bit sin permiso asociado (permiso borrado) simplemente se ignora.
+            if (bit < current.authorityByBit.length && current.authorityByBit[bit] != null) {
+                authorities.add(current.authorityByBit[bit]);
+            }
+        }
+
+        AuthoritySnapshot snapshot = AuthoritySnapshot.of(authorities);
+        authorityCache.put(key, snapshot);
+        return snapshot;
+    }
+
+    private boolean hasUnknownBits(BitSet bits) {
+        GrantedAuthority[] authorityByBit = this.mapping.authorityByBit;
+        for (int bit = bits.nextSetBit(0); bit >= 0; bit = bits.nextSetBit(bit + 1)) {
+            if (bit >= authorityByBit.length || authorityByBit[bit] == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Como mucho una recarga por segundo, para que un token con un bit huérfano no dispare consultas en bucle.
+    private boolean refreshAfterMiss() {
+        long now = System.currentTimeMillis();
+        long last = lastMissRefresh.get();
+        if (now - last < MIN_MISS_REFRESH_INTERVAL_MS || !lastMissRefresh.compareAndSet(last, now)) {
+            return false;
+        }
+        Mapping before = this.mapping;
+        refresh();
+        return this.mapping != before;
+    }
+
+    private record AuthorityKey(List<String> roles, String permissionMask) {
+    }
+
+    private static final class Mapping {
+
+        private static final Mapping EMPTY = new Mapping(Map.of(), new GrantedAuthority[0]);
+
+        private final Map<String, Integer> bitByName;
+        private final GrantedAuthority[] authorityByBit;
+
+        private Mapping(Map<String, Integer> bitByName, GrantedAuthority[] authorityByBit) {
+            this.bitByName = bitByName;
+            this.authorityByBit = authorityByBit;
+        }
+
+        private static Mapping of(Map<String, Integer> bitByName) {
+            int size = bitByName.values().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+            GrantedAuthority[] authorityByBit = new GrantedAuthority[size];
+            bitByName.forEach((name, bit) -> authorityByBit[bit] = new SimpleGrantedAuthority(name));
+            return new Mapping(Map.copyOf(bitByName), authorityByBit);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.adrian.blogweb1.security.config;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * AuthorizationManager para @PreAuthorize que evita evaluar SpEL en cada llamada.
+ * Las expresiones de la forma hasAuthority('X') se compilan una sola vez por método a la autoridad requerida
+ * y se comprueban contra el conjunto de nombres del JwtAuthenticationToken (lookup en hash).
+ * Cualquier otra expresión se delega en el PreAuthorizeAuthorizationManager estándar.
+ */
+public class PrecompiledAuthorizationManager implements AuthorizationManager<MethodInvocation>,
+        ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(PrecompiledAuthorizationManager.class);
+    private static final Pattern HAS_AUTHORITY = Pattern.compile("^\\s*hasAuthority\\(\\s*'([^']+)'\\s*\\)\\s*$");
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    // Marca para los métodos cuya expresión no se puede precompilar.
+    private static final String DELEGATE = "";
+
+    private final AuthorizationManager<MethodInvocation> delegate;
+    private final Map<Method, String> requiredAuthorities = new ConcurrentHashMap<>();
+
+    public PrecompiledAuthorizationManager() {
+        this(new PreAuthorizeAuthorizationManager());
+    }
+
+    public PrecompiledAuthorizationManager(AuthorizationManager<MethodInvocation> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        // Los controladores se resuelven al arrancar; el resto de beans anotados, en su primera llamada.
+        int compiled = 0;
+        for (Object controller : event.getApplicationContext().getBeansWithAnnotation(RestController.class).values()) {
+            compiled += precompile(AopUtils.getTargetClass(controller));
+        }
+        log.info("Precompiladas {} comprobaciones @PreAuthorize de controladores.", compiled);
+    }
+
+    /**
+     * Precompila las expresiones de todos los métodos de la clase (se invoca al arrancar para cada controlador).
+     */
+    public int precompile(Class<?> targetClass) {
+        int compiled = 0;
+        for (Method method : targetClass.getMethods()) {
+            if (AnnotatedElementUtils.hasAnnotation(method, PreAuthorize.class)) {
+                requiredAuthorities.computeIfAbsent(method, m -> compile(m, targetClass));
+                compiled++;
+            }
+        }
+        return compiled;
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        Method method = invocation.getMethod();
+        String required = requiredAuthorities.computeIfAbsent(method,
+                m -> compile(m, AopUtils.getTargetClass(invocation.getThis())));
+
+        if (DELEGATE.equals(required)) {
+            return delegate.check(authentication, invocation);
+        }
+        return hasAuthority(authentication.get(), required) ? GRANTED : DENIED;
+    }
+
+    private static boolean hasAuthority(Authentication authentication, String required) {
+        if (authentication == null) {
+            return false;
+        }
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+            return jwtAuthentication.getAuthorityNames().contains(required);
+        }
+        // Otras autenticaciones (sesión OAuth2, tests con @WithMockUser): recorrido lineal como hace SpEL.
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (required.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String compile(Method method, Class<?> targetClass) {
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        PreAuthorize preAuthorize = AnnotatedElementUtils.findMergedAnnotation(specificMethod, PreAuthorize.class);
+        if (preAuthorize == null) {
+            preAuthorize = AnnotatedElementUtils.findMergedAnnotation(targetClass, PreAuthorize.class);
+        }
+        if (preAuthorize == null) {
+            return DELEGATE;
+        }
+        Matcher matcher = HAS_AUTHORITY.matcher(preAuthorize.value());
+        if (!matcher.matches()) {
+            log.debug("@PreAuthorize(\"{}\") en {} se evaluará con SpEL.", preAuthorize.value(), specificMethod);
+            return DELEGATE;
+        }
+        return matcher.group(1);
+    }
+}
@@ -0,0 +1,109 @@
+package com.adrian.blogweb1.security.config;
+
+import com.adrian.blogweb1.dto.CacheInvalidationEvent.CacheType;
+import com.adrian.blogweb1.dto.RoleEpochDTO;
+import com.adrian.blogweb1.model.Role;
+import com.adrian.blogweb1.repository.IRoleRepository;
+import com.adrian.blogweb1.service.ICacheInvalidationService;
+import com.adrian.blogweb1.utils.AfterCommit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tabla en memoria con la "época de autorización" de cada rol.
+ * Cada cambio en los permisos de un rol incrementa su época; un JWT emitido con una época anterior
+ * lleva autoridades obsoletas y debe re-resolverse. Los tokens al día se validan sin I/O.
+ * Los cambios locales se aplican a la tabla solo tras el commit, así nunca va por delante de la BD, y se
+ * avisa al resto de nodos para que la recarguen sin esperar al refresco periódico.
+ */
+@Component
+public class RoleEpochRegistry {
+
+    private final IRoleRepository roleRepository;
+    private final ICacheInvalidationService cacheInvalidationService;
+    private final Map<String, Long> epochs = new ConcurrentHashMap<>();
+
+    public RoleEpochRegistry(IRoleRepository roleRepository, ICacheInvalidationService cacheInvalidationService) {
+        this.roleRepository = roleRepository;
+        this.cacheInvalidationService = cacheInvalidationService;
+    }
+
+    /**
+     * Sincroniza con la BD para recoger los cambios hechos desde otros nodos.
+     * Son pocas filas (una por rol), así que se recarga la tabla completa.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.role-epoch.refresh-interval-ms:10000}")
+    public void refresh() {
+        Map<String, Long> loaded = new HashMap<>();
+        for (RoleEpochDTO row : roleRepository.findAllEpochs()) {
+            // Nunca retrocedemos: un incremento local ya confirmado puede ser más reciente que la lectura.
+            // Como solo se aplican tras el commit, el máximo nunca conserva un incremento revertido.
+            loaded.put(row.role(), Math.max(row.authzEpoch(), epochs.getOrDefault(row.role(), 0L)));
+        }
+        epochs.putAll(loaded);
+        epochs.keySet().retainAll(loaded.keySet());
+    }
+
+    /**
+     * Incrementa la época del rol (la entidad se persiste en la transacción del llamante).
+     * Este nodo la aplica al confirmar; si la transacción se revierte, la tabla no cambia.
+     */
+    public void bump(Role role) {
+        role.setAuthzEpoch(role.getAuthzEpoch() + 1);
+        apply(role.getRole(), role.getAuthzEpoch());
+    }
+
+    public void register(Role role) {
+        register(role.getRole(), role.getAuthzEpoch());
+    }
+
+    // Para épocas ya incrementadas en BD con una actualización masiva.
+    public void register(String roleName, long epoch) {
+        apply(roleName, epoch);
+    }
+
+    public void remove(String roleName) {
+        AfterCommit.runAfterCommit(() -> epochs.remove(roleName));
+        publish();
+    }
+
+    private void apply(String roleName, long epoch) {
+        AfterCommit.runAfterCommit(() -> epochs.merge(roleName, epoch, Math::max));
+        publish();
+    }
+
+    // Se publica dentro de la transacción: ambos transportes del bus solo entregan el mensaje al confirmar
+    // (pg_notify es transaccional y la fila de cache_invalidation se revierte con el resto), de modo que
+    // los demás nodos recargan cuando la BD ya tiene la época nueva y nunca reciben un cambio revertido.
+    private void publish() {
+        cacheInvalidationService.publishAll(CacheType.ROLE_EPOCHS);
+    }
+
+    public Map<String, Long> epochsFor(Collection<String> roleNames) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (String roleName : roleNames) {
+            result.put(roleName, epochs.getOrDefault(roleName, 0L));
+        }
+        return result;
+    }
+
+    /**
+     * Un token está obsoleto si alguno de sus roles cambió de época o ya no existe.
+     */
+    public boolean isStale(Map<String, ?> tokenEpochs) {
+        for (Map.Entry<String, ?> entry : tokenEpochs.entrySet()) {
+            Long current = epochs.get(entry.getKey());
+            if (current == null || !(entry.getValue() instanceof Number tokenEpoch)
+                    || current != tokenEpoch.longValue()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,7 +1,10 @@
 package com.adrian.blogweb1.security.config;
 
 import com.adrian.blogweb1.security.config.props.DefaultAdminProperties;
+import com.adrian.blogweb1.security.config.props.JwtSigningProperties;
 import com.adrian.blogweb1.service.DatabaseInitializationService;
+import com.adrian.blogweb1.service.ITokenRevocationService;
+import jakarta.servlet.DispatcherType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -10,11 +13,18 @@ import com.adrian.blogweb1.service.UserDetailsServiceImp;
 import com.adrian.blogweb1.utils.JwtUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Role;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -30,9 +40,10 @@ import org.springframework.web.reactive.function.client.WebClient;
 
 @Configuration
 @EnableWebSecurity
-@EnableMethodSecurity(prePostEnabled = true)
+// @PreAuthorize lo procesa el advisor precompilado declarado más abajo en lugar del de SpEL por defecto.
+@EnableMethodSecurity(prePostEnabled = false)
 @RequiredArgsConstructor // Inyección de dependencias por constructor con Lombok
-@EnableConfigurationProperties(DefaultAdminProperties.class)
+@EnableConfigurationProperties({DefaultAdminProperties.class, JwtSigningProperties.class})
 public class SecurityConfig {
 
     // Dependencias inyectadas vía constructor (más seguro y recomendado)
@@ -41,6 +52,9 @@ public class SecurityConfig {
     private final OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler;
     private final PasswordEncoder passwordEncoder;
     private final UserDetailsServiceImp userDetailsService;
+    private final ITokenRevocationService tokenRevocationService;
+    private final RoleEpochRegistry roleEpochRegistry;
+    private final PermissionBitRegistry permissionBitRegistry;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -53,11 +67,14 @@ public class SecurityConfig {
                 // --- FIN DE LA CORRECCIÓN ---
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> {
-                    auth.requestMatchers("/auth/login", "/error").permitAll();
+                    // Redespachos asíncronos (SSE): la petición original ya se autorizó al suscribirse.
+                    auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
+                    auth.requestMatchers("/auth/login", "/auth/refresh", "/error").permitAll();
+                    auth.requestMatchers("/.well-known/jwks.json").permitAll();
                     auth.requestMatchers("/auth/login-oauth", "/oauth2/**", "/login/oauth2/code/**").permitAll();
                     auth.anyRequest().authenticated();
                 })
-                .addFilterBefore(new JwtTokenValidator(jwtUtils), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new JwtTokenValidator(jwtUtils, tokenRevocationService, roleEpochRegistry, permissionBitRegistry, userDetailsService), UsernamePasswordAuthenticationFilter.class)
                 .oauth2Login(oauth2 -> {
                     oauth2.authorizationEndpoint(authorization -> authorization
                             .baseUri("/oauth2/authorization")
@@ -83,6 +100,24 @@ public class SecurityConfig {
         return authenticationConfiguration.getAuthenticationManager();
     }
 
+    // Métodos estáticos: los advisors son infraestructura y no deben forzar la creación temprana de SecurityConfig.
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static PrecompiledAuthorizationManager precompiledAuthorizationManager(ApplicationContext applicationContext) {
+        // Las expresiones que no son hasAuthority('X') siguen evaluándose con SpEL, con acceso a los beans.
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        expressionHandler.setApplicationContext(applicationContext);
+        PreAuthorizeAuthorizationManager delegate = new PreAuthorizeAuthorizationManager();
+        delegate.setExpressionHandler(expressionHandler);
+        return new PrecompiledAuthorizationManager(delegate);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preAuthorizeAdvisor(PrecompiledAuthorizationManager precompiledAuthorizationManager) {
+        return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(precompiledAuthorizationManager);
+    }
+
     @Configuration
     @Profile("!test") // Le dice a Spring: "No cargues esta configuración si el perfil 'test' está activo"
     public static class DefaultUserConfig {
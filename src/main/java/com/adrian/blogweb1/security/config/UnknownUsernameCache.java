@@ -0,0 +1,70 @@
+package com.adrian.blogweb1.security.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.adrian.blogweb1.dto.CacheInvalidationEvent.CacheType;
+import com.adrian.blogweb1.service.ICacheInvalidationService;
+import com.adrian.blogweb1.utils.AfterCommit;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Caché negativa de usernames que no existen: los intentos repetidos con nombres inventados o mal escritos
+ * se rechazan sin consultar la BD. Está acotada en tamaño y en tiempo. Las altas la invalidan con
+ * {@link #forget}, que también avisa al resto de nodos; el TTL cubre los avisos perdidos.
+ */
+@Component
+public class UnknownUsernameCache {
+
+    // Longitud de la columna users.username: un nombre más largo no puede existir y no merece ocupar la caché.
+    public static final int MAX_USERNAME_LENGTH = 255;
+
+    private final Cache<String, Boolean> cache;
+    private final ICacheInvalidationService cacheInvalidationService;
+
+    public UnknownUsernameCache(@Value("${security.unknown-usernames.ttl-seconds:60}") long ttlSeconds,
+                                @Value("${security.unknown-usernames.max-size:100000}") long maxSize,
+                                ICacheInvalidationService cacheInvalidationService) {
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public boolean isKnownMissing(String username) {
+        return username == null || username.length() > MAX_USERNAME_LENGTH || cache.getIfPresent(username) != null;
+    }
+
+    public void markMissing(String username) {
+        if (username != null && username.length() <= MAX_USERNAME_LENGTH) {
+            cache.put(username, Boolean.TRUE);
+        }
+    }
+
+    // Se repite tras el commit: una búsqueda concurrente que aún no veía la fila nueva podría haberlo re-marcado.
+    public void forget(String username) {
+        if (username != null) {
+            AfterCommit.runNowAndAfterCommit(() -> cache.invalidate(username));
+            cacheInvalidationService.publish(CacheType.UNKNOWN_USERNAMES, List.of(username));
+        }
+    }
+
+    public void forgetAll(Collection<String> usernames) {
+        cache.invalidateAll(usernames);
+        cacheInvalidationService.publish(CacheType.UNKNOWN_USERNAMES, usernames);
+    }
+
+    // Invalidaciones recibidas de otros nodos: no se vuelven a publicar.
+    public void invalidateLocally(Collection<String> usernames) {
+        cache.invalidateAll(usernames);
+    }
+
+    public void invalidateAllLocally() {
+        cache.invalidateAll();
+    }
+}
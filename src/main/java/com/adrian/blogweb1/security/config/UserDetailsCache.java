@@ -0,0 +1,109 @@
+package com.adrian.blogweb1.security.config;
+
+import com.adrian.blogweb1.dto.CacheInvalidationEvent.CacheType;
+import com.adrian.blogweb1.service.ICacheInvalidationService;
+import com.adrian.blogweb1.utils.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Caché de corta duración de los UserDetails que devuelve loadUserByUsername, para que los logins
+ * repetidos de una misma cuenta (p. ej. cuentas de servicio) no vuelvan a cargar usuario, roles y permisos.
+ *
+ * Se guarda una instantánea inmutable y cada lectura construye un User nuevo: Spring Security borra la
+ * contraseña del principal tras autenticar (eraseCredentials) y no debe afectar a la copia cacheada.
+ * Las modificaciones de usuarios, roles y permisos la invalidan aquí y, por el bus de invalidación, en el
+ * resto de nodos; el TTL cubre los avisos perdidos.
+ * Las métricas de aciertos y fallos se publican como cache.gets{cache=userDetails}.
+ */
+@Component
+public class UserDetailsCache {
+
+    public static final String CACHE_NAME = "userDetails";
+
+    private final Cache<String, CachedUserDetails> cache;
+    private final ICacheInvalidationService cacheInvalidationService;
+
+    public UserDetailsCache(@Value("${security.user-details-cache.ttl-seconds:30}") long ttlSeconds,
+                            @Value("${security.user-details-cache.max-size:10000}") long maxSize,
+                            ObjectProvider<MeterRegistry> meterRegistry,
+                            ICacheInvalidationService cacheInvalidationService) {
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME));
+    }
+
+    public Optional<UserDetails> get(String username) {
+        CachedUserDetails cached = username != null ? cache.getIfPresent(username) : null;
+        return Optional.ofNullable(cached).map(CachedUserDetails::toUserDetails);
+    }
+
+    public void put(UserDetails userDetails) {
+        cache.put(userDetails.getUsername(), new CachedUserDetails(
+                userDetails.getUsername(),
+                userDetails.getPassword(),
+                userDetails.isEnabled(),
+                userDetails.isAccountNonExpired(),
+                userDetails.isCredentialsNonExpired(),
+                userDetails.isAccountNonLocked(),
+                List.copyOf(userDetails.getAuthorities())
+        ));
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            AfterCommit.runNowAndAfterCommit(() -> cache.invalidate(username));
+            cacheInvalidationService.publish(CacheType.USER_DETAILS, List.of(username));
+        }
+    }
+
+    // Cambios en roles o permisos: afectan a un número indeterminado de usuarios.
+    public void evictAll() {
+        AfterCommit.runNowAndAfterCommit(cache::invalidateAll);
+        cacheInvalidationService.publishAll(CacheType.USER_DETAILS);
+    }
+
+    // Invalidaciones recibidas de otros nodos: no se vuelven a publicar.
+    public void invalidateLocally(Collection<String> usernames) {
+        cache.invalidateAll(usernames);
+    }
+
+    public void invalidateAllLocally() {
+        cache.invalidateAll();
+    }
+
+    public double hitRate() {
+        return cache.stats().hitRate();
+    }
+
+    private record CachedUserDetails(String username,
+                                     String password,
+                                     boolean enabled,
+                                     boolean accountNonExpired,
+                                     boolean credentialsNonExpired,
+                                     boolean accountNonLocked,
+                                     List<GrantedAuthority> authorities) {
+
+        private UserDetails toUserDetails() {
+            return new User(username, password, enabled, accountNonExpired, credentialsNonExpired, accountNonLocked,
+                    authorities);
+        }
+    }
+}
@@ -1,15 +1,34 @@
 package com.adrian.blogweb1.security.config.beanconfig;
 
+import com.adrian.blogweb1.security.config.PasswordEncoderFactory;
+import com.adrian.blogweb1.security.config.PasswordHashCalibrator;
+import com.adrian.blogweb1.security.config.PasswordHashingParameters;
+import com.adrian.blogweb1.security.config.props.PasswordHashingProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Clock;
+import java.time.Duration;
+
 @Configuration
+@EnableConfigurationProperties(PasswordHashingProperties.class)
 public class BeanConfig {
 
+    // Reloj inyectable para poder fijar el tiempo en los tests.
+    @Bean
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties) {
+        PasswordHashingParameters parameters = properties.toParameters();
+        if (properties.isCalibrate()) {
+            parameters = PasswordHashCalibrator.calibrate(properties.getAlgorithm(), parameters,
+                    Duration.ofMillis(properties.getCalibrationTargetMillis()));
+        }
+        return PasswordEncoderFactory.delegating(properties.getAlgorithm(), parameters);
     }
 }
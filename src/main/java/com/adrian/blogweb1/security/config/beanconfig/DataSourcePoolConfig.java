@@ -0,0 +1,45 @@
+package com.adrian.blogweb1.security.config.beanconfig;
+
+import com.adrian.blogweb1.security.config.HikariPoolPostProcessor;
+import com.adrian.blogweb1.security.config.props.DataSourcePoolProperties;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Las métricas del pool (hikaricp.connections.active/idle/pending/timeout y los tiempos de espera
+ * hikaricp.connections.acquire) las registra Spring Boot en /actuator/metrics al haber un MeterRegistry.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourcePoolProperties.class)
+public class DataSourcePoolConfig {
+
+    private static final String ACQUIRE_TIMER = "hikaricp.connections.acquire";
+
+    // Estático: un BeanPostProcessor no debe forzar la creación temprana de la configuración.
+    @Bean
+    static HikariPoolPostProcessor hikariPoolPostProcessor(ObjectProvider<DataSourcePoolProperties> properties) {
+        return new HikariPoolPostProcessor(properties);
+    }
+
+    // La media de espera oculta la saturación: se publican también p50/p95/p99.
+    @Bean
+    public MeterFilter connectionAcquirePercentiles() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!ACQUIRE_TIMER.equals(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentiles(0.5, 0.95, 0.99)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
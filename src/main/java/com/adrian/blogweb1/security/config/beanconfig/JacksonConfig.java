@@ -0,0 +1,40 @@
+package com.adrian.blogweb1.security.config.beanconfig;
+
+import com.adrian.blogweb1.dto.PostResponseDTO;
+import com.adrian.blogweb1.dto.PostSummaryDTO;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /** Id del filtro de Jackson para los "sparse fieldsets" (?fields=...). */
+    public static final String SPARSE_FIELDS_FILTER = "sparseFields";
+
+    // Blackbird sustituye la reflexión de getters/setters por LambdaMetafactory: menos coste por campo serializado.
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // Los DTO que admiten ?fields=... llevan el filtro vía mixin; sin filtro explícito se serializa todo.
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsCustomizer() {
+        return builder -> builder
+                .mixIn(PostResponseDTO.class, SparseFieldsMixin.class)
+                .mixIn(PostSummaryDTO.class, SparseFieldsMixin.class)
+                .filters(new SimpleFilterProvider()
+                        .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+                        .setFailOnUnknownId(false));
+    }
+
+    @JsonFilter(SPARSE_FIELDS_FILTER)
+    interface SparseFieldsMixin {
+    }
+}
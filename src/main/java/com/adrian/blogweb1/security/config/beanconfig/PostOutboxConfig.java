@@ -0,0 +1,32 @@
+package com.adrian.blogweb1.security.config.beanconfig;
+
+import com.adrian.blogweb1.service.FilePostEventSink;
+import com.adrian.blogweb1.service.IPostEventSink;
+import com.adrian.blogweb1.service.LoggingPostEventSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class PostOutboxConfig {
+
+    // posts.outbox.sink=file escribe los eventos como JSON lines en posts.outbox.file.
+    @Bean
+    @ConditionalOnProperty(name = "posts.outbox.sink", havingValue = "file")
+    public IPostEventSink filePostEventSink(@Value("${posts.outbox.file:target/post-events.jsonl}") String file,
+                                            ObjectMapper objectMapper) {
+        return new FilePostEventSink(Path.of(file), objectMapper);
+    }
+
+    // Cualquier otro IPostEventSink declarado (p. ej. un broker) sustituye a este.
+    @Bean
+    @ConditionalOnMissingBean(IPostEventSink.class)
+    public IPostEventSink loggingPostEventSink() {
+        return new LoggingPostEventSink();
+    }
+}
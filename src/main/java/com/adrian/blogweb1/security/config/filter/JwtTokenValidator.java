@@ -1,8 +1,14 @@
 package com.adrian.blogweb1.security.config.filter;
 
 
+import com.adrian.blogweb1.security.config.AuthoritySnapshot;
+import com.adrian.blogweb1.security.config.JwtAuthenticationToken;
+import com.adrian.blogweb1.security.config.PermissionBitRegistry;
+import com.adrian.blogweb1.security.config.RoleEpochRegistry;
+import com.adrian.blogweb1.service.ITokenRevocationService;
 import com.adrian.blogweb1.utils.JwtUtils;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.annotation.Nonnull;
 import jakarta.servlet.FilterChain;
@@ -13,25 +19,40 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 public class JwtTokenValidator extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
+    private final ITokenRevocationService tokenRevocationService;
+    private final RoleEpochRegistry roleEpochRegistry;
+    private final PermissionBitRegistry permissionBitRegistry;
+    private final UserDetailsService userDetailsService;
     // CORRECCIÓN 1: Renombramos el logger para evitar el "shadowing" con la clase padre.
     private static final Logger log = LoggerFactory.getLogger(JwtTokenValidator.class);
 
-    public JwtTokenValidator(JwtUtils jwtUtils) {
+    public JwtTokenValidator(JwtUtils jwtUtils,
+                             ITokenRevocationService tokenRevocationService,
+                             RoleEpochRegistry roleEpochRegistry,
+                             PermissionBitRegistry permissionBitRegistry,
+                             UserDetailsService userDetailsService) {
         this.jwtUtils = jwtUtils;
+        this.tokenRevocationService = tokenRevocationService;
+        this.roleEpochRegistry = roleEpochRegistry;
+        this.permissionBitRegistry = permissionBitRegistry;
+        this.userDetailsService = userDetailsService;
     }
 
     @Override
@@ -52,24 +73,18 @@ public class JwtTokenValidator extends OncePerRequestFilter {
 
             String username = jwtUtils.extractUsername(decodedJWT);
 
-            List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
-            List<String> permissions = decodedJWT.getClaim("permissions").asList(String.class);
+            // Tokens revocados por logout o por deshabilitar al usuario. En memoria, sin I/O en el caso habitual.
+            if (tokenRevocationService.isRevoked(decodedJWT.getId(), username, decodedJWT.getIssuedAtAsInstant())) {
+                throw new JWTVerificationException("Token revocado");
+            }
 
-            Stream<GrantedAuthority> roleAuthorities = (roles != null) ?
-                    roles.stream().map(role -> new SimpleGrantedAuthority("ROLE_" + role)) : Stream.empty();
+            // Solo si algún rol del token cambió de época se vuelve a la BD; los tokens al día no hacen I/O.
+            AuthoritySnapshot authorities = hasStaleRoleEpochs(decodedJWT)
+                    ? AuthoritySnapshot.of(resolveCurrentAuthorities(username))
+                    : authoritiesFromClaims(decodedJWT);
 
-            Stream<GrantedAuthority> permissionAuthorities = (permissions != null) ?
-                    permissions.stream().map(SimpleGrantedAuthority::new) : Stream.empty();
-
-            // CORRECCIÓN 2: Usamos el método moderno .toList() de Java 16+.
-            List<GrantedAuthority> authorities = Stream.concat(roleAuthorities, permissionAuthorities)
-                    .toList();
-
-            Authentication authentication = new UsernamePasswordAuthenticationToken(
-                    username,
-                    null, 
-                    authorities
-            );
+            // Lleva el conjunto de nombres precalculado para la autorización precompilada de @PreAuthorize.
+            Authentication authentication = new JwtAuthenticationToken(username, authorities);
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
@@ -84,4 +99,50 @@ public class JwtTokenValidator extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private boolean hasStaleRoleEpochs(DecodedJWT decodedJWT) {
+        Claim roleEpochsClaim = decodedJWT.getClaim(JwtUtils.ROLE_EPOCHS_CLAIM);
+        // Tokens emitidos antes de existir el claim: se confía en ellos hasta que caduquen.
+        if (roleEpochsClaim == null || roleEpochsClaim.isMissing() || roleEpochsClaim.isNull()) {
+            return false;
+        }
+        Map<String, Object> roleEpochs = roleEpochsClaim.asMap();
+        return roleEpochs != null && roleEpochRegistry.isStale(roleEpochs);
+    }
+
+    private List<GrantedAuthority> resolveCurrentAuthorities(String username) {
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked() || !userDetails.isAccountNonExpired()) {
+                throw new JWTVerificationException("La cuenta del usuario no está activa");
+            }
+            log.debug("Autoridades re-resueltas para '{}' por cambio de época de rol.", username);
+            return List.copyOf(userDetails.getAuthorities());
+        } catch (UsernameNotFoundException e) {
+            throw new JWTVerificationException("Usuario del token no encontrado");
+        }
+    }
+
+    private AuthoritySnapshot authoritiesFromClaims(DecodedJWT decodedJWT) {
+        List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
+
+        // Formato compacto: lista inmutable cacheada por combinación de roles y máscara, sin asignar autoridades.
+        Claim permissionBits = decodedJWT.getClaim(JwtUtils.PERMISSION_BITS_CLAIM);
+        if (permissionBits != null && !permissionBits.isMissing() && !permissionBits.isNull()) {
+            return permissionBitRegistry.snapshotFor(roles, permissionBits.asString());
+        }
+
+        // Formato clásico con la lista de nombres de permiso.
+        List<String> permissions = decodedJWT.getClaim("permissions").asList(String.class);
+
+        Stream<GrantedAuthority> roleAuthorities = (roles != null) ?
+                roles.stream().map(role -> new SimpleGrantedAuthority("ROLE_" + role)) : Stream.empty();
+
+        Stream<GrantedAuthority> permissionAuthorities = (permissions != null) ?
+                permissions.stream().map(SimpleGrantedAuthority::new) : Stream.empty();
+
+        // CORRECCIÓN 2: Usamos el método moderno .toList() de Java 16+.
+        return AuthoritySnapshot.of(Stream.concat(roleAuthorities, permissionAuthorities)
+                .toList());
+    }
 }
\ No newline at end of file
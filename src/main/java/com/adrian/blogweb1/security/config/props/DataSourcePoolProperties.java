@@ -0,0 +1,90 @@
+package com.adrian.blogweb1.security.config.props;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Pool de conexiones (HikariCP). Por defecto el pool es de tamaño fijo (minimumIdle = maximumPoolSize),
+ * que es lo que recomienda Hikari. Con transporte NOTIFY, el bus de invalidación de cachés ocupa una
+ * conexión de forma permanente. Las propiedades prepare-threshold y prepared-statement-cache-* solo
+ * se aplican con el driver de PostgreSQL.
+ */
+@ConfigurationProperties(prefix = "database.pool")
+@Getter
+@Validated
+public class DataSourcePoolProperties {
+
+    @NotBlank
+    private final String poolName;
+
+    @Min(1)
+    @Max(500)
+    private final int maximumPoolSize;
+
+    @Min(0)
+    private final int minimumIdle;
+
+    // Hikari no admite menos de 250 ms.
+    @Min(250)
+    private final long connectionTimeoutMs;
+
+    @Min(10000)
+    private final long idleTimeoutMs;
+
+    @Min(30000)
+    private final long maxLifetimeMs;
+
+    // 0 desactiva la detección de fugas.
+    @Min(0)
+    private final long leakDetectionThresholdMs;
+
+    // Ejecuciones de una sentencia antes de prepararla en el servidor; 0 lo desactiva.
+    @Min(0)
+    private final int prepareThreshold;
+
+    @Min(0)
+    private final int preparedStatementCacheQueries;
+
+    @Min(0)
+    private final int preparedStatementCacheSizeMib;
+
+    public DataSourcePoolProperties(@DefaultValue("blogweb-pool") String poolName,
+                                    @DefaultValue("10") int maximumPoolSize,
+                                    @DefaultValue("10") int minimumIdle,
+                                    @DefaultValue("5000") long connectionTimeoutMs,
+                                    @DefaultValue("600000") long idleTimeoutMs,
+                                    @DefaultValue("1800000") long maxLifetimeMs,
+                                    @DefaultValue("0") long leakDetectionThresholdMs,
+                                    @DefaultValue("5") int prepareThreshold,
+                                    @DefaultValue("256") int preparedStatementCacheQueries,
+                                    @DefaultValue("5") int preparedStatementCacheSizeMib) {
+        this.poolName = poolName;
+        this.maximumPoolSize = maximumPoolSize;
+        this.minimumIdle = minimumIdle;
+        this.connectionTimeoutMs = connectionTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxLifetimeMs = maxLifetimeMs;
+        this.leakDetectionThresholdMs = leakDetectionThresholdMs;
+        this.prepareThreshold = prepareThreshold;
+        this.preparedStatementCacheQueries = preparedStatementCacheQueries;
+        this.preparedStatementCacheSizeMib = preparedStatementCacheSizeMib;
+    }
+
+    @AssertTrue(message = "minimum-idle no puede superar maximum-pool-size")
+    public boolean isMinimumIdleWithinPoolSize() {
+        return minimumIdle <= maximumPoolSize;
+    }
+
+    // Por debajo de 2 s Hikari ignora el umbral; y por encima de max-lifetime nunca saltaría.
+    @AssertTrue(message = "leak-detection-threshold-ms debe ser 0 o estar entre 2000 y max-lifetime-ms")
+    public boolean isLeakDetectionThresholdValid() {
+        return leakDetectionThresholdMs == 0
+                || (leakDetectionThresholdMs >= 2000 && leakDetectionThresholdMs < maxLifetimeMs);
+    }
+}
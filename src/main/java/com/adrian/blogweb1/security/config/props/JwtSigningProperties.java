@@ -0,0 +1,41 @@
+package com.adrian.blogweb1.security.config.props;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Modo de firma de los JWT. Por defecto HMAC con el secreto compartido (security.jwt.private.key);
+ * en modo RSA o EC las claves se cargan de un keystore local y la clave pública se publica en /.well-known/jwks.json.
+ */
+@ConfigurationProperties(prefix = "security.jwt.signing")
+@Getter
+public class JwtSigningProperties {
+
+    public enum Mode { HMAC, RSA, EC }
+
+    private final Mode mode;
+    private final String keystorePath;
+    private final String keystorePassword;
+    private final String keystoreType;
+    private final String keyAlias;
+    private final long jwksMaxAgeSeconds;
+
+    public JwtSigningProperties(@DefaultValue("HMAC") Mode mode,
+                                String keystorePath,
+                                String keystorePassword,
+                                @DefaultValue("PKCS12") String keystoreType,
+                                @DefaultValue("jwt") String keyAlias,
+                                @DefaultValue("3600") long jwksMaxAgeSeconds) {
+        this.mode = mode;
+        this.keystorePath = keystorePath;
+        this.keystorePassword = keystorePassword;
+        this.keystoreType = keystoreType;
+        this.keyAlias = keyAlias;
+        this.jwksMaxAgeSeconds = jwksMaxAgeSeconds;
+    }
+
+    public boolean isAsymmetric() {
+        return mode != Mode.HMAC;
+    }
+}
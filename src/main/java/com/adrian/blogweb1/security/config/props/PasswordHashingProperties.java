@@ -0,0 +1,57 @@
+package com.adrian.blogweb1.security.config.props;
+
+import com.adrian.blogweb1.security.config.PasswordHashingParameters;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Algoritmo y coste del hash de contraseñas. Los hashes ya guardados con otro algoritmo o con menos coste
+ * se siguen aceptando y se re-cifran con esta configuración en el siguiente login correcto.
+ * Con calibrate=true, el coste del algoritmo activo se ajusta al arrancar para acercarse a calibrationTargetMillis.
+ */
+@ConfigurationProperties(prefix = "security.password")
+@Getter
+public class PasswordHashingProperties {
+
+    public enum Algorithm {
+        BCRYPT, ARGON2, PBKDF2;
+
+        // Prefijo {id} con el que DelegatingPasswordEncoder identifica el algoritmo de cada hash.
+        public String id() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final Algorithm algorithm;
+    private final int bcryptStrength;
+    private final int argon2MemoryKib;
+    private final int argon2Iterations;
+    private final int argon2Parallelism;
+    private final int pbkdf2Iterations;
+    private final boolean calibrate;
+    private final long calibrationTargetMillis;
+
+    public PasswordHashingProperties(@DefaultValue("BCRYPT") Algorithm algorithm,
+                                     @DefaultValue("10") int bcryptStrength,
+                                     @DefaultValue("16384") int argon2MemoryKib,
+                                     @DefaultValue("2") int argon2Iterations,
+                                     @DefaultValue("1") int argon2Parallelism,
+                                     @DefaultValue("310000") int pbkdf2Iterations,
+                                     @DefaultValue("false") boolean calibrate,
+                                     @DefaultValue("250") long calibrationTargetMillis) {
+        this.algorithm = algorithm;
+        this.bcryptStrength = bcryptStrength;
+        this.argon2MemoryKib = argon2MemoryKib;
+        this.argon2Iterations = argon2Iterations;
+        this.argon2Parallelism = argon2Parallelism;
+        this.pbkdf2Iterations = pbkdf2Iterations;
+        this.calibrate = calibrate;
+        this.calibrationTargetMillis = calibrationTargetMillis;
+    }
+
+    public PasswordHashingParameters toParameters() {
+        return new PasswordHashingParameters(bcryptStrength, argon2MemoryKib, argon2Iterations, argon2Parallelism,
+                pbkdf2Iterations);
+    }
+}
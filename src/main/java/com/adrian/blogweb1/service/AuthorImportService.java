@@ -0,0 +1,162 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.AuthorImportSummaryDTO;
+import com.adrian.blogweb1.utils.DatabasePlatform;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Importación masiva de autores. El cuerpo se recorre token a token con un JsonParser: en memoria
+ * solo está la fila actual y el lote pendiente, nunca el array completo.
+ * Los duplicados por externalId se colapsan dentro de cada lote (gana el último); entre lotes
+ * los resuelve el propio upsert.
+ */
+@Service
+public class AuthorImportService implements IAuthorImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorImportService.class);
+
+    private static final int MAX_EXTERNAL_ID_LENGTH = 100;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private static final String POSTGRES_UPSERT = "INSERT INTO author (external_id, name) VALUES (?, ?) "
+            + "ON CONFLICT (external_id) DO UPDATE SET name = EXCLUDED.name";
+    // H2 no admite ON CONFLICT ... DO UPDATE; MERGE ... KEY es su equivalente.
+    private static final String GENERIC_UPSERT = "MERGE INTO author (external_id, name) KEY (external_id) VALUES (?, ?)";
+
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public AuthorImportService(ObjectMapper objectMapper,
+                               JdbcTemplate jdbcTemplate,
+                               DatabasePlatform databasePlatform,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${authors.import.batch-size:1000}") int batchSize) {
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public AuthorImportSummaryDTO importAuthors(InputStream body) {
+        ImportProgress progress = new ImportProgress();
+        Map<String, String> batch = new LinkedHashMap<>();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El cuerpo debe ser un array JSON de autores.");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                progress.received++;
+                // Solo se materializa la fila actual.
+                JsonNode row = objectMapper.readTree(parser);
+                String externalId = text(row, "externalId");
+                String name = text(row, "name");
+
+                String error = validate(externalId, name);
+                if (error != null) {
+                    progress.reject(progress.received, error);
+                    continue;
+                }
+                if (batch.remove(externalId) != null) {
+                    progress.duplicates++;
+                }
+                batch.put(externalId, name);
+                if (batch.size() >= batchSize) {
+                    flush(batch, progress);
+                }
+            }
+            flush(batch, progress);
+        } catch (JsonProcessingException e) {
+            // Los lotes anteriores ya se confirmaron; el mensaje lo indica para que el cliente pueda reanudar.
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "JSON mal formado tras " + progress.received + " filas (" + progress.upserted + " ya importadas).", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        log.info(">>> Importación de autores: {} recibidos, {} guardados, {} duplicados, {} rechazados.",
+                progress.received, progress.upserted, progress.duplicates, progress.rejected);
+        return progress.toSummary();
+    }
+
+    private void flush(Map<String, String> batch, ImportProgress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(batch.size());
+        batch.forEach((externalId, name) -> args.add(new Object[]{externalId, name}));
+        String sql = databasePlatform.isPostgres() ? POSTGRES_UPSERT : GENERIC_UPSERT;
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, args));
+        progress.upserted += args.size();
+        batch.clear();
+    }
+
+    private static String validate(String externalId, String name) {
+        if (externalId == null || externalId.isBlank()) {
+            return "externalId es obligatorio";
+        }
+        if (externalId.length() > MAX_EXTERNAL_ID_LENGTH) {
+            return "externalId supera " + MAX_EXTERNAL_ID_LENGTH + " caracteres";
+        }
+        if (name == null || name.isBlank()) {
+            return "name es obligatorio";
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            return "name supera " + MAX_NAME_LENGTH + " caracteres";
+        }
+        return null;
+    }
+
+    private static String text(JsonNode row, String field) {
+        JsonNode value = row.get(field);
+        return value != null && value.isValueNode() && !value.isNull() ? value.asText().trim() : null;
+    }
+
+    private static final class ImportProgress {
+
+        private long received;
+        private long upserted;
+        private long duplicates;
+        private long rejected;
+        private final List<String> errors = new ArrayList<>();
+
+        private void reject(long rowNumber, String error) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("fila " + rowNumber + ": " + error);
+            }
+        }
+
+        private AuthorImportSummaryDTO toSummary() {
+            return new AuthorImportSummaryDTO(received, upserted, duplicates, rejected, List.copyOf(errors));
+        }
+    }
+}
@@ -3,11 +3,18 @@ package com.adrian.blogweb1.service;
 import com.adrian.blogweb1.dto.AuthorCreateRequestDTO;
 import com.adrian.blogweb1.dto.AuthorDTO;
 import com.adrian.blogweb1.dto.AuthorUpdateRequestDTO;
+import com.adrian.blogweb1.dto.CacheInvalidationEvent.CacheType;
 import com.adrian.blogweb1.model.Author;
 import com.adrian.blogweb1.repository.IAuthorRepository;
+import com.adrian.blogweb1.repository.IPostRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,7 +23,18 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class AuthorService implements IAuthorService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthorService.class);
+
+    // Posts borrados por transacción al eliminar un autor.
+    private static final int POST_DELETE_CHUNK_SIZE = 1000;
+
     private final IAuthorRepository authorRepository;
+    private final IPostRepository postRepository;
+    private final IPostChangeService postChangeService;
+    private final IPostViewService postViewService;
+    private final ITrendingPostsService trendingPostsService;
+    private final ICacheInvalidationService cacheInvalidationService;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public AuthorDTO createAuthor(AuthorCreateRequestDTO authorRequest) {
@@ -28,18 +46,17 @@ public class AuthorService implements IAuthorService {
         return mapToAuthorDTO(savedAuthor);
     }
 
+    // Lecturas: proyección directa a DTO en una transacción de solo lectura (sin flush ni dirty checking).
     @Override
+    @Transactional(readOnly = true)
     public List<AuthorDTO> getAuthorsDTO() {
-        return authorRepository.findAll() // Obtiene la lista de entidades Author
-                .stream()                 // se convierte en un stream
-                .map(this::mapToAuthorDTO) // Reutilizamos el método de ayuda para el mapeo
-                .toList();                // se convierte de nuevo a una lista
+        return authorRepository.findAllDTO();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<AuthorDTO> getAuthorByIdDTO(Long idAuthor) {
-        return authorRepository.findById(idAuthor)
-                .map(this::mapToAuthorDTO); // Reutilizamos el método de ayuda aquí también
+        return authorRepository.findDTOById(idAuthor);
     }
 
     @Override
@@ -53,12 +70,46 @@ public class AuthorService implements IAuthorService {
         return mapToAuthorDTO(updatedAuthor);
     }
 
+    /**
+     * Borra el autor sin pasar por la cascada de Author.posts, que cargaría y borraría los posts uno a uno.
+     * Los posts se eliminan por tramos con un DELETE por conjunto de ids, cada tramo en su propia transacción;
+     * el último tramo y la fila del autor se confirman juntos. Si algo falla a mitad, los tramos ya
+     * confirmados quedan borrados y repetir la llamada continúa donde se quedó.
+     */
     @Override
     public void deleteAuthor(Long id) {
-        // Buscamos el autor primero para asegurarnos de que existe antes de intentar borrarlo.
-        Author authorToDelete = authorRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("No se puede eliminar. Autor no encontrado con id: " + id));
-        authorRepository.delete(authorToDelete);
+        // Comprobamos que existe antes de intentar borrarlo, sin cargar la entidad ni su colección de posts.
+        if (!authorRepository.existsById(id)) {
+            throw new EntityNotFoundException("No se puede eliminar. Autor no encontrado con id: " + id);
+        }
+
+        long deletedPosts = 0;
+        List<Long> chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> deletePostChunk(id));
+            chunk.forEach(idPost -> {
+                postViewService.forget(idPost);
+                trendingPostsService.forget(idPost);
+            });
+            deletedPosts += chunk.size();
+        } while (chunk.size() == POST_DELETE_CHUNK_SIZE);
+
+        log.info("Autor {} eliminado junto con {} posts.", id, deletedPosts);
+    }
+
+    private List<Long> deletePostChunk(Long idAuthor) {
+        List<Long> idPosts = postRepository.findIdsByAuthor(idAuthor, PageRequest.of(0, POST_DELETE_CHUNK_SIZE));
+        if (!idPosts.isEmpty()) {
+            postChangeService.recordDeletions(idPosts);
+            postRepository.deleteAllByIdInBatch(idPosts);
+            // Los demás nodos olvidan sus visitas y tendencias de estos posts cuando el tramo confirma.
+            cacheInvalidationService.publish(CacheType.POSTS, idPosts.stream().map(String::valueOf).toList());
+        }
+        if (idPosts.size() < POST_DELETE_CHUNK_SIZE) {
+            // Último tramo: el autor ya no tiene posts y se borra en la misma transacción.
+            authorRepository.deleteAllByIdInBatch(List.of(idAuthor));
+        }
+        return idPosts;
     }
 
     // Método de ayuda para no repetir código
@@ -0,0 +1,87 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.CacheInvalidationEvent;
+import com.adrian.blogweb1.dto.PostSummaryDTO;
+import com.adrian.blogweb1.repository.IPostRepository;
+import com.adrian.blogweb1.security.config.OAuth2UserCache;
+import com.adrian.blogweb1.security.config.PermissionBitRegistry;
+import com.adrian.blogweb1.security.config.RoleEpochRegistry;
+import com.adrian.blogweb1.security.config.UnknownUsernameCache;
+import com.adrian.blogweb1.security.config.UserDetailsCache;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Aplica a las cachés de este nodo las invalidaciones recibidas de otros nodos.
+ * Solo invalida en local: volver a publicarlas generaría un bucle entre nodos.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationHandler.class);
+
+    private final UserDetailsCache userDetailsCache;
+    private final UnknownUsernameCache unknownUsernameCache;
+    private final OAuth2UserCache oAuth2UserCache;
+    private final RoleEpochRegistry roleEpochRegistry;
+    private final PermissionBitRegistry permissionBitRegistry;
+    private final IPostViewService postViewService;
+    private final ITrendingPostsService trendingPostsService;
+    private final IPostRepository postRepository;
+
+    @EventListener
+    public void onInvalidation(CacheInvalidationEvent event) {
+        log.debug("Invalidación remota recibida: {} {}", event.cache(), event.keys());
+        switch (event.cache()) {
+            case USER_DETAILS -> {
+                if (event.isWholeCache()) {
+                    userDetailsCache.invalidateAllLocally();
+                } else {
+                    userDetailsCache.invalidateLocally(event.keys());
+                }
+            }
+            case UNKNOWN_USERNAMES -> {
+                if (event.isWholeCache()) {
+                    unknownUsernameCache.invalidateAllLocally();
+                } else {
+                    unknownUsernameCache.invalidateLocally(event.keys());
+                }
+            }
+            case OAUTH2_USERS -> {
+                if (event.isWholeCache()) {
+                    oAuth2UserCache.invalidateAllLocally();
+                } else {
+                    oAuth2UserCache.invalidateLocally(event.keys());
+                }
+            }
+            case ROLE_EPOCHS -> roleEpochRegistry.refresh();
+            case PERMISSION_BITS -> permissionBitRegistry.refresh();
+            case POSTS -> event.keys().stream().map(Long::valueOf).forEach(idPost -> {
+                postViewService.forget(idPost);
+                trendingPostsService.forget(idPost);
+            });
+            case POST_METADATA -> refreshPostMetadata(event.keys());
+            case ALL -> {
+                userDetailsCache.invalidateAllLocally();
+                unknownUsernameCache.invalidateAllLocally();
+                oAuth2UserCache.invalidateAllLocally();
+                roleEpochRegistry.refresh();
+                permissionBitRegistry.refresh();
+            }
+        }
+    }
+
+    // Se relee de la BD en lugar de viajar en el mensaje: si llegan dos ediciones desordenadas, gana la última confirmada.
+    private void refreshPostMetadata(List<String> keys) {
+        List<Long> idPosts = keys.stream().map(Long::valueOf).toList();
+        for (PostSummaryDTO post : postRepository.findSummariesByIds(idPosts)) {
+            trendingPostsService.updateMetadata(post.idPost(), post.title(), post.authorName());
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.CacheInvalidationEvent;
+import com.adrian.blogweb1.dto.CacheInvalidationEvent.CacheType;
+import com.adrian.blogweb1.model.CacheInvalidationMessage;
+import com.adrian.blogweb1.repository.ICacheInvalidationRepository;
+import com.adrian.blogweb1.utils.DatabasePlatform;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Bus de invalidación entre nodos para las cachés en memoria (usuarios, épocas de rol, posts...).
+ * Cada nodo aplica sus cambios en local y publica un mensaje tipado; el resto lo recibe y lo aplica
+ * con CacheInvalidationHandler. El TTL de cada caché sigue siendo la red de seguridad ante mensajes perdidos.
+ *
+ * Transportes:
+ *  - NOTIFY (PostgreSQL): pg_notify en la transacción del cambio, entregado al confirmar; cada nodo
+ *    mantiene una conexión dedicada con LISTEN.
+ *  - TABLE (resto, H2 en tests): fila en cache_invalidation en la misma transacción; los nodos la leen
+ *    periódicamente por id creciente. Un id menor que confirma tarde puede saltarse: lo cubre el TTL.
+ */
+@Service
+public class CacheInvalidationService implements ICacheInvalidationService {
+
+    public enum Transport {
+        AUTO,
+        NOTIFY,
+        TABLE,
+        NONE
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    // pg_notify admite hasta 8000 bytes de payload; se deja margen.
+    private static final int MAX_PAYLOAD_BYTES = 7000;
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    private final ICacheInvalidationRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final DatabasePlatform databasePlatform;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final Transport configuredTransport;
+    private final String channel;
+    private final int pollBatchSize;
+    private final Duration retention;
+    private final long listenTimeoutMillis;
+    private final long reconnectDelayMillis;
+
+    // Identifica los mensajes propios, que ya se aplicaron en local al publicarlos.
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile Transport transport;
+    private long lastSeenId = -1;
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public CacheInvalidationService(ICacheInvalidationRepository repository,
+                                    JdbcTemplate jdbcTemplate,
+                                    DataSource dataSource,
+                                    DatabasePlatform databasePlatform,
+                                    ObjectMapper objectMapper,
+                                    ApplicationEventPublisher eventPublisher,
+                                    Clock clock,
+                                    @Value("${cache.invalidation.transport:AUTO}") Transport transport,
+                                    @Value("${cache.invalidation.channel:cache_invalidation}") String channel,
+                                    @Value("${cache.invalidation.poll-batch-size:500}") int pollBatchSize,
+                                    @Value("${cache.invalidation.retention-minutes:10}") long retentionMinutes,
+                                    @Value("${cache.invalidation.listen-timeout-ms:1000}") long listenTimeoutMillis,
+                                    @Value("${cache.invalidation.reconnect-delay-ms:5000}") long reconnectDelayMillis) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Nombre de canal de invalidación no válido: " + channel);
+        }
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.databasePlatform = databasePlatform;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.configuredTransport = transport;
+        this.channel = channel;
+        this.pollBatchSize = pollBatchSize;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.listenTimeoutMillis = listenTimeoutMillis;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        Transport resolved = transport();
+        if (resolved == Transport.NOTIFY && listenerThread == null) {
+            running = true;
+            listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+            listenerThread.setDaemon(true);
+            listenerThread.start();
+        }
+        log.info(">>> Bus de invalidación de cachés activo (transporte {}, nodo {}).", resolved, nodeId);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            listenerThread = null;
+        }
+    }
+
+    @Override
+    public void publish(CacheType cache, Collection<String> keys) {
+        Transport current = transport();
+        if (current != Transport.NONE) {
+            send(current, cache, List.copyOf(keys));
+        }
+    }
+
+    /**
+     * Lee los mensajes nuevos de la tabla (transporte TABLE). El primer sondeo solo fija el cursor:
+     * lo anterior al arranque del nodo no le afecta, sus cachés estaban vacías.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${cache.invalidation.poll-interval-ms:1000}")
+    public synchronized int poll() {
+        if (transport() != Transport.TABLE) {
+            return 0;
+        }
+        if (lastSeenId < 0) {
+            lastSeenId = repository.findMaxId();
+            return 0;
+        }
+        List<CacheInvalidationMessage> messages = repository.findAfter(lastSeenId, PageRequest.of(0, pollBatchSize));
+        for (CacheInvalidationMessage message : messages) {
+            receive(message.getPayload());
+            lastSeenId = Math.max(lastSeenId, message.getIdCacheInvalidation());
+        }
+        return messages.size();
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${cache.invalidation.purge.cron:0 */5 * * * *}")
+    public void purge() {
+        if (transport() == Transport.TABLE) {
+            int deleted = repository.deleteCreatedBefore(clock.instant().minus(retention));
+            if (deleted > 0) {
+                log.debug("Purgados {} mensajes de invalidación de cachés.", deleted);
+            }
+        }
+    }
+
+    void receive(String payload) {
+        Envelope envelope;
+        try {
+            envelope = objectMapper.readValue(payload, Envelope.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Mensaje de invalidación ilegible descartado: {}", payload, e);
+            return;
+        }
+        if (!nodeId.equals(envelope.origin())) {
+            eventPublisher.publishEvent(new CacheInvalidationEvent(envelope.cache(), envelope.keys()));
+        }
+    }
+
+    private void send(Transport current, CacheType cache, List<String> keys) {
+        String payload = serialize(new Envelope(nodeId, cache, keys));
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            if (keys.size() > 1) {
+                int half = keys.size() / 2;
+                send(current, cache, keys.subList(0, half));
+                send(current, cache, keys.subList(half, keys.size()));
+            } else {
+                // Una sola clave desmesurada: se invalida la caché completa.
+                send(current, cache, List.of());
+            }
+            return;
+        }
+        if (current == Transport.NOTIFY) {
+            // Dentro de una transacción, PostgreSQL solo entrega la notificación al confirmar.
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+        } else {
+            repository.save(new CacheInvalidationMessage(null, payload, clock.instant()));
+        }
+    }
+
+    private String serialize(Envelope envelope) {
+        try {
+            return objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el mensaje de invalidación", e);
+        }
+    }
+
+    private Transport transport() {
+        Transport current = transport;
+        if (current == null) {
+            current = configuredTransport != Transport.AUTO ? configuredTransport
+                    : databasePlatform.isPostgres() ? Transport.NOTIFY : Transport.TABLE;
+            transport = current;
+        }
+        return current;
+    }
+
+    /**
+     * Bucle del hilo LISTEN. Ocupa una conexión del pool de forma permanente. Si la conexión se pierde,
+     * al recuperarla se vacían todas las cachés locales, porque los mensajes intermedios no se reciben.
+     */
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                if (reconnecting) {
+                    eventPublisher.publishEvent(new CacheInvalidationEvent(CacheType.ALL, List.of()));
+                    log.info(">>> LISTEN de invalidación restablecido; cachés locales vaciadas.");
+                }
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) listenTimeoutMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Conexión LISTEN de invalidación perdida; reintento en {} ms.", reconnectDelayMillis, e);
+                reconnecting = true;
+                try {
+                    Thread.sleep(reconnectDelayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    record Envelope(String origin, CacheType cache, List<String> keys) {
+    }
+}
@@ -1,15 +1,20 @@
 package com.adrian.blogweb1.service;
 
 import com.adrian.blogweb1.model.Permission;
+import com.adrian.blogweb1.model.Post;
 import com.adrian.blogweb1.model.Role;
 import com.adrian.blogweb1.repository.IPermissionRepository;
+import com.adrian.blogweb1.repository.IPostRepository;
 import com.adrian.blogweb1.repository.IRoleRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -18,10 +23,13 @@ import java.util.stream.Collectors;
 public class DatabaseInitializationService {
 
     private static final Logger log = LoggerFactory.getLogger(DatabaseInitializationService.class);
+    private static final int EXCERPT_BACKFILL_BATCH_SIZE = 500;
 
     private final IRoleRepository roleRepository;
     private final IPermissionRepository permissionRepository;
     private final UserService userService;
+    private final IPostRepository postRepository;
+    private final EntityManager entityManager;
 
     @Transactional
     public void initializeDatabase() {
@@ -34,6 +42,28 @@ public class DatabaseInitializationService {
         createRoleIfNotFound("ROLE_ADMIN", Set.of("READ", "CREATE", "UPDATE", "DELETE"));
 
         userService.createDefaultUser();
+
+        backfillPostExcerpts();
+    }
+
+    // Los posts creados antes de existir la columna excerpt la tienen a NULL.
+    private void backfillPostExcerpts() {
+        int updated = 0;
+        List<Post> batch;
+        // Siempre la primera página: las filas ya rellenadas dejan de cumplir el filtro tras el flush.
+        while (!(batch = postRepository.findByExcerptIsNullAndContentIsNotNull(
+                PageRequest.of(0, EXCERPT_BACKFILL_BATCH_SIZE))).isEmpty()) {
+            batch.forEach(post -> post.setContent(post.getContent()));
+            postRepository.saveAll(batch);
+            // Todo el arranque es una única transacción: sin clear, cada lote seguiría gestionado y el auto-flush
+            // de la siguiente consulta revisaría todos los posts cargados hasta entonces (coste cuadrático).
+            entityManager.flush();
+            entityManager.clear();
+            updated += batch.size();
+        }
+        if (updated > 0) {
+            log.info(">>> Extracto calculado para {} posts existentes.", updated);
+        }
     }
 
     private void createPermissionIfNotFound(String name) {
@@ -0,0 +1,46 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.PostChangeEventDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Sink local que añade cada evento como una línea JSON a un fichero. Útil en desarrollo y en tests.
+ */
+public class FilePostEventSink implements IPostEventSink {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FilePostEventSink(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<PostChangeEventDTO> events) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (PostChangeEventDTO event : events) {
+                    writer.write(objectMapper.writeValueAsString(event));
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            // Se propaga para que el relay revierta y reintente el lote.
+            throw new UncheckedIOException("No se pudieron escribir los eventos en " + file, e);
+        }
+    }
+}
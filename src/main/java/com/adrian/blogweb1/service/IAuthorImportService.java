@@ -0,0 +1,14 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.AuthorImportSummaryDTO;
+
+import java.io.InputStream;
+
+public interface IAuthorImportService {
+
+    /**
+     * Lee un array JSON de autores ({"externalId": ..., "name": ...}) en streaming y los inserta o
+     * actualiza por externalId en lotes JDBC. Cada lote se confirma en su propia transacción.
+     */
+    AuthorImportSummaryDTO importAuthors(InputStream body);
+}
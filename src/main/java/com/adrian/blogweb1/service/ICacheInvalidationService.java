@@ -0,0 +1,20 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.CacheInvalidationEvent.CacheType;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ICacheInvalidationService {
+
+    // Si hay una transacción en curso, el resto de nodos recibe el mensaje solo si confirma.
+    void publish(CacheType cache, Collection<String> keys);
+
+    default void publishAll(CacheType cache) {
+        publish(cache, List.of());
+    }
+
+    int poll();
+
+    void purge();
+}
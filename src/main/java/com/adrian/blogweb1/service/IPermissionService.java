@@ -5,11 +5,13 @@ import com.adrian.blogweb1.model.Permission;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface IPermissionService {
 
     List<Permission> findAll();
     Optional<Permission> findById(Long id);
+    Set<Permission> findAllByIds(Set<Long> ids);
     Permission save(Permission permission);
     Permission updatePermission(Long idPermission, Permission permissionDetails);
     void deletePermission(Long idPermission);
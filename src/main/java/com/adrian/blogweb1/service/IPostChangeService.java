@@ -0,0 +1,20 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.PostChangesDTO;
+import com.adrian.blogweb1.model.PostOutboxEvent.EventType;
+
+import java.util.Collection;
+
+public interface IPostChangeService {
+
+    void record(EventType type, Long idPost, String title);
+
+    // Debe llamarse antes de borrar los posts: los eventos se generan a partir de las filas existentes.
+    void recordDeletions(Collection<Long> idPosts);
+
+    int relay();
+
+    void purgePublished();
+
+    PostChangesDTO getChanges(long since, int limit);
+}
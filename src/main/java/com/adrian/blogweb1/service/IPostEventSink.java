@@ -0,0 +1,14 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.PostChangeEventDTO;
+
+import java.util.List;
+
+/**
+ * Destino de los eventos del outbox (broker, índice de búsqueda, fichero...).
+ * Debe ser idempotente: el relay garantiza entrega "al menos una vez" y puede repetir un lote si falla.
+ */
+public interface IPostEventSink {
+
+    void publish(List<PostChangeEventDTO> events);
+}
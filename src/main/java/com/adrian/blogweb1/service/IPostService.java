@@ -2,6 +2,7 @@ package com.adrian.blogweb1.service;
 
 import com.adrian.blogweb1.dto.PostCreateRequestDTO;
 import com.adrian.blogweb1.dto.PostResponseDTO;
+import com.adrian.blogweb1.dto.PostSummaryDTO;
 import com.adrian.blogweb1.dto.PostUpdateRequestDTO;
 import com.adrian.blogweb1.model.Post;
 
@@ -11,7 +12,7 @@ import java.util.Optional;
 public interface IPostService {
 
     Post savePost(PostCreateRequestDTO postRequest);
-    List<PostResponseDTO> getPosts();
+    List<PostSummaryDTO> getPosts();
     Optional<PostResponseDTO> getPostById(Long idPost);
     PostResponseDTO updatePost(Long idPost, PostUpdateRequestDTO postDetails);
     void deletePost(Long idPost);
@@ -0,0 +1,13 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.PostSummaryDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface IPostStreamService {
+
+    SseEmitter subscribe();
+
+    void publish(PostSummaryDTO post);
+
+    int getSubscriberCount();
+}
@@ -0,0 +1,16 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.PostViewCountDTO;
+
+import java.util.List;
+
+public interface IPostViewService {
+
+    void recordView(Long idPost);
+
+    void forget(Long idPost);
+
+    int flush();
+
+    List<PostViewCountDTO> getMostViewed(int limit);
+}
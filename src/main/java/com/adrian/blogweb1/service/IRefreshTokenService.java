@@ -0,0 +1,16 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.TokenPairDTO;
+
+public interface IRefreshTokenService {
+
+    String issueRefreshToken(String username);
+
+    TokenPairDTO rotate(String rawRefreshToken);
+
+    void revokeFamilyOf(String rawRefreshToken);
+
+    void revokeAllForUser(Long idUserSec);
+
+    int purgeExpired();
+}
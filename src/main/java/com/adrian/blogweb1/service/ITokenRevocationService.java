@@ -0,0 +1,16 @@
+package com.adrian.blogweb1.service;
+
+import java.time.Instant;
+
+public interface ITokenRevocationService {
+
+    void revokeToken(String jti, Instant expiresAt);
+
+    void revokeSubject(String username);
+
+    boolean isRevoked(String jti, String subject, Instant issuedAt);
+
+    void refresh();
+
+    void purgeAndRebuild();
+}
@@ -0,0 +1,20 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.TrendingPostDTO;
+
+import java.util.List;
+
+public interface ITrendingPostsService {
+
+    void recordView(Long idPost, String title, String authorName);
+
+    void recordCreation(Long idPost, String title, String authorName);
+
+    void updateMetadata(Long idPost, String title, String authorName);
+
+    void forget(Long idPost);
+
+    void snapshot();
+
+    List<TrendingPostDTO> getTrending();
+}
@@ -0,0 +1,15 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.UserBatchResultDTO;
+import com.adrian.blogweb1.dto.UserProvisionRowDTO;
+
+import java.util.List;
+
+public interface IUserProvisioningService {
+
+    /**
+     * Da de alta un lote de usuarios. Las filas inválidas se informan una a una y no impiden
+     * crear el resto.
+     */
+    UserBatchResultDTO provision(List<UserProvisionRowDTO> rows);
+}
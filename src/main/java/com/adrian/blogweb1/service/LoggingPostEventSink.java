@@ -0,0 +1,20 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.PostChangeEventDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Sink por defecto: solo deja constancia en el log. Sustituir por un sink real (broker, índice) en producción.
+ */
+public class LoggingPostEventSink implements IPostEventSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingPostEventSink.class);
+
+    @Override
+    public void publish(List<PostChangeEventDTO> events) {
+        events.forEach(event -> log.debug("Cambio de post: {}", event));
+    }
+}
@@ -1,17 +1,25 @@
 package com.adrian.blogweb1.service;
 
+import com.adrian.blogweb1.dto.RoleEpochDTO;
 import com.adrian.blogweb1.exception.ResourceNotFoundException;
 import com.adrian.blogweb1.model.Permission;
 import com.adrian.blogweb1.model.Role;
 import com.adrian.blogweb1.repository.IPermissionRepository;
 import com.adrian.blogweb1.repository.IRoleRepository;
+import com.adrian.blogweb1.security.config.PermissionBitRegistry;
+import com.adrian.blogweb1.security.config.OAuth2UserCache;
+import com.adrian.blogweb1.security.config.RoleEpochRegistry;
+import com.adrian.blogweb1.security.config.UserDetailsCache;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +29,10 @@ public class PermissionService implements IPermissionService{
 
     private final IRoleRepository roleRepository;
     private final IPermissionRepository permissionRepository;
+    private final RoleEpochRegistry roleEpochRegistry;
+    private final PermissionBitRegistry permissionBitRegistry;
+    private final UserDetailsCache userDetailsCache;
+    private final OAuth2UserCache oAuth2UserCache;
 
 
     @Override
@@ -35,9 +47,26 @@ public class PermissionService implements IPermissionService{
         return permissionRepository.findById(id);
     }
 
+    /**
+     * Resuelve todos los permisos con una sola consulta.
+     * Si falta alguno se lanza ResourceNotFoundException con los ids que no existen.
+     */
+    @Override
+    public Set<Permission> findAllByIds(Set<Long> ids) {
+        Set<Permission> found = new HashSet<>(permissionRepository.findAllById(ids));
+        if (found.size() != ids.size()) {
+            Set<Long> missing = new TreeSet<>(ids);
+            found.forEach(permission -> missing.remove(permission.getIdPermission()));
+            throw new ResourceNotFoundException("Permisos no encontrados con ID: " + missing);
+        }
+        return found;
+    }
+
     @Override
     public Permission save(Permission permission) {
-        return permissionRepository.save(permission);
+        Permission saved = permissionRepository.save(permission);
+        permissionBitRegistry.register(saved.getIdPermission(), saved.getPermissionName());
+        return saved;
     }
 
     @Override
@@ -47,8 +76,17 @@ public class PermissionService implements IPermissionService{
                 .orElseThrow(() -> new ResourceNotFoundException("Permiso no encontrado con id: " + idPermission));
 
         // Actualización correcta usando permissionName (como está en tu entidad)
-        if (permissionDetails.getPermissionName() != null) {
+        if (permissionDetails.getPermissionName() != null
+                && !permissionDetails.getPermissionName().equals(permission.getPermissionName())) {
             permission.setPermissionName(permissionDetails.getPermissionName());
+
+            // El nombre del permiso viaja en el JWT: los roles que lo contienen pasan a una nueva época.
+            List<Role> rolesWithPermission = roleRepository.findRolesByPermissionId(idPermission);
+            rolesWithPermission.forEach(roleEpochRegistry::bump);
+            roleRepository.saveAll(rolesWithPermission);
+            permissionBitRegistry.register(idPermission, permission.getPermissionName());
+            userDetailsCache.evictAll();
+            oAuth2UserCache.evictAll();
         }
 
         return permissionRepository.save(permission);
@@ -57,29 +95,23 @@ public class PermissionService implements IPermissionService{
     @Override
     @Transactional
     public void deletePermission(Long idPermission) {
-        Permission permission = permissionRepository.findById(idPermission)
-                .orElseThrow(() -> new ResourceNotFoundException("Permiso no encontrado con id: " + idPermission));
+        if (!permissionRepository.existsById(idPermission)) {
+            throw new ResourceNotFoundException("Permiso no encontrado con id: " + idPermission);
+        }
 
-        // 1. Obtener todos los roles que tienen este permiso
-        List<Role> rolesWithPermission = roleRepository.findRolesByPermissionId(idPermission);
+        // 1. Los roles que tienen el permiso pasan a una nueva época (mientras la relación aún existe)
+        roleRepository.bumpEpochsByPermissionId(idPermission);
+        List<RoleEpochDTO> bumpedRoles = roleRepository.findEpochsByPermissionId(idPermission);
 
-        // 2. Remover el permiso de cada rol
-        rolesWithPermission.forEach(role ->
-                role.getPermissionsList().removeIf(p -> p.getIdPermission().equals(idPermission))
-        );
+        // 2. Quitar el permiso de todos los roles con un único DELETE sobre roles_permissions
+        roleRepository.removePermissionFromAllRoles(idPermission);
 
-        // 3. Guardar los roles actualizados
-        roleRepository.saveAll(rolesWithPermission);
+        // 3. Finalmente eliminar el permiso
+        permissionRepository.deleteAllByIdInBatch(List.of(idPermission));
 
-        // 4. Finalmente eliminar el permiso
-        permissionRepository.delete(permission);
+        bumpedRoles.forEach(row -> roleEpochRegistry.register(row.role(), row.authzEpoch()));
+        permissionBitRegistry.remove(idPermission);
+        userDetailsCache.evictAll();
+        oAuth2UserCache.evictAll();
     }
-
-
-
-
 }
-
-
-
-
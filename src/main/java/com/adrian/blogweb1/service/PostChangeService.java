@@ -0,0 +1,124 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.PostChangeEventDTO;
+import com.adrian.blogweb1.dto.PostChangesDTO;
+import com.adrian.blogweb1.model.PostOutboxEvent;
+import com.adrian.blogweb1.model.PostOutboxEvent.EventType;
+import com.adrian.blogweb1.repository.IPostOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Outbox transaccional de cambios de posts.
+ * El evento se inserta en post_outbox dentro de la misma transacción que modifica el post, así que
+ * no puede haber cambio sin evento ni evento sin cambio. Un relay programado entrega los pendientes
+ * en lote al IPostEventSink configurado ("al menos una vez") y GET /api/posts/changes sirve el mismo
+ * registro como feed incremental, paginado por la secuencia que asigna el relay.
+ */
+@Service
+public class PostChangeService implements IPostChangeService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostChangeService.class);
+    private static final int MAX_FEED_PAGE = 500;
+
+    private final IPostOutboxRepository outboxRepository;
+    private final IPostEventSink eventSink;
+    private final Clock clock;
+    private final int relayBatchSize;
+    private final Duration retention;
+
+    public PostChangeService(IPostOutboxRepository outboxRepository,
+                             IPostEventSink eventSink,
+                             Clock clock,
+                             @Value("${posts.outbox.relay-batch-size:100}") int relayBatchSize,
+                             @Value("${posts.outbox.retention-days:7}") long retentionDays) {
+        this.outboxRepository = outboxRepository;
+        this.eventSink = eventSink;
+        this.clock = clock;
+        this.relayBatchSize = relayBatchSize;
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    // MANDATORY: registrar un evento fuera de la transacción del cambio rompería la garantía del outbox.
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(EventType type, Long idPost, String title) {
+        outboxRepository.save(new PostOutboxEvent(null, idPost, type, title, clock.instant(), null, null));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletions(Collection<Long> idPosts) {
+        if (!idPosts.isEmpty()) {
+            outboxRepository.insertDeletedEvents(idPosts, clock.instant());
+        }
+    }
+
+    /**
+     * Entrega un lote de eventos pendientes al sink, los marca como publicados y les asigna su posición en el feed.
+     * Solo ve eventos confirmados y los relays se serializan por el bloqueo de findUnpublished, así que la secuencia
+     * crece en orden de commit. Si el sink falla, la transacción se revierte y el lote se reintenta en la siguiente pasada.
+     */
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${posts.outbox.relay-interval-ms:1000}")
+    public int relay() {
+        List<PostOutboxEvent> pending = outboxRepository.findUnpublished(PageRequest.of(0, relayBatchSize));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        eventSink.publish(pending.stream().map(PostChangeService::toDTO).toList());
+        long feedSequence = outboxRepository.findMaxFeedSequence();
+        Instant now = clock.instant();
+        // Entidades gestionadas: los UPDATE se envían en lote al confirmar.
+        for (PostOutboxEvent event : pending) {
+            event.setFeedSequence(++feedSequence);
+            event.setPublishedAt(now);
+        }
+        log.debug("Publicados {} eventos de cambios de posts.", pending.size());
+        return pending.size();
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${posts.outbox.purge.cron:0 30 3 * * *}")
+    public void purgePublished() {
+        int deleted = outboxRepository.deletePublishedBefore(clock.instant().minus(retention));
+        if (deleted > 0) {
+            log.info("Purgados {} eventos publicados del outbox de posts.", deleted);
+        }
+    }
+
+    /**
+     * Cambios con secuencia mayor que "since". No se pagina por id: los ids se asignan al insertar, no al confirmar,
+     * y una transacción lenta podría hacer visible un id menor que otro ya servido. La secuencia la asigna el relay
+     * sobre eventos ya confirmados, así que el cursor no salta ninguno; a cambio, un evento aparece en el feed tras
+     * la siguiente pasada del relay (posts.outbox.relay-interval-ms) y no mientras el sink esté fallando.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PostChangesDTO getChanges(long since, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE));
+        List<PostOutboxEvent> events = outboxRepository
+                .findChangesAfter(since, PageRequest.of(0, pageSize));
+        long nextSince = events.isEmpty() ? since : events.get(events.size() - 1).getFeedSequence();
+        return new PostChangesDTO(events.stream().map(PostChangeService::toDTO).toList(), nextSince);
+    }
+
+    private static PostChangeEventDTO toDTO(PostOutboxEvent event) {
+        return new PostChangeEventDTO(event.getIdPostOutboxEvent(), event.getPostId(), event.getType().name(),
+                event.getTitle(), event.getOccurredAt());
+    }
+}
@@ -1,17 +1,24 @@
 package com.adrian.blogweb1.service;
 
 
+import com.adrian.blogweb1.dto.CacheInvalidationEvent.CacheType;
 import com.adrian.blogweb1.dto.PostCreateRequestDTO;
+import com.adrian.blogweb1.dto.PostCreatedEvent;
 import com.adrian.blogweb1.dto.PostResponseDTO;
+import com.adrian.blogweb1.dto.PostSummaryDTO;
 import com.adrian.blogweb1.dto.PostUpdateRequestDTO;
 import com.adrian.blogweb1.model.Author;
 import com.adrian.blogweb1.model.Post;
+import com.adrian.blogweb1.model.PostOutboxEvent.EventType;
 import com.adrian.blogweb1.repository.IAuthorRepository;
 import com.adrian.blogweb1.repository.IPostRepository;
+import com.adrian.blogweb1.utils.AfterCommit;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,8 +31,14 @@ public class PostService implements IPostService {
 
     private final IPostRepository postRepository;
     private final IAuthorRepository authorRepository;
+    private final IPostViewService postViewService;
+    private final ITrendingPostsService trendingPostsService;
+    private final IPostChangeService postChangeService;
+    private final ICacheInvalidationService cacheInvalidationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public Post savePost(PostCreateRequestDTO postRequest) {
         Author author = authorRepository.findById(postRequest.getAuthorId())
                 .orElseThrow(() -> new RuntimeException("Autor no encontrado con id: " + postRequest.getAuthorId()));
@@ -35,22 +48,36 @@ public class PostService implements IPostService {
         newPost.setContent(postRequest.getContent());
         newPost.setAuthor(author);
 
-        return postRepository.save(newPost);
+        Post savedPost = postRepository.save(newPost);
+        // Evento en la misma transacción (outbox): los consumidores se enteran sin sondear /api/posts.
+        postChangeService.record(EventType.CREATED, savedPost.getIdPost(), savedPost.getTitle());
+        // Los suscriptores SSE lo reciben tras el commit (PostStreamService).
+        eventPublisher.publishEvent(new PostCreatedEvent(new PostSummaryDTO(savedPost.getIdPost(), savedPost.getTitle(),
+                savedPost.getExcerpt(), savedPost.getCreatedAt(), author.getName())));
+        // Las tendencias y el contador de visitas viven en memoria: solo se tocan si la transacción confirma.
+        AfterCommit.runAfterCommit(() ->
+                trendingPostsService.recordCreation(savedPost.getIdPost(), savedPost.getTitle(), author.getName()));
+        return savedPost;
     }
 
 
     @Override
-    public List<PostResponseDTO> getPosts() {
-        return postRepository.findAll()
-                .stream()
-                .map(this::mapToPostResponseDTO)
-                .toList();
+    @Transactional(readOnly = true)
+    public List<PostSummaryDTO> getPosts() {
+        // Los listados usan el extracto precalculado; el cuerpo completo solo se sirve en getPostById.
+        return postRepository.findAllSummaries();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<PostResponseDTO> getPostById(Long idPost) {
-        return postRepository.findById(idPost)
-                .map(this::mapToPostResponseDTO);
+        return postRepository.findResponseById(idPost)
+                .map(post -> {
+                    // Solo se suma en memoria; la columna view_count se actualiza en lote.
+                    postViewService.recordView(idPost);
+                    trendingPostsService.recordView(idPost, post.getTitle(), post.getAuthorName());
+                    return post;
+                });
     }
 
     private PostResponseDTO mapToPostResponseDTO(Post post) {
@@ -64,6 +91,7 @@ public class PostService implements IPostService {
     }
 
     @Override
+    @Transactional
     public PostResponseDTO updatePost(Long id, PostUpdateRequestDTO postDetails) {
         Post postToUpdate = postRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Post no encontrado con id: " + id));
@@ -72,23 +100,29 @@ public class PostService implements IPostService {
         postToUpdate.setContent(postDetails.getContent());
 
         Post updatedPost = postRepository.save(postToUpdate);
+        postChangeService.record(EventType.UPDATED, id, updatedPost.getTitle());
+        String title = updatedPost.getTitle();
+        String authorName = updatedPost.getAuthor().getName();
+        AfterCommit.runAfterCommit(() -> trendingPostsService.updateMetadata(id, title, authorName));
+        cacheInvalidationService.publish(CacheType.POST_METADATA, List.of(String.valueOf(id)));
 
-        return new PostResponseDTO(
-                updatedPost.getIdPost(),
-                updatedPost.getTitle(),
-                updatedPost.getContent(),
-                updatedPost.getCreatedAt(),
-                updatedPost.getAuthor().getName()
-        );
+        return mapToPostResponseDTO(updatedPost);
     }
 
     @Override
+    @Transactional
     public void deletePost(Long id) {
         // MEJORA: Verificamos que el post existe antes de intentar borrarlo.
         if (!postRepository.existsById(id)) {
             throw new EntityNotFoundException("No se puede eliminar. Post no encontrado con ID: " + id);
         }
         postRepository.deleteById(id);
+        postChangeService.record(EventType.DELETED, id, null);
+        AfterCommit.runAfterCommit(() -> {
+            postViewService.forget(id);
+            trendingPostsService.forget(id);
+        });
+        cacheInvalidationService.publish(CacheType.POSTS, List.of(String.valueOf(id)));
     }
 }
 
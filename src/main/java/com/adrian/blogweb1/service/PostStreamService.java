@@ -0,0 +1,206 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.PostCreatedEvent;
+import com.adrian.blogweb1.dto.PostSummaryDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Difusión de posts nuevos por Server-Sent Events (GET /api/posts/stream).
+ * Cada suscriptor es una petición asíncrona del servlet: sin hilo asignado mientras está inactivo, solo
+ * el SseEmitter y una cola acotada. Publicar nunca bloquea: se encola en cada suscriptor y un pool acotado
+ * vacía las colas. Un suscriptor cuya cola se llena (cliente lento) se desconecta en lugar de frenar al resto.
+ */
+@Service
+public class PostStreamService implements IPostStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostStreamService.class);
+    private static final String NEW_POST_EVENT = "post-created";
+
+    private final ObjectMapper objectMapper;
+    private final Executor senderExecutor;
+    private final int bufferSize;
+    private final long emitterTimeoutMillis;
+    private final int maxSubscribers;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public PostStreamService(ObjectMapper objectMapper,
+                             @Value("${posts.stream.sender-threads:4}") int senderThreads,
+                             @Value("${posts.stream.buffer-size:32}") int bufferSize,
+                             @Value("${posts.stream.timeout-ms:1800000}") long emitterTimeoutMillis,
+                             @Value("${posts.stream.max-subscribers:10000}") int maxSubscribers) {
+        this(objectMapper, newSenderExecutor(senderThreads), bufferSize, emitterTimeoutMillis, maxSubscribers);
+    }
+
+    public PostStreamService(ObjectMapper objectMapper, Executor senderExecutor, int bufferSize,
+                             long emitterTimeoutMillis, int maxSubscribers) {
+        this.objectMapper = objectMapper;
+        this.senderExecutor = senderExecutor;
+        this.bufferSize = bufferSize;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Demasiados suscriptores al stream de posts");
+        }
+        SseEmitter emitter = newEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    // Solo tras el commit: un post que acaba en rollback no llega a anunciarse.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostCreated(PostCreatedEvent event) {
+        publish(event.post());
+    }
+
+    @Override
+    public void publish(PostSummaryDTO post) {
+        String json;
+        try {
+            // Se serializa una vez para todos los suscriptores, no una vez por conexión.
+            json = objectMapper.writeValueAsString(post);
+        } catch (JsonProcessingException e) {
+            log.error("No se pudo serializar el post {} para el stream: {}", post.idPost(), e.getMessage());
+            return;
+        }
+        broadcast(SseEmitter.event().name(NEW_POST_EVENT).id(String.valueOf(post.idPost()))
+                .data(json, MediaType.APPLICATION_JSON), true);
+    }
+
+    // Los comentarios SSE mantienen viva la conexión en proxies y detectan clientes que se han ido.
+    @Scheduled(fixedDelayString = "${posts.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        broadcast(SseEmitter.event().comment("heartbeat"), false);
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        if (senderExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    protected SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void broadcast(SseEventBuilder builder, boolean dropSlowConsumers) {
+        // Se construye una sola vez (build() no es idempotente) y todos los suscriptores comparten el resultado.
+        Set<DataWithMediaType> event = builder.build();
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.queue.offer(event)) {
+                if (dropSlowConsumers) {
+                    log.debug("Suscriptor SSE desconectado por no consumir a tiempo.");
+                    disconnect(subscriber);
+                }
+                continue;
+            }
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return; // Ya hay una tarea vaciando esta cola; recogerá el evento recién encolado.
+        }
+        try {
+            senderExecutor.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            // Pool saturado: el evento sigue en la cola y se enviará con la siguiente publicación o heartbeat.
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<DataWithMediaType> event;
+            while ((event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado o emitter ya completado.
+            disconnect(subscriber);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Evento encolado justo después del último poll: nadie más lo habría recogido.
+        if (!subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.queue.clear();
+            subscriber.emitter.complete();
+        }
+    }
+
+    private static ExecutorService newSenderExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(10_000),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "post-stream-sender-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
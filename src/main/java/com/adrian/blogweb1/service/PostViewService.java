@@ -0,0 +1,144 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.PostViewCountDTO;
+import com.adrian.blogweb1.repository.IPostRepository;
+import com.adrian.blogweb1.utils.DatabasePlatform;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador de visitas "write-behind".
+ * Cada GET suma en un LongAdder en memoria (sin I/O) y una tarea programada vuelca los deltas
+ * acumulados en lote: en PostgreSQL con un único UPDATE ... FROM (VALUES ...) por bloque, en otras BD con
+ * un batch JDBC. Así ninguna petición bloquea la fila del post.
+ */
+@Service
+public class PostViewService implements IPostViewService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostViewService.class);
+    private static final int MAX_MOST_VIEWED = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+    private final IPostRepository postRepository;
+    private final int flushBatchSize;
+
+    private final Map<Long, LongAdder> pendingViews = new ConcurrentHashMap<>();
+
+    public PostViewService(JdbcTemplate jdbcTemplate,
+                           DatabasePlatform databasePlatform,
+                           IPostRepository postRepository,
+                           @Value("${posts.views.flush-batch-size:1000}") int flushBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+        this.postRepository = postRepository;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    @Override
+    public void recordView(Long idPost) {
+        // El incremento va dentro de compute: el volcado retira los contadores a cero con computeIfPresent y
+        // un incremento sobre una referencia ya retirada se perdería.
+        pendingViews.compute(idPost, (id, adder) -> {
+            LongAdder counter = adder != null ? adder : new LongAdder();
+            counter.increment();
+            return counter;
+        });
+    }
+
+    @Override
+    public void forget(Long idPost) {
+        pendingViews.remove(idPost);
+    }
+
+    /**
+     * Vuelca los deltas pendientes. Devuelve el número de posts actualizados.
+     * Si un bloque falla, sus deltas y los de los bloques siguientes se devuelven a los contadores para el siguiente
+     * intento; los bloques anteriores ya se aplicaron (cada uno en su propia sentencia) y no se repiten.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${posts.views.flush-interval-ms:5000}")
+    public synchronized int flush() {
+        List<Object[]> deltas = drainPendingViews();
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        int from = 0;
+        try {
+            for (; from < deltas.size(); from += flushBatchSize) {
+                List<Object[]> chunk = deltas.subList(from, Math.min(from + flushBatchSize, deltas.size()));
+                if (databasePlatform.isPostgres()) {
+                    updateWithValuesList(chunk);
+                } else {
+                    jdbcTemplate.batchUpdate("UPDATE post SET view_count = view_count + ? WHERE id_post = ?", chunk);
+                }
+            }
+        } catch (DataAccessException e) {
+            List<Object[]> failed = deltas.subList(from, deltas.size());
+            log.warn("No se pudieron volcar las visitas de {} posts; se reintentará: {}", failed.size(), e.getMessage());
+            failed.forEach(delta -> pendingViews.compute((Long) delta[1], (id, adder) -> {
+                LongAdder counter = adder != null ? adder : new LongAdder();
+                counter.add((Long) delta[0]);
+                return counter;
+            }));
+            return from;
+        }
+        log.debug("Volcadas las visitas de {} posts.", deltas.size());
+        return deltas.size();
+    }
+
+    // Parada ordenada: lo acumulado desde el último volcado no se pierde.
+    @PreDestroy
+    public void flushOnShutdown() {
+        int flushed = flush();
+        if (flushed > 0) {
+            log.info("Volcadas las visitas pendientes de {} posts antes de la parada.", flushed);
+        }
+    }
+
+    @Override
+    public List<PostViewCountDTO> getMostViewed(int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_MOST_VIEWED));
+        return postRepository.findMostViewed(PageRequest.of(0, pageSize));
+    }
+
+    // Se resta lo leído en lugar de usar sumThenReset: un incremento concurrente nunca se pierde.
+    // Los contadores que quedan a cero se retiran para no recorrer en cada volcado todos los posts vistos alguna vez.
+    private List<Object[]> drainPendingViews() {
+        List<Object[]> deltas = new ArrayList<>();
+        pendingViews.forEach((idPost, adder) -> {
+            long pending = adder.sum();
+            if (pending != 0) {
+                adder.add(-pending);
+                deltas.add(new Object[]{pending, idPost});
+            }
+            pendingViews.computeIfPresent(idPost, (id, current) -> current.sum() == 0 ? null : current);
+        });
+        return deltas;
+    }
+
+    private void updateWithValuesList(List<Object[]> chunk) {
+        StringBuilder sql = new StringBuilder("UPDATE post AS p SET view_count = p.view_count + v.delta FROM (VALUES ");
+        Object[] args = new Object[chunk.size() * 2];
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(CAST(? AS bigint), CAST(? AS bigint))");
+            args[2 * i] = chunk.get(i)[1];
+            args[2 * i + 1] = chunk.get(i)[0];
+        }
+        sql.append(") AS v(id_post, delta) WHERE p.id_post = v.id_post");
+        jdbcTemplate.update(sql.toString(), args);
+    }
+}
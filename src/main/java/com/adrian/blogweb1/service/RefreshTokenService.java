@@ -0,0 +1,153 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.TokenPairDTO;
+import com.adrian.blogweb1.exception.InvalidTokenException;
+import com.adrian.blogweb1.exception.ResourceNotFoundException;
+import com.adrian.blogweb1.model.RefreshToken;
+import com.adrian.blogweb1.model.UserSec;
+import com.adrian.blogweb1.repository.IRefreshTokenRepository;
+import com.adrian.blogweb1.repository.IUserRepository;
+import com.adrian.blogweb1.utils.JwtUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Refresh tokens opacos con rotación y sesiones deslizantes.
+ * Cada uso emite un nuevo refresh token de la misma familia y marca el anterior como usado;
+ * si se presenta de nuevo un token ya usado, se revoca la familia entera.
+ * La renovación cuesta una consulta por índice y no pasa por BCrypt.
+ */
+@Service
+public class RefreshTokenService implements IRefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final int TOKEN_BYTES = 32;
+
+    private final IRefreshTokenRepository refreshTokenRepository;
+    private final IUserRepository userRepository;
+    private final JwtUtils jwtUtils;
+    private final Clock clock;
+    private final Duration refreshTokenTtl;
+
+    public RefreshTokenService(IRefreshTokenRepository refreshTokenRepository,
+                               IUserRepository userRepository,
+                               JwtUtils jwtUtils,
+                               Clock clock,
+                               @Value("${security.jwt.refresh.expiration.time:1209600000}") long refreshExpirationInMillis) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtUtils = jwtUtils;
+        this.clock = clock;
+        this.refreshTokenTtl = Duration.ofMillis(refreshExpirationInMillis);
+    }
+
+    @Override
+    @Transactional
+    public String issueRefreshToken(String username) {
+        Long userId = userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con el nombre: " + username));
+
+        return saveNewToken(userRepository.getReferenceById(userId), UUID.randomUUID().toString());
+    }
+
+    @Override
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public TokenPairDTO rotate(String rawRefreshToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHashWithUser(hash(rawRefreshToken))
+                .orElseThrow(() -> new InvalidTokenException("Refresh token inválido."));
+
+        // Reutilización: el token ya se había rotado. Asumimos robo y cerramos toda la familia.
+        if (current.isRevoked() || refreshTokenRepository.markAsUsed(current.getIdRefreshToken()) == 0) {
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId());
+            log.warn("Reutilización de refresh token detectada para '{}'. Familia {} revocada ({} tokens).",
+                    current.getUser().getUsername(), current.getFamilyId(), revoked);
+            throw new InvalidTokenException("Refresh token reutilizado. La sesión ha sido revocada.");
+        }
+
+        if (current.getExpiresAt().isBefore(clock.instant())) {
+            throw new InvalidTokenException("Refresh token expirado.");
+        }
+
+        UserSec user = current.getUser();
+        if (!user.isEnabled() || !user.isAccountNotLocked() || !user.isAccountNotExpired()) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new InvalidTokenException("La cuenta del usuario no está activa.");
+        }
+
+        String newRefreshToken = saveNewToken(user, current.getFamilyId());
+        String accessToken = jwtUtils.createToken(
+                new UsernamePasswordAuthenticationToken(user.getUsername(), null, user.getAuthorities()));
+
+        return new TokenPairDTO(user.getUsername(), accessToken, newRefreshToken);
+    }
+
+    @Override
+    @Transactional
+    public void revokeFamilyOf(String rawRefreshToken) {
+        // Un token desconocido no es un error en el logout: la sesión ya no existe.
+        refreshTokenRepository.findByTokenHashWithUser(hash(rawRefreshToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Override
+    @Transactional
+    public void revokeAllForUser(Long idUserSec) {
+        int revoked = refreshTokenRepository.revokeAllForUser(idUserSec);
+        log.info("Revocados {} refresh tokens del usuario con ID {}.", revoked, idUserSec);
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${security.jwt.refresh.purge.cron:0 0 * * * *}")
+    public int purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(clock.instant());
+        if (deleted > 0) {
+            log.info(">>> {} refresh tokens expirados eliminados.", deleted);
+        }
+        return deleted;
+    }
+
+    private String saveNewToken(UserSec user, String familyId) {
+        byte[] randomBytes = new byte[TOKEN_BYTES];
+        SECURE_RANDOM.nextBytes(randomBytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
+
+        Instant now = clock.instant();
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setFamilyId(familyId);
+        token.setUser(user);
+        token.setCreatedAt(now);
+        token.setExpiresAt(now.plus(refreshTokenTtl));
+        token.setRevoked(false);
+        refreshTokenRepository.save(token);
+
+        return rawToken;
+    }
+
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible en la JVM", e);
+        }
+    }
+}
@@ -3,10 +3,11 @@ package com.adrian.blogweb1.service;
 import com.adrian.blogweb1.exception.ResourceNotFoundException;
 import com.adrian.blogweb1.model.Permission;
 import com.adrian.blogweb1.model.Role;
-import com.adrian.blogweb1.model.UserSec;
-import com.adrian.blogweb1.repository.IPermissionRepository;
 import com.adrian.blogweb1.repository.IRoleRepository;
 import com.adrian.blogweb1.repository.IUserRepository;
+import com.adrian.blogweb1.security.config.OAuth2UserCache;
+import com.adrian.blogweb1.security.config.RoleEpochRegistry;
+import com.adrian.blogweb1.security.config.UserDetailsCache;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,8 +16,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,7 +29,10 @@ public class RoleService implements IRoleService {
 
     private final IRoleRepository roleRepository;
     private final IUserRepository userRepository;
-    private final IPermissionRepository permissionRepository;
+    private final IPermissionService permissionService;
+    private final RoleEpochRegistry roleEpochRegistry;
+    private final UserDetailsCache userDetailsCache;
+    private final OAuth2UserCache oAuth2UserCache;
 
     @Override
     public List<Role> findAll() {
@@ -40,27 +46,58 @@ public class RoleService implements IRoleService {
 
     @Override
     public Role save(Role role) {
-        return roleRepository.save(role);
+        Role saved = roleRepository.save(role);
+        roleEpochRegistry.register(saved);
+        return saved;
     }
 
+    /**
+     * Sustituye los permisos del rol aplicando solo la diferencia sobre roles_permissions.
+     * El número de sentencias no depende del tamaño de los conjuntos: una consulta para los permisos,
+     * como mucho un DELETE y un INSERT ... SELECT, y la subida de época.
+     */
     @Override
     @Transactional
     public Role updateRolePermissions(Long idRole, Set<Permission> permissions) {
         Role role = roleRepository.findById(idRole)
-                .orElseThrow(() -> new RuntimeException("Rol no encontrado con ID: " + idRole));
-
-        role.getPermissionsList().clear();
-
-        for (Permission permission : permissions) {
-            Permission existingPermission = permissionRepository.findById(permission.getIdPermission())
-                    .orElseThrow(() -> {
-                        log.error("Permiso no encontrado con ID: {}", permission.getIdPermission()); // Log para depuración
-                        return new RuntimeException("Permiso no encontrado con ID: " + permission.getIdPermission());
-                    });
-            role.getPermissionsList().add(existingPermission);
+                .orElseThrow(() -> new ResourceNotFoundException("Rol no encontrado con ID: " + idRole));
+
+        Set<Long> requestedIds = permissions.stream()
+                .map(Permission::getIdPermission)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        // Una sola consulta; si falta algún permiso no se modifica nada.
+        permissionService.findAllByIds(requestedIds);
+
+        Set<Long> currentIds = role.getPermissionsList().stream()
+                .map(Permission::getIdPermission)
+                .collect(Collectors.toSet());
+        Set<Long> toAdd = new HashSet<>(requestedIds);
+        toAdd.removeAll(currentIds);
+        Set<Long> toRemove = new HashSet<>(currentIds);
+        toRemove.removeAll(requestedIds);
+
+        if (toAdd.isEmpty() && toRemove.isEmpty()) {
+            // Sin cambios: la época no avanza y los JWT emitidos siguen siendo válidos.
+            return role;
         }
-
-        return roleRepository.save(role);
+        if (!toRemove.isEmpty()) {
+            roleRepository.removePermissions(idRole, toRemove);
+        }
+        if (!toAdd.isEmpty()) {
+            roleRepository.addPermissions(idRole, toAdd);
+        }
+        roleRepository.bumpEpoch(idRole);
+
+        // Las sentencias anteriores vacían el contexto de persistencia: se relee el rol ya actualizado.
+        Role updatedRole = roleRepository.findById(idRole)
+                .orElseThrow(() -> new ResourceNotFoundException("Rol no encontrado con ID: " + idRole));
+        // Los JWT emitidos con la época anterior se re-resolverán en su próxima petición.
+        roleEpochRegistry.register(updatedRole);
+        userDetailsCache.evictAll();
+        oAuth2UserCache.evictAll();
+        log.debug("Permisos del rol '{}' actualizados: {} altas, {} bajas.", updatedRole.getRole(), toAdd.size(), toRemove.size());
+        return updatedRole;
     }
 
     @Override
@@ -69,11 +106,15 @@ public class RoleService implements IRoleService {
         Role role = roleRepository.findById(idRole)
                 .orElseThrow(() -> new ResourceNotFoundException("Rol no encontrado"));
 
-        List<UserSec> usersWithRole = userRepository.findByRolesListContains(role);
-        usersWithRole.forEach(user -> user.getRolesList().remove(role));
-        userRepository.saveAll(usersWithRole);
+        // DELETE directo sobre user_roles: cargar a los usuarios (con su grafo EAGER) no escala con roles comunes.
+        int unassigned = userRepository.removeRoleFromAllUsers(idRole);
 
         roleRepository.delete(role);
+        // Sin época registrada, los JWT que aún incluyen el rol son obsoletos y se re-resuelven en su próxima petición.
+        roleEpochRegistry.remove(role.getRole());
+        userDetailsCache.evictAll();
+        oAuth2UserCache.evictAll();
+        log.info("Rol '{}' eliminado y desasignado de {} usuarios.", role.getRole(), unassigned);
     }
 
     @Override
@@ -0,0 +1,198 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.model.RevokedToken;
+import com.adrian.blogweb1.model.RevokedToken.RevocationType;
+import com.adrian.blogweb1.repository.IRevokedTokenRepository;
+import com.adrian.blogweb1.utils.AfterCommit;
+import com.adrian.blogweb1.utils.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de revocación de access tokens.
+ * La tabla revoked_tokens es la fuente de verdad; en memoria se mantiene un filtro de Bloom
+ * y un mapa exacto acotado que se sincronizan de forma incremental (id > último visto).
+ * El caso habitual (token no revocado) se resuelve con unas pocas sondas al filtro y sin I/O.
+ */
+@Service
+public class TokenRevocationService implements ITokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final IRevokedTokenRepository revokedTokenRepository;
+    private final Clock clock;
+    private final Duration accessTokenTtl;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final int maxExactEntries;
+
+    // Los escritores (revocaciones locales, sincronización y reconstrucción) se serializan;
+    // los lectores solo leen la referencia volátil al snapshot actual.
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot;
+    private long lastSeenId;
+
+    public TokenRevocationService(IRevokedTokenRepository revokedTokenRepository,
+                                  Clock clock,
+                                  @Value("${security.jwt.expiration.time}") long accessTokenExpirationInMillis,
+                                  @Value("${security.jwt.revocation.bloom.expected-insertions:100000}") long expectedInsertions,
+                                  @Value("${security.jwt.revocation.bloom.fpp:0.001}") double falsePositiveProbability,
+                                  @Value("${security.jwt.revocation.max-exact-entries:100000}") int maxExactEntries) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.clock = clock;
+        this.accessTokenTtl = Duration.ofMillis(accessTokenExpirationInMillis);
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.maxExactEntries = maxExactEntries;
+        this.snapshot = newSnapshot();
+    }
+
+    @Override
+    @Transactional
+    public void revokeToken(String jti, Instant expiresAt) {
+        if (jti == null) {
+            return;
+        }
+        save(RevocationType.JTI, jti, expiresAt);
+    }
+
+    @Override
+    @Transactional
+    public void revokeSubject(String username) {
+        // Cualquier access token del usuario emitido hasta ahora caduca como muy tarde dentro de un TTL.
+        save(RevocationType.SUBJECT, username, clock.instant().plus(accessTokenTtl));
+        log.info("Revocados todos los access tokens vigentes del usuario '{}'.", username);
+    }
+
+    @Override
+    public boolean isRevoked(String jti, String subject, Instant issuedAt) {
+        Snapshot current = this.snapshot;
+
+        if (jti != null && lookup(current, RevocationType.JTI, jti) != null) {
+            return true;
+        }
+
+        Instant subjectRevokedAt = subject != null ? lookup(current, RevocationType.SUBJECT, subject) : null;
+        // El claim iat tiene precisión de segundos: ante la duda, el token se considera revocado.
+        return subjectRevokedAt != null && (issuedAt == null || !issuedAt.isAfter(subjectRevokedAt));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.refresh-interval-ms:5000}")
+    public void refresh() {
+        synchronized (writeLock) {
+            List<RevokedToken> newRows = revokedTokenRepository.findActiveAfter(lastSeenId, clock.instant());
+            Snapshot current = this.snapshot;
+            for (RevokedToken row : newRows) {
+                current.register(row);
+                lastSeenId = Math.max(lastSeenId, row.getIdRevokedToken());
+            }
+            if (!newRows.isEmpty()) {
+                log.debug("Sincronizadas {} revocaciones nuevas (último id {}).", newRows.size(), lastSeenId);
+            }
+        }
+    }
+
+    /**
+     * Borra las revocaciones caducadas y reconstruye el filtro desde cero, ya que un filtro de Bloom
+     * no admite borrados. La carga completa recoge además filas de transacciones que confirmaron
+     * con un id inferior al último visto y que la sincronización incremental pudo saltarse.
+     */
+    @Override
+    @Transactional
+    @Scheduled(cron = "${security.jwt.revocation.purge.cron:0 */15 * * * *}")
+    public void purgeAndRebuild() {
+        synchronized (writeLock) {
+            Instant now = clock.instant();
+            int deleted = revokedTokenRepository.deleteExpired(now);
+
+            Snapshot rebuilt = newSnapshot();
+            long maxId = 0;
+            for (RevokedToken row : revokedTokenRepository.findActiveAfter(0, now)) {
+                rebuilt.register(row);
+                maxId = Math.max(maxId, row.getIdRevokedToken());
+            }
+            this.snapshot = rebuilt;
+            this.lastSeenId = maxId;
+
+            if (deleted > 0) {
+                log.info(">>> {} revocaciones caducadas eliminadas. Filtro reconstruido con {} entradas.",
+                        deleted, rebuilt.exact.size());
+            }
+        }
+    }
+
+    private void save(RevocationType type, String value, Instant expiresAt) {
+        RevokedToken row = new RevokedToken();
+        row.setType(type);
+        row.setValue(value);
+        row.setRevokedAt(clock.instant());
+        row.setExpiresAt(expiresAt);
+        revokedTokenRepository.save(row);
+
+        // La revocación surte efecto en este nodo al confirmar (si la transacción se revierte, no llega a aplicarse);
+        // el resto la recibe en su próxima sincronización.
+        AfterCommit.runAfterCommit(() -> {
+            synchronized (writeLock) {
+                this.snapshot.register(row);
+            }
+        });
+    }
+
+    private Instant lookup(Snapshot current, RevocationType type, String value) {
+        String key = key(type, value);
+        if (!current.filter.mightContain(key)) {
+            return null;
+        }
+        Instant revokedAt = current.exact.get(key);
+        if (revokedAt != null || !current.overflowed) {
+            return revokedAt;
+        }
+        // Solo llegamos aquí si el filtro dice "quizá" y el mapa exacto se desbordó: confirmamos en BD.
+        return revokedTokenRepository.findLatestRevocation(type, value, clock.instant()).orElse(null);
+    }
+
+    private Snapshot newSnapshot() {
+        return new Snapshot(BloomFilter.create(expectedInsertions, falsePositiveProbability), maxExactEntries);
+    }
+
+    private static String key(RevocationType type, String value) {
+        return (type == RevocationType.JTI ? "j:" : "s:") + value;
+    }
+
+    private static final class Snapshot {
+
+        private final BloomFilter filter;
+        private final Map<String, Instant> exact = new ConcurrentHashMap<>();
+        private final int maxExactEntries;
+        private volatile boolean overflowed;
+
+        private Snapshot(BloomFilter filter, int maxExactEntries) {
+            this.filter = filter;
+            this.maxExactEntries = maxExactEntries;
+        }
+
+        private void register(RevokedToken row) {
+            String key = key(row.getType(), row.getValue());
+            if (exact.size() < maxExactEntries || exact.containsKey(key)) {
+                exact.merge(key, row.getRevokedAt(), (a, b) -> a.isAfter(b) ? a : b);
+            } else {
+                overflowed = true;
+            }
+            // Se añade al filtro después del mapa para que un lector nunca vea el "quizá" sin la entrada exacta.
+            filter.put(key);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.TrendingPostDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Top-K de posts en tendencia con decaimiento exponencial, mantenido en memoria.
+ * Cada evento suma peso * 2^((t - t0) / vidaMedia): todas las puntuaciones comparten la referencia t0,
+ * así que el orden relativo se conserva sin tener que decaer cada entrada en cada instante.
+ * Una tarea periódica calcula el top-K (O(n log K)), poda lo que ya no cuenta y publica una lista inmutable;
+ * GET /api/posts/trending solo devuelve esa lista, sin consultar la BD.
+ */
+@Service
+public class TrendingPostsService implements ITrendingPostsService {
+
+    // Renormalizar antes de que el factor de escala pierda precisión (2^64 sigue lejos del límite de double).
+    private static final double MAX_HALF_LIVES_BEFORE_RENORMALIZE = 64;
+    private static final double PRUNE_BELOW_SCORE = 0.01;
+
+    private static final Comparator<TrendingPostDTO> RANKING = Comparator
+            .comparingDouble(TrendingPostDTO::score).reversed()
+            .thenComparing(TrendingPostDTO::idPost);
+
+    private final Clock clock;
+    private final double halfLifeMillis;
+    private final int size;
+    private final int maxTrackedPosts;
+    private final double creationWeight;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Los eventos toman el lock de lectura (compartido); solo la renormalización y la poda lo toman en exclusiva.
+    private final ReadWriteLock scaleLock = new ReentrantReadWriteLock();
+    private volatile long referenceMillis;
+    private volatile List<TrendingPostDTO> trending = List.of();
+
+    public TrendingPostsService(Clock clock,
+                                @Value("${posts.trending.half-life-minutes:360}") long halfLifeMinutes,
+                                @Value("${posts.trending.size:20}") int size,
+                                @Value("${posts.trending.max-tracked-posts:10000}") int maxTrackedPosts,
+                                @Value("${posts.trending.creation-weight:5}") double creationWeight) {
+        this.clock = clock;
+        this.halfLifeMillis = Duration.ofMinutes(halfLifeMinutes).toMillis();
+        this.size = size;
+        this.maxTrackedPosts = maxTrackedPosts;
+        this.creationWeight = creationWeight;
+        this.referenceMillis = clock.millis();
+    }
+
+    @Override
+    public void recordView(Long idPost, String title, String authorName) {
+        record(idPost, title, authorName, 1.0);
+    }
+
+    @Override
+    public void recordCreation(Long idPost, String title, String authorName) {
+        record(idPost, title, authorName, creationWeight);
+    }
+
+    @Override
+    public void updateMetadata(Long idPost, String title, String authorName) {
+        Entry entry = entries.get(idPost);
+        if (entry != null) {
+            entry.title = title;
+            entry.authorName = authorName;
+        }
+    }
+
+    @Override
+    public void forget(Long idPost) {
+        entries.remove(idPost);
+    }
+
+    @Override
+    public List<TrendingPostDTO> getTrending() {
+        return trending;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${posts.trending.snapshot-interval-ms:10000}")
+    public void snapshot() {
+        long now = clock.millis();
+        if (now - referenceMillis > MAX_HALF_LIVES_BEFORE_RENORMALIZE * halfLifeMillis || entries.size() > maxTrackedPosts) {
+            renormalizeAndPrune(now);
+        }
+
+        double toCurrentScale = Math.pow(2, -(now - referenceMillis) / halfLifeMillis);
+        // Montículo de mínimos de tamaño K: la cabeza es el peor de los K mejores vistos hasta ahora.
+        PriorityQueue<TrendingPostDTO> top = new PriorityQueue<>(size + 1, RANKING.reversed());
+        entries.forEach((idPost, entry) -> {
+            double score = entry.score.sum() * toCurrentScale;
+            if (score >= PRUNE_BELOW_SCORE) {
+                top.offer(new TrendingPostDTO(idPost, entry.title, entry.authorName, score));
+                if (top.size() > size) {
+                    top.poll();
+                }
+            }
+        });
+
+        List<TrendingPostDTO> ranking = new ArrayList<>(top);
+        ranking.sort(RANKING);
+        this.trending = List.copyOf(ranking);
+    }
+
+    private void record(Long idPost, String title, String authorName, double weight) {
+        scaleLock.readLock().lock();
+        try {
+            double scaled = weight * Math.pow(2, (clock.millis() - referenceMillis) / halfLifeMillis);
+            Entry entry = entries.computeIfAbsent(idPost, id -> new Entry(title, authorName));
+            entry.score.add(scaled);
+        } finally {
+            scaleLock.readLock().unlock();
+        }
+    }
+
+    // Lleva todas las puntuaciones a la escala de "ahora" y descarta las que ya son despreciables.
+    private void renormalizeAndPrune(long now) {
+        scaleLock.writeLock().lock();
+        try {
+            double factor = Math.pow(2, -(now - referenceMillis) / halfLifeMillis);
+            entries.values().removeIf(entry -> {
+                double score = entry.score.sumThenReset() * factor;
+                entry.score.add(score);
+                return score < PRUNE_BELOW_SCORE;
+            });
+            referenceMillis = now;
+
+            // Si sigue habiendo demasiadas entradas, se queda con las maxTrackedPosts de mayor puntuación.
+            if (entries.size() > maxTrackedPosts) {
+                List<Map.Entry<Long, Entry>> byScore = new ArrayList<>(entries.entrySet());
+                byScore.sort(Comparator.comparingDouble((Map.Entry<Long, Entry> e) -> e.getValue().score.sum()).reversed());
+                byScore.subList(maxTrackedPosts, byScore.size()).forEach(e -> entries.remove(e.getKey()));
+            }
+        } finally {
+            scaleLock.writeLock().unlock();
+        }
+    }
+
+    private static final class Entry {
+
+        private final DoubleAdder score = new DoubleAdder();
+        private volatile String title;
+        private volatile String authorName;
+
+        private Entry(String title, String authorName) {
+            this.title = title;
+            this.authorName = authorName;
+        }
+    }
+}
@@ -2,31 +2,55 @@ package com.adrian.blogweb1.service;
 
 import com.adrian.blogweb1.model.UserSec;
 import com.adrian.blogweb1.repository.IUserRepository;
+import com.adrian.blogweb1.security.config.UnknownUsernameCache;
+import com.adrian.blogweb1.security.config.UserDetailsCache;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor // Inyección por constructor
-public class UserDetailsServiceImp implements UserDetailsService {
+public class UserDetailsServiceImp implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDetailsServiceImp.class);
 
     private final IUserRepository userRepository;
+    private final UnknownUsernameCache unknownUsernameCache;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     @Transactional(readOnly = true) // readOnly = true es una optimización para consultas
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        Optional<UserDetails> cached = userDetailsCache.get(username);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        // Un nombre ya visto como inexistente no vuelve a la BD. La excepción es la misma que en el caso
+        // normal, así que DaoAuthenticationProvider sigue haciendo su comparación ficticia de contraseña
+        // y el tiempo de respuesta lo sigue dominando el hash, no la consulta ahorrada.
+        if (unknownUsernameCache.isKnownMissing(username)) {
+            throw usernameNotFound(username);
+        }
 
-        UserSec user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con el nombre: " + username));
+        UserSec user = userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            unknownUsernameCache.markMissing(username);
+            throw usernameNotFound(username);
+        }
 
         // Usamos Streams para una construcción más limpia y moderna de las autoridades
         Stream<SimpleGrantedAuthority> roleAuthorities = user.getRolesList().stream()
@@ -40,7 +64,7 @@ public class UserDetailsServiceImp implements UserDetailsService {
         List<SimpleGrantedAuthority> authorities = Stream.concat(roleAuthorities, permissionAuthorities)
                 .toList();
 
-        return new User(
+        UserDetails userDetails = new User(
                 user.getUsername(),
                 user.getPassword(),
                 user.isEnabled(),
@@ -49,5 +73,25 @@ public class UserDetailsServiceImp implements UserDetailsService {
                 user.isAccountNotLocked(),
                 authorities
         );
+        userDetailsCache.put(userDetails);
+        return userDetails;
+    }
+
+    /**
+     * DaoAuthenticationProvider lo invoca tras un login correcto cuando el hash guardado usa un algoritmo
+     * o un coste distinto del configurado: newPassword ya viene cifrada con el encoder actual.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userDetailsCache.evict(user.getUsername());
+        if (userRepository.updatePassword(user.getUsername(), newPassword) > 0) {
+            log.info("Contraseña del usuario '{}' re-cifrada con el algoritmo actual.", user.getUsername());
+        }
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
+    private static UsernameNotFoundException usernameNotFound(String username) {
+        return new UsernameNotFoundException("Usuario no encontrado con el nombre: " + username);
     }
-}
\ No newline at end of file
+}
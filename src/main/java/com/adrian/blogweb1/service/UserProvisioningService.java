@@ -0,0 +1,273 @@
+package com.adrian.blogweb1.service;
+
+import com.adrian.blogweb1.dto.UserBatchErrorDTO;
+import com.adrian.blogweb1.dto.UserBatchResultDTO;
+import com.adrian.blogweb1.dto.UserProvisionRowDTO;
+import com.adrian.blogweb1.model.Role;
+import com.adrian.blogweb1.repository.IUserRepository;
+import com.adrian.blogweb1.security.config.UnknownUsernameCache;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Alta masiva de usuarios (POST /api/users/batch).
+ * Los roles se resuelven una sola vez para todo el lote, las contraseñas se cifran en paralelo en un
+ * pool acotado (BCrypt es deliberadamente caro) y usuarios y filas de user_roles se insertan con
+ * batches JDBC, un tramo por transacción.
+ */
+@Service
+public class UserProvisioningService implements IUserProvisioningService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserProvisioningService.class);
+
+    private static final String INSERT_USER = "INSERT INTO users (username, password, email, enabled, "
+            + "account_not_expired, account_not_locked, credential_not_expired) VALUES (?, ?, ?, TRUE, TRUE, TRUE, TRUE)";
+    private static final String INSERT_USER_ROLE = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+
+    private final IUserRepository userRepository;
+    private final IRoleService roleService;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UnknownUsernameCache unknownUsernameCache;
+    private final ExecutorService hashingExecutor;
+    private final int insertBatchSize;
+    private final int maxRows;
+
+    @Autowired
+    public UserProvisioningService(IUserRepository userRepository,
+                                   IRoleService roleService,
+                                   PasswordEncoder passwordEncoder,
+                                   JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   UnknownUsernameCache unknownUsernameCache,
+                                   @Value("${users.batch.hashing-threads:0}") int hashingThreads,
+                                   @Value("${users.batch.insert-batch-size:500}") int insertBatchSize,
+                                   @Value("${users.batch.max-rows:5000}") int maxRows) {
+        this(userRepository, roleService, passwordEncoder, jdbcTemplate, transactionTemplate, unknownUsernameCache,
+                newHashingExecutor(hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors(), maxRows),
+                insertBatchSize, maxRows);
+    }
+
+    public UserProvisioningService(IUserRepository userRepository,
+                                   IRoleService roleService,
+                                   PasswordEncoder passwordEncoder,
+                                   JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   UnknownUsernameCache unknownUsernameCache,
+                                   ExecutorService hashingExecutor,
+                                   int insertBatchSize,
+                                   int maxRows) {
+        this.userRepository = userRepository;
+        this.roleService = roleService;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.unknownUsernameCache = unknownUsernameCache;
+        this.hashingExecutor = hashingExecutor;
+        this.insertBatchSize = Math.max(1, insertBatchSize);
+        this.maxRows = maxRows;
+    }
+
+    @Override
+    public UserBatchResultDTO provision(List<UserProvisionRowDTO> rows) {
+        if (rows.size() > maxRows) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "El lote supera el máximo de " + maxRows + " usuarios por petición.");
+        }
+        List<UserBatchErrorDTO> errors = new ArrayList<>();
+
+        // 1. Roles: una sola consulta para todos los ids del lote.
+        Set<Long> roleIds = rows.stream()
+                .filter(row -> row.roleIds() != null)
+                .flatMap(row -> row.roleIds().stream())
+                .collect(Collectors.toSet());
+        Map<Long, Role> roles = roleIds.isEmpty() ? Map.of() : roleService.findAllByIds(roleIds).stream()
+                .collect(Collectors.toMap(Role::getIdRole, Function.identity()));
+
+        // 2. Validación por fila, incluidos los duplicados dentro del propio lote.
+        List<PendingUser> pending = new ArrayList<>();
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        for (int index = 0; index < rows.size(); index++) {
+            UserProvisionRowDTO row = rows.get(index);
+            String error = validate(row, roles, seenUsernames, seenEmails);
+            if (error != null) {
+                errors.add(new UserBatchErrorDTO(index, row.username(), error));
+            } else {
+                pending.add(new PendingUser(index, row));
+            }
+        }
+
+        // 3. Conflictos con usuarios existentes, consultados por tramos antes de gastar CPU en cifrar.
+        pending = rejectExisting(pending, errors);
+
+        // 4. Cifrado en paralelo en el pool acotado.
+        List<CompletableFuture<Void>> hashing = pending.stream()
+                .map(user -> CompletableFuture.runAsync(
+                        () -> user.encodedPassword = passwordEncoder.encode(user.row.password()), hashingExecutor))
+                .toList();
+        CompletableFuture.allOf(hashing.toArray(CompletableFuture[]::new)).join();
+
+        // 5. Inserción por tramos: cada uno en su transacción, con batches JDBC.
+        int created = 0;
+        for (int from = 0; from < pending.size(); from += insertBatchSize) {
+            List<PendingUser> chunk = pending.subList(from, Math.min(from + insertBatchSize, pending.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertChunk(chunk));
+                created += chunk.size();
+                unknownUsernameCache.forgetAll(chunk.stream().map(user -> user.row.username()).toList());
+            } catch (DataIntegrityViolationException e) {
+                // Otro alta concurrente ocupó algún username/email entre la comprobación y el INSERT.
+                log.warn("Tramo de {} usuarios revertido por una violación de integridad.", chunk.size(), e);
+                chunk.forEach(user -> errors.add(new UserBatchErrorDTO(user.index, user.row.username(),
+                        "Conflicto al insertar el tramo; reintente la fila")));
+            }
+        }
+
+        errors.sort(Comparator.comparingInt(UserBatchErrorDTO::index));
+        log.info(">>> Alta masiva de usuarios: {} recibidos, {} creados, {} con errores.", rows.size(), created, errors.size());
+        return new UserBatchResultDTO(rows.size(), created, errors);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdown();
+    }
+
+    private static String validate(UserProvisionRowDTO row, Map<Long, Role> roles,
+                                   Set<String> seenUsernames, Set<String> seenEmails) {
+        if (row.username() == null || row.username().isBlank()) {
+            return "El campo 'username' no puede estar vacío";
+        }
+        if (row.password() == null || row.password().isEmpty()) {
+            return "El campo 'password' no puede estar vacío";
+        }
+        if (row.roleIds() == null || row.roleIds().isEmpty()) {
+            return "El campo 'roleIds' no puede estar vacío";
+        }
+        Set<Long> missingRoles = new TreeSet<>(row.roleIds());
+        missingRoles.removeAll(roles.keySet());
+        if (!missingRoles.isEmpty()) {
+            return "Rol no encontrado con ID: " + missingRoles;
+        }
+        if (!seenUsernames.add(row.username())) {
+            return "Username repetido en el lote";
+        }
+        if (row.email() != null && !seenEmails.add(row.email())) {
+            return "Email repetido en el lote";
+        }
+        return null;
+    }
+
+    private List<PendingUser> rejectExisting(List<PendingUser> pending, List<UserBatchErrorDTO> errors) {
+        List<PendingUser> accepted = new ArrayList<>(pending.size());
+        for (int from = 0; from < pending.size(); from += insertBatchSize) {
+            List<PendingUser> chunk = pending.subList(from, Math.min(from + insertBatchSize, pending.size()));
+            Set<String> existingUsernames = new HashSet<>(userRepository.findExistingUsernames(
+                    chunk.stream().map(user -> user.row.username()).toList()));
+            List<String> emails = chunk.stream().map(user -> user.row.email()).filter(Objects::nonNull).toList();
+            Set<String> existingEmails = emails.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingEmails(emails));
+
+            for (PendingUser user : chunk) {
+                if (existingUsernames.contains(user.row.username())) {
+                    errors.add(new UserBatchErrorDTO(user.index, user.row.username(), "El username ya existe"));
+                } else if (user.row.email() != null && existingEmails.contains(user.row.email())) {
+                    errors.add(new UserBatchErrorDTO(user.index, user.row.username(), "El email ya existe"));
+                } else {
+                    accepted.add(user);
+                }
+            }
+        }
+        return accepted;
+    }
+
+    private void insertChunk(List<PendingUser> chunk) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_USER, new String[]{"id_user_sec"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PendingUser user = chunk.get(i);
+                        ps.setString(1, user.row.username());
+                        ps.setString(2, user.encodedPassword);
+                        ps.setString(3, user.row.email());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                },
+                keyHolder);
+
+        // Las claves generadas llegan en el mismo orden que las filas del batch.
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        List<Object[]> userRoles = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Number idUser = (Number) keys.get(i).values().iterator().next();
+            for (Long idRole : chunk.get(i).row.roleIds()) {
+                userRoles.add(new Object[]{idUser.longValue(), idRole});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE, userRoles);
+    }
+
+    private static ExecutorService newHashingExecutor(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        // Si varias peticiones llenan la cola, el hilo de la petición cifra él mismo en lugar de fallar.
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-batch-hasher-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private static final class PendingUser {
+
+        private final int index;
+        private final UserProvisionRowDTO row;
+        // Lo escribe un hilo del pool; allOf(...).join() garantiza su visibilidad antes de insertar.
+        private String encodedPassword;
+
+        private PendingUser(int index, UserProvisionRowDTO row) {
+            this.index = index;
+            this.row = row;
+        }
+    }
+}
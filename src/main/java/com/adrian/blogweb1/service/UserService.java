@@ -5,6 +5,9 @@ import com.adrian.blogweb1.model.Role;
 import com.adrian.blogweb1.model.UserSec;
 import com.adrian.blogweb1.repository.IRoleRepository;
 import com.adrian.blogweb1.repository.IUserRepository;
+import com.adrian.blogweb1.security.config.OAuth2UserCache;
+import com.adrian.blogweb1.security.config.UnknownUsernameCache;
+import com.adrian.blogweb1.security.config.UserDetailsCache;
 import com.adrian.blogweb1.security.config.props.DefaultAdminProperties;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -30,6 +33,11 @@ public class UserService implements IUserService {
     private final Environment env;
     private final IRoleRepository roleRepository;
     private final DefaultAdminProperties adminProperties;
+    private final ITokenRevocationService tokenRevocationService;
+    private final IRefreshTokenService refreshTokenService;
+    private final UnknownUsernameCache unknownUsernameCache;
+    private final UserDetailsCache userDetailsCache;
+    private final OAuth2UserCache oAuth2UserCache;
 
     // --- INICIO DE LA SOLUCIÓN ---
     // Campo para la auto-inyección del proxy del servicio.
@@ -58,6 +66,7 @@ public class UserService implements IUserService {
     @Transactional
     public UserSec save(UserSec userSec) {
         userSec.setPassword(passwordEncoder.encode(userSec.getPassword()));
+        unknownUsernameCache.forget(userSec.getUsername());
         return userRepository.save(userSec);
     }
 
@@ -67,7 +76,17 @@ public class UserService implements IUserService {
         UserSec existingUser = userRepository.findById(idUserSec)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + idUserSec));
 
+        boolean wasActive = isActive(existingUser);
+        String previousUsername = existingUser.getUsername();
+
         existingUser.setUsername(userSecDetails.getUsername());
+        if (!Objects.equals(previousUsername, existingUser.getUsername())) {
+            unknownUsernameCache.forget(existingUser.getUsername());
+        }
+        // Contraseña, estado o roles pueden cambiar: el login no debe ver la versión cacheada.
+        userDetailsCache.evict(previousUsername);
+        userDetailsCache.evict(existingUser.getUsername());
+        oAuth2UserCache.evictUser(previousUsername);
         existingUser.setEmail(userSecDetails.getEmail());
 
         if (userSecDetails.getPassword() != null && !userSecDetails.getPassword().isEmpty()) {
@@ -87,9 +106,19 @@ public class UserService implements IUserService {
             existingUser.setRolesList(updatedRoles);
         }
 
+        // Si la cuenta deja de estar activa, sus tokens emitidos dejan de valer en lugar de esperar a que caduquen.
+        if (wasActive && !isActive(existingUser)) {
+            tokenRevocationService.revokeSubject(previousUsername);
+            refreshTokenService.revokeAllForUser(idUserSec);
+        }
+
         return userRepository.save(existingUser);
     }
 
+    private boolean isActive(UserSec user) {
+        return user.isEnabled() && user.isAccountNotLocked() && user.isAccountNotExpired();
+    }
+
     @Override
     @Transactional
     public void deleteUser(Long idUserSec) {
@@ -102,6 +131,10 @@ public class UserService implements IUserService {
         userRepository.save(user);
 
         userRepository.delete(user);
+        userDetailsCache.evict(user.getUsername());
+        oAuth2UserCache.evictUser(user.getUsername());
+        // Sus refresh tokens se borran en cascada; los access tokens ya emitidos se revocan explícitamente.
+        tokenRevocationService.revokeSubject(user.getUsername());
     }
 
     @Override
@@ -128,6 +161,7 @@ public class UserService implements IUserService {
                     newUser.setAccountNotLocked(true);
                     newUser.setRolesList(Set.of(userRole));
 
+                    unknownUsernameCache.forget(username);
                     return userRepository.save(newUser);
                 });
     }
@@ -158,6 +192,7 @@ public class UserService implements IUserService {
 
             adminUser.setRolesList(Set.of(adminRole));
 
+            unknownUsernameCache.forget(adminUser.getUsername());
             userRepository.save(adminUser);
             log.info(">>> Usuario administrador por defecto creado.");
         }
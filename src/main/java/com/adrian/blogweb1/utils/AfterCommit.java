@@ -0,0 +1,46 @@
+package com.adrian.blogweb1.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidación de cachés en memoria ligada a la transacción en curso.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Ejecuta la acción ahora y, si hay una transacción en curso, otra vez tras el commit: una lectura
+     * concurrente que aún no veía los cambios podría haber repoblado la caché con datos antiguos.
+     */
+    public static void runNowAndAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * Ejecuta la acción solo si la transacción en curso confirma (o ahora mismo si no hay ninguna):
+     * para estado en memoria que no debe adelantarse a la BD ni sobrevivir a un rollback.
+     */
+    public static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,96 @@
+package com.adrian.blogweb1.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom concurrente y de tamaño fijo para cadenas.
+ * Un "no" es definitivo; un "sí" solo significa "quizá" y debe confirmarse con otra estructura.
+ * Las lecturas no bloquean: cada consulta son unos pocos accesos a un array de longs.
+ */
+public final class BloomFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray bits;
+    private final int numBits;
+    private final int numHashFunctions;
+
+    private BloomFilter(int numBits, int numHashFunctions) {
+        this.numBits = numBits;
+        this.numHashFunctions = numHashFunctions;
+        this.bits = new AtomicLongArray((numBits + 63) >>> 6);
+    }
+
+    /**
+     * Dimensiona el filtro para el número de elementos esperado y la tasa de falsos positivos deseada.
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions debe ser positivo");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("falsePositiveProbability debe estar entre 0 y 1");
+        }
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (ln2 * ln2));
+        int numBits = (int) Math.min(Math.max(optimalBits, 64), Integer.MAX_VALUE - 63);
+        int numHashFunctions = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * ln2));
+        return new BloomFilter(numBits, numHashFunctions);
+    }
+
+    public void put(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashFunctions; i++) {
+            setBit(index(h1 + i * h2));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashFunctions; i++) {
+            int bitIndex = index(h1 + i * h2);
+            if ((bits.get(bitIndex >>> 6) & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(int combinedHash) {
+        // Double hashing (Kirsch-Mitzenmacher): k posiciones a partir de dos hashes de 32 bits.
+        return (combinedHash & Integer.MAX_VALUE) % numBits;
+    }
+
+    private void setBit(int bitIndex) {
+        int wordIndex = bitIndex >>> 6;
+        long mask = 1L << bitIndex;
+        long current;
+        do {
+            current = bits.get(wordIndex);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(wordIndex, current, current | mask));
+    }
+
+    // FNV-1a de 64 bits con una mezcla final (fmix64 de MurmurHash3) para repartir mejor los bits altos.
+    private static long hash64(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
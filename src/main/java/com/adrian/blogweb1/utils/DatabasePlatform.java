@@ -0,0 +1,30 @@
+package com.adrian.blogweb1.utils;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Detecta (una sola vez) si la BD es PostgreSQL, para las sentencias JDBC que usan sintaxis específica
+ * (UPDATE ... FROM (VALUES ...), INSERT ... ON CONFLICT). En el resto (H2 en tests) se usa SQL equivalente.
+ */
+@Component
+public class DatabasePlatform {
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public DatabasePlatform(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isPostgres() {
+        Boolean current = postgres;
+        if (current == null) {
+            current = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            postgres = current;
+        }
+        return Boolean.TRUE.equals(current);
+    }
+}
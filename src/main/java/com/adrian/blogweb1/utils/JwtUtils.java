@@ -1,6 +1,10 @@
 package com.adrian.blogweb1.utils;
 
+import com.adrian.blogweb1.security.config.JwtSigningKeys;
+import com.adrian.blogweb1.security.config.PermissionBitRegistry;
+import com.adrian.blogweb1.security.config.RoleEpochRegistry;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.Claim;
@@ -16,12 +20,19 @@ import org.springframework.stereotype.Component;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
 
     private static final Logger log = LoggerFactory.getLogger(JwtUtils.class);
 
+    public static final String ROLES_CLAIM = "roles";
+    public static final String PERMISSIONS_CLAIM = "permissions";
+    public static final String PERMISSION_BITS_CLAIM = "perm_bits";
+    public static final String ROLE_EPOCHS_CLAIM = "role_epochs";
+    private static final String ROLE_PREFIX = "ROLE_";
+
     @Value("${security.jwt.private.key}")
     private String privateKey;
 
@@ -31,8 +42,24 @@ public class JwtUtils {
     @Value("${security.jwt.expiration.time}")
     private long expirationTimeInMillis;
 
+    private final RoleEpochRegistry roleEpochRegistry;
+    private final PermissionBitRegistry permissionBitRegistry;
+    private final JwtSigningKeys jwtSigningKeys;
+
+    // Algoritmo y verificador se construyen una sola vez (las claves no cambian en caliente).
+    private volatile Algorithm algorithm;
+    private volatile JWTVerifier verifier;
+
+    public JwtUtils(RoleEpochRegistry roleEpochRegistry,
+                    PermissionBitRegistry permissionBitRegistry,
+                    JwtSigningKeys jwtSigningKeys) {
+        this.roleEpochRegistry = roleEpochRegistry;
+        this.permissionBitRegistry = permissionBitRegistry;
+        this.jwtSigningKeys = jwtSigningKeys;
+    }
+
     public String createToken(Authentication authentication) {
-        Algorithm algorithm = Algorithm.HMAC256(privateKey);
+        Algorithm algorithm = algorithm();
 
         String username = authentication.getName();
 
@@ -41,13 +68,36 @@ public class JwtUtils {
         // Se extraen solo los permisos, que sí se usan en el token.
         List<String> permissions = authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
-                .filter(auth -> !auth.startsWith("ROLE_"))
+                .filter(auth -> !auth.startsWith(ROLE_PREFIX))
                 .toList(); // Usamos el método moderno .toList()
 
-        return JWT.create()
+        // Nombres de rol sin el prefijo: JwtTokenValidator lo vuelve a añadir al reconstruir las autoridades.
+        List<String> roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(auth -> auth.startsWith(ROLE_PREFIX))
+                .map(auth -> auth.substring(ROLE_PREFIX.length()))
+                .toList();
+
+        JWTCreator.Builder builder = JWT.create()
                 .withIssuer(this.userGenerator)
                 .withSubject(username)
-                .withClaim("permissions", permissions)
+                // Identificador único del token: permite revocarlo individualmente (logout).
+                .withJWTId(UUID.randomUUID().toString())
+                .withClaim(ROLES_CLAIM, roles)
+                // Época de autorización de cada rol en el momento de emitir el token.
+                .withClaim(ROLE_EPOCHS_CLAIM, roleEpochRegistry.epochsFor(roles));
+
+        // En modo asimétrico el "kid" permite a los verificadores externos elegir la clave del JWKS.
+        if (jwtSigningKeys.keyId() != null) {
+            builder.withKeyId(jwtSigningKeys.keyId());
+        }
+
+        // Máscara de bits compacta; si algún permiso aún no tiene bit en este nodo, se usa la lista clásica.
+        permissionBitRegistry.encode(permissions).ifPresentOrElse(
+                bits -> builder.withClaim(PERMISSION_BITS_CLAIM, bits),
+                () -> builder.withClaim(PERMISSIONS_CLAIM, permissions));
+
+        return builder
                 .withIssuedAt(new Date())
                 .withExpiresAt(new Date(System.currentTimeMillis() + expirationTimeInMillis))
                 .sign(algorithm);
@@ -55,17 +105,33 @@ public class JwtUtils {
 
     public DecodedJWT validateToken(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(privateKey);
-            JWTVerifier verifier = JWT.require(algorithm)
-                    .withIssuer(this.userGenerator)
-                    .build();
-            return verifier.verify(token);
+            return verifier().verify(token);
         } catch (JWTVerificationException e) {
             log.error("Error al validar el token JWT: {}", e.getMessage());
             throw new JWTVerificationException("Token inválido o expirado. No autorizado.");
         }
     }
 
+    private Algorithm algorithm() {
+        Algorithm current = this.algorithm;
+        if (current == null) {
+            current = jwtSigningKeys.asymmetricAlgorithm().orElseGet(() -> Algorithm.HMAC256(privateKey));
+            this.algorithm = current;
+        }
+        return current;
+    }
+
+    private JWTVerifier verifier() {
+        JWTVerifier current = this.verifier;
+        if (current == null) {
+            current = JWT.require(algorithm())
+                    .withIssuer(this.userGenerator)
+                    .build();
+            this.verifier = current;
+        }
+        return current;
+    }
+
     public String extractUsername(DecodedJWT decodedJWT) {
         return decodedJWT.getSubject();
     }
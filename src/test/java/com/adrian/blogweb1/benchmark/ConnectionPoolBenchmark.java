@@ -0,0 +1,87 @@
+package com.adrian.blogweb1.benchmark;
+
+import com.adrian.blogweb1.security.config.HikariPoolPostProcessor;
+import com.adrian.blogweb1.security.config.props.DataSourcePoolProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Prueba de carga del pool: 32 peticiones concurrentes que retienen la conexión durante holdMicros
+ * (latencia simulada de la consulta) contra H2 en memoria, con distintos database.pool.maximum-pool-size.
+ * En modo SampleTime JMH informa p50/p99: con el pool por debajo de la concurrencia, el p99 lo domina
+ * la espera en el pool (hikaricp.connections.acquire), no la consulta.
+ *
+ * Ejecución (no forma parte de "mvn test"):
+ *   mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.adrian.blogweb1.benchmark.ConnectionPoolBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+    @Param({"4", "8", "16", "32"})
+    public int poolSize;
+
+    @Param({"2000"})
+    public long holdMicros;
+
+    private HikariDataSource dataSource;
+
+    @Setup
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:poolbench;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        HikariPoolPostProcessor.apply(dataSource, new DataSourcePoolProperties("benchmark-pool", poolSize, poolSize,
+                30000, 600000, 1800000, 0, 5, 256, 5));
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int query() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT 1")) {
+            resultSet.next();
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(holdMicros));
+            return resultSet.getInt(1);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConnectionPoolBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
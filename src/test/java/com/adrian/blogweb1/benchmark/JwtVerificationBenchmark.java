@@ -0,0 +1,118 @@
+package com.adrian.blogweb1.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de verificar un JWT según el algoritmo de firma: HS256 (modo por defecto) frente a RS256 y ES256.
+ * También mide el coste de reconstruir el verificador en cada petición, como hacía JwtUtils antes de cachearlo.
+ *
+ * Ejecución (no forma parte de "mvn test"):
+ *   mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.adrian.blogweb1.benchmark.JwtVerificationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String ISSUER = "BENCHMARK";
+    private static final String HMAC_SECRET = "clave-secreta-de-benchmark-suficientemente-larga-para-hs256";
+
+    private JWTVerifier hmacVerifier;
+    private JWTVerifier rsaVerifier;
+    private JWTVerifier ecVerifier;
+
+    private String hmacToken;
+    private String rsaToken;
+    private String ecToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        Algorithm hmac = Algorithm.HMAC256(HMAC_SECRET);
+
+        KeyPairGenerator rsaGenerator = KeyPairGenerator.getInstance("RSA");
+        rsaGenerator.initialize(2048);
+        KeyPair rsaPair = rsaGenerator.generateKeyPair();
+        Algorithm rsa = Algorithm.RSA256((RSAPublicKey) rsaPair.getPublic(), (RSAPrivateKey) rsaPair.getPrivate());
+
+        KeyPairGenerator ecGenerator = KeyPairGenerator.getInstance("EC");
+        ecGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair ecPair = ecGenerator.generateKeyPair();
+        Algorithm ec = Algorithm.ECDSA256((ECPublicKey) ecPair.getPublic(), (ECPrivateKey) ecPair.getPrivate());
+
+        hmacToken = sign(hmac);
+        rsaToken = sign(rsa);
+        ecToken = sign(ec);
+
+        hmacVerifier = JWT.require(hmac).withIssuer(ISSUER).build();
+        rsaVerifier = JWT.require(rsa).withIssuer(ISSUER).build();
+        ecVerifier = JWT.require(ec).withIssuer(ISSUER).build();
+    }
+
+    private static String sign(Algorithm algorithm) {
+        return JWT.create()
+                .withIssuer(ISSUER)
+                .withSubject("benchmark-user")
+                .withClaim("roles", List.of("USER"))
+                .withClaim("perm_bits", "Dw")
+                .withIssuedAt(new Date())
+                .withExpiresAt(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .sign(algorithm);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyHs256() {
+        return hmacVerifier.verify(hmacToken);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyHs256RebuildingVerifier() {
+        return JWT.require(Algorithm.HMAC256(HMAC_SECRET)).withIssuer(ISSUER).build().verify(hmacToken);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyRs256() {
+        return rsaVerifier.verify(rsaToken);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyEs256() {
+        return ecVerifier.verify(ecToken);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,72 @@
+package com.adrian.blogweb1.benchmark;
+
+import com.adrian.blogweb1.security.config.PasswordEncoderFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de verificar una contraseña en el login (PasswordEncoder.matches) por algoritmo y coste.
+ * Sirve para elegir security.password.* o contrastar lo que elige la calibración al arrancar.
+ *
+ * Ejecución (no forma parte de "mvn test"):
+ *   mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.adrian.blogweb1.benchmark.PasswordHashingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "Contraseña-de-benchmark-123";
+
+    // algoritmo:coste. Argon2 = memoria en KiB/iteraciones.
+    @Param({"bcrypt:10", "bcrypt:12", "argon2:16384/2", "argon2:65536/3", "pbkdf2:310000", "pbkdf2:600000"})
+    public String config;
+
+    private PasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        String[] parts = config.split(":");
+        encoder = switch (parts[0]) {
+            case "bcrypt" -> PasswordEncoderFactory.bcrypt(Integer.parseInt(parts[1]));
+            case "argon2" -> {
+                String[] argon2 = parts[1].split("/");
+                yield PasswordEncoderFactory.argon2(Integer.parseInt(argon2[0]), Integer.parseInt(argon2[1]), 1);
+            }
+            case "pbkdf2" -> PasswordEncoderFactory.pbkdf2(Integer.parseInt(parts[1]));
+            default -> throw new IllegalArgumentException("Configuración desconocida: " + config);
+        };
+        hash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordHashingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,139 @@
+package com.adrian.blogweb1.benchmark;
+
+import com.adrian.blogweb1.dto.PostResponseDTO;
+import com.adrian.blogweb1.security.config.beanconfig.JacksonConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Coste de serializar GET /api/posts con 1k y 10k posts: ObjectMapper por defecto frente a Blackbird,
+ * y respuesta completa frente a ?fields=idPost,title,createdAt,authorName.
+ * Antes de medir imprime los bytes en la red de cada variante, sin comprimir y con gzip.
+ *
+ * Ejecución (no forma parte de "mvn test"):
+ *   mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.adrian.blogweb1.benchmark.PostSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostSerializationBenchmark {
+
+    private static final Set<String> LIST_FIELDS = Set.of("idPost", "title", "createdAt", "authorName");
+
+    @Param({"1000", "10000"})
+    private int posts;
+
+    private List<PostResponseDTO> payload;
+    private ObjectWriter defaultWriter;
+    private ObjectWriter blackbirdWriter;
+    private ObjectWriter sparseWriter;
+
+    @Setup
+    public void setUp() {
+        payload = samplePosts(posts);
+        defaultWriter = mapper(false).writer();
+        ObjectMapper blackbird = mapper(true);
+        blackbirdWriter = blackbird.writer();
+        sparseWriter = blackbird.writer(new SimpleFilterProvider().addFilter(JacksonConfig.SPARSE_FIELDS_FILTER,
+                SimpleBeanPropertyFilter.filterOutAllExcept(LIST_FIELDS)));
+    }
+
+    @Benchmark
+    public byte[] fullDefaultMapper() throws IOException {
+        return defaultWriter.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public byte[] fullBlackbird() throws IOException {
+        return blackbirdWriter.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public byte[] sparseBlackbird() throws IOException {
+        return sparseWriter.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public byte[] sparseBlackbirdGzip() throws IOException {
+        return gzip(sparseWriter.writeValueAsBytes(payload));
+    }
+
+    // Mismo ObjectMapper que construye Spring Boot con JacksonConfig, con o sin el módulo Blackbird.
+    private static ObjectMapper mapper(boolean withBlackbird) {
+        JacksonConfig config = new JacksonConfig();
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        config.sparseFieldsCustomizer().customize(builder);
+        if (withBlackbird) {
+            builder.modulesToInstall(config.blackbirdModule());
+        }
+        return builder.build();
+    }
+
+    private static List<PostResponseDTO> samplePosts(int count) {
+        String content = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(35).substring(0, 2000);
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 10, 0);
+        List<PostResponseDTO> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(new PostResponseDTO((long) i, "Post número " + i, content, createdAt.plusMinutes(i), "Autor " + (i % 50)));
+        }
+        return result;
+    }
+
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(raw.length / 4);
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(raw);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static void printWireSizes() throws IOException {
+        for (int count : new int[]{1000, 10000}) {
+            PostSerializationBenchmark benchmark = new PostSerializationBenchmark();
+            benchmark.posts = count;
+            benchmark.setUp();
+            byte[] full = benchmark.fullBlackbird();
+            byte[] sparse = benchmark.sparseBlackbird();
+            System.out.printf("%d posts -> completo: %d B (gzip %d B) | fields: %d B (gzip %d B)%n",
+                    count, full.length, gzip(full).length, sparse.length, gzip(sparse).length);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        printWireSizes();
+        new Runner(new OptionsBuilder()
+                .include(PostSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
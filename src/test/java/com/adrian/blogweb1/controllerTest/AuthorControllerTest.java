@@ -3,7 +3,9 @@ package com.adrian.blogweb1.controllerTest;
 import com.adrian.blogweb1.controller.AuthorController;
 import com.adrian.blogweb1.dto.AuthorCreateRequestDTO;
 import com.adrian.blogweb1.dto.AuthorDTO;
+import com.adrian.blogweb1.dto.AuthorImportSummaryDTO;
 import com.adrian.blogweb1.dto.AuthorUpdateRequestDTO;
+import com.adrian.blogweb1.service.IAuthorImportService;
 import com.adrian.blogweb1.service.IAuthorService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
@@ -47,6 +49,9 @@ class AuthorControllerTest {
     @MockBean
     private IAuthorService authorService;
 
+    @MockBean
+    private IAuthorImportService authorImportService;
+
     @Test
     @DisplayName("GET /api/authors - Debería devolver una lista de autores")
     // 4. Usamos @WithMockUser para simular un usuario y evitar errores de seguridad básicos.
@@ -172,4 +177,23 @@ class AuthorControllerTest {
                         .with(csrf()))
                 .andExpect(status().isNoContent());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("POST /api/authors/bulk - Debería devolver el resumen de la importación")
+    @WithMockUser(authorities = "CREATE")
+    void importAuthors_ShouldReturnSummary() throws Exception {
+        // Arrange
+        when(authorImportService.importAuthors(any()))
+                .thenReturn(new AuthorImportSummaryDTO(3, 2, 1, 0, List.of()));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/authors/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"externalId\":\"a\",\"name\":\"A\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", is(3)))
+                .andExpect(jsonPath("$.upserted", is(2)))
+                .andExpect(jsonPath("$.duplicates", is(1)));
+    }
+}
@@ -0,0 +1,52 @@
+package com.adrian.blogweb1.controllerTest;
+
+import com.adrian.blogweb1.controller.JwksController;
+import com.adrian.blogweb1.security.config.JwtSigningKeys;
+import com.adrian.blogweb1.security.config.props.JwtSigningProperties;
+import com.adrian.blogweb1.security.config.props.JwtSigningProperties.Mode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwksControllerTest {
+
+    @Test
+    @DisplayName("GET /.well-known/jwks.json debería devolver las claves con cabeceras de caché públicas")
+    void jwks_InRsaMode_ShouldReturnCacheableKeys() {
+        // --- 1. Arrange ---
+        JwtSigningProperties properties = new JwtSigningProperties(Mode.RSA, "classpath:jwt-rsa-test.p12",
+                "changeit", "PKCS12", "jwt", 600);
+        JwtSigningKeys keys = new JwtSigningKeys(properties, new DefaultResourceLoader());
+        JwksController controller = new JwksController(keys, properties);
+
+        // --- 2. Act ---
+        ResponseEntity<Map<String, Object>> respuesta = controller.jwks();
+
+        // --- 3. Assert ---
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(respuesta.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=600, public");
+        assertThat(respuesta.getHeaders().getETag()).contains(keys.keyId());
+        assertThat(respuesta.getBody()).containsKey("keys");
+    }
+
+    @Test
+    @DisplayName("GET /.well-known/jwks.json debería devolver 404 en modo HMAC")
+    void jwks_InHmacMode_ShouldReturnNotFound() {
+        // --- 1. Arrange ---
+        JwtSigningProperties properties = new JwtSigningProperties(Mode.HMAC, null, null, "PKCS12", "jwt", 3600);
+        JwksController controller = new JwksController(new JwtSigningKeys(properties, new DefaultResourceLoader()), properties);
+
+        // --- 2. Act ---
+        ResponseEntity<Map<String, Object>> respuesta = controller.jwks();
+
+        // --- 3. Assert ---
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
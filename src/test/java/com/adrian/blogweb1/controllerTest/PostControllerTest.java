@@ -6,14 +6,23 @@ import com.adrian.blogweb1.dto.PostUpdateRequestDTO;
 import com.adrian.blogweb1.model.Author;
 import com.adrian.blogweb1.model.Post;
 import com.adrian.blogweb1.dto.PostResponseDTO;
+import com.adrian.blogweb1.dto.PostSummaryDTO;
+import com.adrian.blogweb1.dto.PostViewCountDTO;
+import com.adrian.blogweb1.dto.TrendingPostDTO;
 import com.adrian.blogweb1.repository.IAuthorRepository;
+import com.adrian.blogweb1.security.config.beanconfig.JacksonConfig;
 import com.adrian.blogweb1.service.IPostService;
+import com.adrian.blogweb1.service.IPostStreamService;
+import com.adrian.blogweb1.service.IPostChangeService;
+import com.adrian.blogweb1.service.IPostViewService;
+import com.adrian.blogweb1.service.ITrendingPostsService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -40,6 +49,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 // Deshabilitamos los filtros de seguridad para que los tests sean rápidos.
 @WebMvcTest(PostController.class)
 @org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc(addFilters = false)
+@Import(JacksonConfig.class)
 class PostControllerTest {
 
     @Autowired
@@ -55,15 +65,26 @@ class PostControllerTest {
     @MockBean
     private IAuthorRepository authorRepository;
 
+    @MockBean
+    private IPostViewService postViewService;
+
+    @MockBean
+    private ITrendingPostsService trendingPostsService;
+
+    @MockBean
+    private IPostChangeService postChangeService;
+
+    @MockBean
+    private IPostStreamService postStreamService;
+
 
     @Test
     @DisplayName("GET /api/posts - Debería devolver una lista de posts")
     @WithMockUser
     void getAllPosts_ShouldReturnPostList() throws Exception {
         // Arrange: Preparamos la respuesta que el mock del servicio debe devolver.
-        // Usamos el DTO correcto: PostResponseDTO. Asumimos que tiene un campo 'title'.
-        PostResponseDTO post1 = new PostResponseDTO();
-        post1.setTitle("Mi Primer Post");
+        // El listado devuelve PostSummaryDTO (extracto en lugar del contenido completo).
+        PostSummaryDTO post1 = new PostSummaryDTO(1L, "Mi Primer Post", "Extracto", LocalDateTime.now(), "Autor");
 
         // Asumimos que tu servicio devuelve una lista de PostResponseDTO.
         when(postService.getPosts()).thenReturn(List.of(post1));
@@ -74,6 +95,23 @@ class PostControllerTest {
                 .andExpect(jsonPath("$[0].title").value("Mi Primer Post"));
     }
 
+    @Test
+    @DisplayName("GET /api/posts?fields=... - Debería devolver solo los campos pedidos")
+    @WithMockUser
+    void getAllPosts_WithFields_ShouldReturnSparseFieldset() throws Exception {
+        // Arrange
+        PostSummaryDTO post = new PostSummaryDTO(1L, "Título", "Extracto", LocalDateTime.now(), "Autor");
+        when(postService.getPosts()).thenReturn(List.of(post));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/posts").param("fields", "idPost,title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].idPost").value(1))
+                .andExpect(jsonPath("$[0].title").value("Título"))
+                .andExpect(jsonPath("$[0].excerpt").doesNotExist())
+                .andExpect(jsonPath("$[0].authorName").doesNotExist());
+    }
+
     @Test
     @DisplayName("POST /api/posts - Debería crear un nuevo post y devolverlo")
     @WithMockUser
@@ -131,6 +169,35 @@ class PostControllerTest {
                 .andExpect(jsonPath("$.title").value("Post Individual"));
     }
 
+    @Test
+    @DisplayName("GET /api/posts/most-viewed - Debería devolver el ranking desde la columna agregada")
+    @WithMockUser
+    void getMostViewedPosts_ShouldReturnRanking() throws Exception {
+        // Arrange
+        when(postViewService.getMostViewed(5)).thenReturn(List.of(new PostViewCountDTO(7L, "Popular", "Autor", 42L)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/posts/most-viewed").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].idPost").value(7))
+                .andExpect(jsonPath("$[0].viewCount").value(42));
+        verify(postService, never()).getPostById(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/posts/trending - Debería devolver el snapshot de tendencias")
+    @WithMockUser
+    void getTrendingPosts_ShouldReturnSnapshot() throws Exception {
+        // Arrange
+        when(trendingPostsService.getTrending()).thenReturn(List.of(new TrendingPostDTO(3L, "En tendencia", "Autor", 12.5)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/posts/trending"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].idPost").value(3))
+                .andExpect(jsonPath("$[0].score").value(12.5));
+    }
+
     @Test
     @DisplayName("GET /api/posts/{id} - Debería devolver 404 si el post no existe")
     @WithMockUser
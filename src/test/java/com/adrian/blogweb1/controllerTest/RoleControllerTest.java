@@ -21,6 +21,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -140,7 +141,7 @@ class RoleControllerTest {
         rolGuardado.setRole("ROLE_MODERATOR");
         rolGuardado.setPermissionsList(Collections.singleton(readPermission));
 
-        when(permissionService.findById(1L)).thenReturn(Optional.of(readPermission));
+        when(permissionService.findAllByIds(Set.of(1L))).thenReturn(Set.of(readPermission));
         when(roleService.save(any(Role.class))).thenReturn(rolGuardado);
 
         // --- 2. Act & 3. Assert ---
@@ -153,6 +154,31 @@ class RoleControllerTest {
                 .andExpect(jsonPath("$.permissionsList[0].permissionName", is("READ")));
     }
 
+    @Test
+    @DisplayName("POST /api/roles - Debería devolver 404 si algún permiso no existe")
+    @WithMockUser(authorities = "CREATE")
+    void createRole_WithMissingPermission_ShouldReturnNotFound() throws Exception {
+        // --- 1. Arrange ---
+        Permission missingPermission = new Permission();
+        missingPermission.setIdPermission(42L);
+
+        Role rolAEnviar = new Role();
+        rolAEnviar.setRole("ROLE_MODERATOR");
+        rolAEnviar.setPermissionsList(Collections.singleton(missingPermission));
+
+        when(permissionService.findAllByIds(Set.of(42L)))
+                .thenThrow(new ResourceNotFoundException("Permisos no encontrados con ID: [42]"));
+
+        // --- 2. Act & 3. Assert ---
+        mockMvc.perform(post("/api/roles")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rolAEnviar)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message", is("Permisos no encontrados con ID: [42]")));
+        verify(roleService, never()).save(any(Role.class));
+    }
+
     @Test
     @DisplayName("DELETE /api/roles/{id} - Debería devolver 200 OK cuando se elimina un rol existente")
     @WithMockUser(authorities = "DELETE")
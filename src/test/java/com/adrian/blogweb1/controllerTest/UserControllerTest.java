@@ -1,10 +1,14 @@
 package com.adrian.blogweb1.controllerTest;
 
 import com.adrian.blogweb1.controller.UserController;
+import com.adrian.blogweb1.dto.UserBatchErrorDTO;
+import com.adrian.blogweb1.dto.UserBatchResultDTO;
+import com.adrian.blogweb1.dto.UserProvisionRowDTO;
 import com.adrian.blogweb1.exception.ResourceNotFoundException;
 import com.adrian.blogweb1.model.Role;
 import com.adrian.blogweb1.model.UserSec;
 import com.adrian.blogweb1.service.IRoleService;
+import com.adrian.blogweb1.service.IUserProvisioningService;
 import com.adrian.blogweb1.service.IUserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -35,6 +39,9 @@ class UserControllerTest {
     @Mock
     private IRoleService roleService;
 
+    @Mock
+    private IUserProvisioningService userProvisioningService;
+
     // Creamos una instancia real del controlador
     @InjectMocks
     private UserController userController;
@@ -371,4 +378,23 @@ class UserControllerTest {
         Map<String, String> responseBody = (Map<String, String>) respuesta.getBody();
         assertThat(responseBody.get("message")).isEqualTo("Error al eliminar el usuario");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Debería devolver 200 OK con el resumen del alta masiva y los errores por fila")
+    void createUsersBatch_ShouldReturnSummary() {
+        // --- 1. Arrange ---
+        List<UserProvisionRowDTO> filas = List.of(
+                new UserProvisionRowDTO("ana", "ana@test.com", "secreto", Set.of(1L)),
+                new UserProvisionRowDTO("", null, "secreto", Set.of(1L)));
+        UserBatchResultDTO resumen = new UserBatchResultDTO(2, 1,
+                List.of(new UserBatchErrorDTO(1, "", "El campo 'username' no puede estar vacío")));
+        when(userProvisioningService.provision(filas)).thenReturn(resumen);
+
+        // --- 2. Act ---
+        ResponseEntity<UserBatchResultDTO> respuesta = userController.createUsersBatch(filas);
+
+        // --- 3. Assert ---
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(respuesta.getBody()).isEqualTo(resumen);
+    }
+}
@@ -6,12 +6,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -31,6 +33,11 @@ class ExceptionTestController {
         throw new AccessDeniedException("Test access denied");
     }
 
+    @GetMapping("/test/response-status")
+    public void throwResponseStatus() {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Test bad request");
+    }
+
     @GetMapping("/test/generic-error")
     public void throwGenericError() {
         throw new RuntimeException("Test generic error");
@@ -72,6 +79,17 @@ class GlobalExceptionHandlerTest {
                 .andExpect(jsonPath("$.message", is("Acceso denegado. No tienes los permisos necesarios.")));
     }
 
+    @Test
+    @DisplayName("Debería respetar el código de una ResponseStatusException en lugar de devolver 500")
+    @WithMockUser
+    void handleResponseStatusException_ShouldKeepStatusCode() throws Exception {
+        mockMvc.perform(get("/test/response-status"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status", is("error")))
+                .andExpect(jsonPath("$.message", is("Test bad request")));
+    }
+
     @Test
     @DisplayName("Debería manejar una excepción genérica y devolver 500 Internal Server Error")
     @WithMockUser
@@ -0,0 +1,94 @@
+package com.adrian.blogweb1.integrationTest;
+
+import com.adrian.blogweb1.Blogweb1Application;
+import com.adrian.blogweb1.security.config.UnknownUsernameCache;
+import com.adrian.blogweb1.security.config.UserDetailsCache;
+import com.adrian.blogweb1.service.ICacheInvalidationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dos nodos (dos contextos de Spring en la misma JVM) contra la misma base de datos H2 embebida.
+ * H2 no tiene LISTEN/NOTIFY, así que se ejercita el transporte por tabla con sondeo manual.
+ */
+class CacheInvalidationMultiNodeTest {
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    @DisplayName("Una invalidación en un nodo debería vaciar las entradas correspondientes en el otro")
+    void evictOnOneNode_ShouldInvalidateOtherNode() {
+        // --- 1. Arrange ---
+        ICacheInvalidationService busB = nodeB.getBean(ICacheInvalidationService.class);
+        UserDetailsCache userDetailsCacheB = nodeB.getBean(UserDetailsCache.class);
+        UnknownUsernameCache unknownUsernameCacheB = nodeB.getBean(UnknownUsernameCache.class);
+
+        busB.poll(); // Fija el cursor del nodo B.
+        userDetailsCacheB.put(new User("ana", "{noop}secreto", List.of(new SimpleGrantedAuthority("READ"))));
+        unknownUsernameCacheB.markMissing("fantasma");
+
+        // --- 2. Act ---
+        nodeA.getBean(UserDetailsCache.class).evict("ana");
+        nodeA.getBean(UnknownUsernameCache.class).forget("fantasma");
+        busB.poll();
+
+        // --- 3. Assert ---
+        assertThat(userDetailsCacheB.get("ana")).isEmpty();
+        assertThat(unknownUsernameCacheB.isKnownMissing("fantasma")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Un nodo no debería reaplicar sus propias invalidaciones")
+    void ownMessages_ShouldBeIgnored() {
+        // --- 1. Arrange ---
+        ICacheInvalidationService busA = nodeA.getBean(ICacheInvalidationService.class);
+        UserDetailsCache userDetailsCacheA = nodeA.getBean(UserDetailsCache.class);
+        busA.poll();
+        nodeA.getBean(UserDetailsCache.class).evict("ana");
+
+        // La entrada se vuelve a cachear después de publicar; el eco del propio mensaje no debe borrarla.
+        userDetailsCacheA.put(new User("ana", "{noop}secreto", List.of()));
+
+        // --- 2. Act ---
+        busA.poll();
+
+        // --- 3. Assert ---
+        assertThat(userDetailsCacheA.get("ana")).isPresent();
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(Blogweb1Application.class)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:cachebus;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "server.port=0",
+                        "cache.invalidation.transport=TABLE",
+                        // El sondeo se hace a mano en el test.
+                        "cache.invalidation.poll-interval-ms=3600000")
+                .run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.adrian.blogweb1.repositoryTest;
+
+import com.adrian.blogweb1.model.Author;
+import com.adrian.blogweb1.model.Post;
+import com.adrian.blogweb1.model.PostOutboxEvent;
+import com.adrian.blogweb1.model.PostOutboxEvent.EventType;
+import com.adrian.blogweb1.repository.IAuthorRepository;
+import com.adrian.blogweb1.repository.IPostOutboxRepository;
+import com.adrian.blogweb1.repository.IPostRepository;
+import com.adrian.blogweb1.service.AuthorService;
+import com.adrian.blogweb1.service.ICacheInvalidationService;
+import com.adrian.blogweb1.service.IPostEventSink;
+import com.adrian.blogweb1.service.IPostViewService;
+import com.adrian.blogweb1.service.ITrendingPostsService;
+import com.adrian.blogweb1.service.PostChangeService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.time.Clock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+// Prueba el borrado masivo real contra H2: DELETE por conjunto de ids y eventos DELETED insertados con INSERT ... SELECT.
+@DataJpaTest
+@Import({AuthorService.class, PostChangeService.class, AuthorDeletionRepositoryTest.ClockConfig.class})
+class AuthorDeletionRepositoryTest {
+
+    @TestConfiguration
+    static class ClockConfig {
+        @Bean
+        Clock clock() {
+            return Clock.systemUTC();
+        }
+    }
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private IAuthorRepository authorRepository;
+
+    @Autowired
+    private IPostRepository postRepository;
+
+    @Autowired
+    private IPostOutboxRepository outboxRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private IPostViewService postViewService;
+
+    @MockBean
+    private ITrendingPostsService trendingPostsService;
+
+    @MockBean
+    private IPostEventSink postEventSink;
+
+    @MockBean
+    private ICacheInvalidationService cacheInvalidationService;
+
+    @Test
+    @DisplayName("Eliminar un autor debería borrar sus posts y registrar un evento DELETED por cada uno")
+    void deleteAuthor_ShouldDeletePostsAndRecordEvents() {
+        // --- 1. Arrange ---
+        Author author = savedAuthor("Prolífico");
+        Author other = savedAuthor("Otro");
+        Post first = savedPost(author, "Uno");
+        Post second = savedPost(author, "Dos");
+        Post kept = savedPost(other, "Se queda");
+        entityManager.flush();
+        entityManager.clear();
+
+        // --- 2. Act ---
+        authorService.deleteAuthor(author.getIdAuthor());
+        entityManager.clear();
+
+        // --- 3. Assert ---
+        assertThat(authorRepository.existsById(author.getIdAuthor())).isFalse();
+        assertThat(postRepository.findAll()).extracting(Post::getIdPost).containsExactly(kept.getIdPost());
+        assertThat(outboxRepository.findAll())
+                .allMatch(event -> event.getType() == EventType.DELETED && event.getOccurredAt() != null)
+                .extracting(PostOutboxEvent::getPostId)
+                .containsExactly(first.getIdPost(), second.getIdPost());
+        verify(postViewService).forget(first.getIdPost());
+        verify(trendingPostsService).forget(second.getIdPost());
+    }
+
+    private Author savedAuthor(String name) {
+        Author author = new Author();
+        author.setName(name);
+        return authorRepository.save(author);
+    }
+
+    private Post savedPost(Author author, String title) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent("Contenido de " + title);
+        post.setAuthor(author);
+        return postRepository.save(post);
+    }
+}
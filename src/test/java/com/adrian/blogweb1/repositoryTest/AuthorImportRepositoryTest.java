@@ -0,0 +1,118 @@
+package com.adrian.blogweb1.repositoryTest;
+
+import com.adrian.blogweb1.dto.AuthorImportSummaryDTO;
+import com.adrian.blogweb1.model.Author;
+import com.adrian.blogweb1.repository.IAuthorRepository;
+import com.adrian.blogweb1.service.AuthorImportService;
+import com.adrian.blogweb1.utils.DatabasePlatform;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Prueba el upsert real contra H2 (ruta MERGE ... KEY) con lotes pequeños para cruzar varias transacciones.
+@DataJpaTest
+@Import(DatabasePlatform.class)
+class AuthorImportRepositoryTest {
+
+    @Autowired
+    private IAuthorRepository authorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    private AuthorImportService newService(int batchSize) {
+        return new AuthorImportService(new ObjectMapper(), jdbcTemplate, databasePlatform, transactionManager, batchSize);
+    }
+
+    @Test
+    @DisplayName("La importación debería insertar, actualizar por externalId y colapsar duplicados del lote")
+    void importAuthors_ShouldUpsertByExternalId() {
+        // --- 1. Arrange ---
+        Author existing = new Author();
+        existing.setName("Nombre antiguo");
+        existing.setExternalId("ext-1");
+        authorRepository.saveAndFlush(existing);
+
+        String body = """
+                [
+                  {"externalId": "ext-1", "name": "Nombre nuevo"},
+                  {"externalId": "ext-2", "name": "Borrador"},
+                  {"externalId": "ext-2", "name": "Definitivo"},
+                  {"externalId": "ext-3", "name": "Tercero"},
+                  {"externalId": "ext-1", "name": "Nombre final"}
+                ]
+                """;
+
+        // --- 2. Act ---
+        AuthorImportSummaryDTO summary = newService(3).importAuthors(stream(body));
+
+        // --- 3. Assert ---
+        // ext-2 se repite dentro del primer lote; ext-1 vuelve en el segundo y lo resuelve el upsert.
+        assertThat(summary.received()).isEqualTo(5);
+        assertThat(summary.duplicates()).isEqualTo(1);
+        assertThat(summary.upserted()).isEqualTo(4);
+        assertThat(summary.rejected()).isZero();
+        assertThat(nameOf("ext-1")).isEqualTo("Nombre final");
+        assertThat(nameOf("ext-2")).isEqualTo("Definitivo");
+        assertThat(nameOf("ext-3")).isEqualTo("Tercero");
+        assertThat(authorRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Las filas inválidas deberían rechazarse sin abortar el resto de la importación")
+    void importAuthors_WithInvalidRows_ShouldRejectThem() {
+        // --- 1. Arrange ---
+        String body = """
+                [{"externalId": "ok", "name": "Válido"}, {"name": "Sin clave"}, {"externalId": "x", "name": " "}, 42]
+                """;
+
+        // --- 2. Act ---
+        AuthorImportSummaryDTO summary = newService(100).importAuthors(stream(body));
+
+        // --- 3. Assert ---
+        assertThat(summary.received()).isEqualTo(4);
+        assertThat(summary.upserted()).isEqualTo(1);
+        assertThat(summary.rejected()).isEqualTo(3);
+        assertThat(summary.errors()).containsExactly(
+                "fila 2: externalId es obligatorio", "fila 3: name es obligatorio", "fila 4: externalId es obligatorio");
+        assertThat(nameOf("ok")).isEqualTo("Válido");
+    }
+
+    @Test
+    @DisplayName("Un cuerpo que no es un array JSON debería devolver 400")
+    void importAuthors_WithMalformedBody_ShouldThrowBadRequest() {
+        assertThatThrownBy(() -> newService(100).importAuthors(stream("{\"externalId\": \"a\"}")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> newService(100).importAuthors(stream("[{\"externalId\": ")))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    private String nameOf(String externalId) {
+        return jdbcTemplate.queryForObject("SELECT name FROM author WHERE external_id = ?", String.class, externalId);
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
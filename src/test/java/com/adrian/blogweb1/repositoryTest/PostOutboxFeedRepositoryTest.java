@@ -0,0 +1,96 @@
+package com.adrian.blogweb1.repositoryTest;
+
+import com.adrian.blogweb1.dto.PostChangeEventDTO;
+import com.adrian.blogweb1.dto.PostChangesDTO;
+import com.adrian.blogweb1.model.PostOutboxEvent;
+import com.adrian.blogweb1.model.PostOutboxEvent.EventType;
+import com.adrian.blogweb1.repository.IPostOutboxRepository;
+import com.adrian.blogweb1.service.IPostEventSink;
+import com.adrian.blogweb1.service.PostChangeService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Prueba contra H2 la numeración del feed que hace el relay y que la purga no reinicia la secuencia.
+@DataJpaTest
+@Import({PostChangeService.class, PostOutboxFeedRepositoryTest.ClockConfig.class})
+class PostOutboxFeedRepositoryTest {
+
+    @TestConfiguration
+    static class ClockConfig {
+        @Bean
+        Clock clock() {
+            return Clock.systemUTC();
+        }
+    }
+
+    @Autowired
+    private PostChangeService postChangeService;
+
+    @Autowired
+    private IPostOutboxRepository outboxRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private IPostEventSink postEventSink;
+
+    @Test
+    @DisplayName("El feed solo debería servir eventos numerados por el relay y continuar desde nextSince")
+    void getChanges_ShouldPageOnRelaySequence() {
+        // --- 1. Arrange ---
+        postChangeService.record(EventType.CREATED, 10L, "Uno");
+        postChangeService.record(EventType.UPDATED, 10L, "Uno editado");
+        entityManager.flush();
+        assertThat(postChangeService.getChanges(0, 100).events()).isEmpty();
+
+        // --- 2. Act ---
+        postChangeService.relay();
+        PostChangesDTO firstPage = postChangeService.getChanges(0, 100);
+        postChangeService.record(EventType.DELETED, 10L, null);
+        postChangeService.relay();
+        PostChangesDTO secondPage = postChangeService.getChanges(firstPage.nextSince(), 100);
+
+        // --- 3. Assert ---
+        assertThat(firstPage.events()).extracting(PostChangeEventDTO::type).containsExactly("CREATED", "UPDATED");
+        assertThat(firstPage.nextSince()).isEqualTo(2L);
+        assertThat(secondPage.events()).extracting(PostChangeEventDTO::type).containsExactly("DELETED");
+        assertThat(secondPage.nextSince()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("La purga debería conservar el último evento numerado para que la secuencia no vuelva a empezar")
+    void purgePublished_ShouldKeepHighestSequence() {
+        // --- 1. Arrange ---
+        Instant old = Instant.now().minus(Duration.ofDays(30));
+        outboxRepository.save(new PostOutboxEvent(null, 10L, EventType.CREATED, "Uno", old, null, null));
+        outboxRepository.save(new PostOutboxEvent(null, 11L, EventType.CREATED, "Dos", old, null, null));
+        postChangeService.relay();
+        entityManager.flush();
+
+        // --- 2. Act ---
+        postChangeService.purgePublished();
+        entityManager.clear();
+        postChangeService.record(EventType.UPDATED, 11L, "Dos editado");
+        postChangeService.relay();
+        entityManager.flush();
+
+        // --- 3. Assert ---
+        assertThat(outboxRepository.findAll()).extracting(PostOutboxEvent::getFeedSequence).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(postChangeService.getChanges(2L, 100).events()).extracting(PostChangeEventDTO::title)
+                .containsExactly("Dos editado");
+    }
+}
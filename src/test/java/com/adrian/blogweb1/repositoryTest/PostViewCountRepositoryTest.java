@@ -0,0 +1,71 @@
+package com.adrian.blogweb1.repositoryTest;
+
+import com.adrian.blogweb1.dto.PostViewCountDTO;
+import com.adrian.blogweb1.model.Author;
+import com.adrian.blogweb1.model.Post;
+import com.adrian.blogweb1.repository.IAuthorRepository;
+import com.adrian.blogweb1.repository.IPostRepository;
+import com.adrian.blogweb1.service.PostViewService;
+import com.adrian.blogweb1.utils.DatabasePlatform;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Prueba el volcado real contra H2 (ruta de batch JDBC) y la consulta del ranking sobre la columna agregada.
+@DataJpaTest
+@Import({PostViewService.class, DatabasePlatform.class})
+class PostViewCountRepositoryTest {
+
+    @Autowired
+    private IPostRepository postRepository;
+
+    @Autowired
+    private IAuthorRepository authorRepository;
+
+    @Autowired
+    private PostViewService postViewService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Las visitas volcadas deberían reflejarse en el ranking de más vistos")
+    void flush_ShouldUpdateViewCountColumn() {
+        // --- 1. Arrange ---
+        Author author = new Author();
+        author.setName("Autor");
+        authorRepository.save(author);
+        Post quiet = savePost(author, "Poco visto");
+        Post popular = savePost(author, "Muy visto");
+        postRepository.flush();
+
+        postViewService.recordView(popular.getIdPost());
+        postViewService.recordView(popular.getIdPost());
+        postViewService.recordView(quiet.getIdPost());
+
+        // --- 2. Act ---
+        postViewService.flush();
+        List<PostViewCountDTO> ranking = postViewService.getMostViewed(10);
+
+        // --- 3. Assert ---
+        assertThat(ranking).extracting(PostViewCountDTO::title).containsExactly("Muy visto", "Poco visto");
+        assertThat(ranking.get(0).viewCount()).isEqualTo(2L);
+        assertThat(jdbcTemplate.queryForObject("SELECT view_count FROM post WHERE id_post = ?", Long.class,
+                quiet.getIdPost())).isEqualTo(1L);
+    }
+
+    private Post savePost(Author author, String title) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent("Contenido");
+        post.setAuthor(author);
+        return postRepository.save(post);
+    }
+}
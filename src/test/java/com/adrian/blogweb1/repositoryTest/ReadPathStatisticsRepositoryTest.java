@@ -0,0 +1,136 @@
+package com.adrian.blogweb1.repositoryTest;
+
+import com.adrian.blogweb1.dto.AuthorDTO;
+import com.adrian.blogweb1.dto.PostResponseDTO;
+import com.adrian.blogweb1.dto.PostSummaryDTO;
+import com.adrian.blogweb1.model.Author;
+import com.adrian.blogweb1.model.Post;
+import com.adrian.blogweb1.repository.IAuthorRepository;
+import com.adrian.blogweb1.repository.IPostRepository;
+import com.adrian.blogweb1.service.AuthorService;
+import com.adrian.blogweb1.service.ICacheInvalidationService;
+import com.adrian.blogweb1.service.IPostChangeService;
+import com.adrian.blogweb1.service.IPostViewService;
+import com.adrian.blogweb1.service.ITrendingPostsService;
+import com.adrian.blogweb1.service.PostService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+
+// Sin la transacción envolvente de @DataJpaTest: cada lectura del servicio abre la suya, de solo lectura.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({PostService.class, AuthorService.class})
+class ReadPathStatisticsRepositoryTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private IAuthorRepository authorRepository;
+
+    @Autowired
+    private IPostRepository postRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private IPostViewService postViewService;
+
+    @MockBean
+    private ITrendingPostsService trendingPostsService;
+
+    @MockBean
+    private IPostChangeService postChangeService;
+
+    @MockBean
+    private ICacheInvalidationService cacheInvalidationService;
+
+    private Statistics statistics;
+    private Author author;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        author = new Author();
+        author.setName("Lectora");
+        author = authorRepository.save(author);
+
+        post = new Post();
+        post.setTitle("Solo lectura");
+        post.setContent("Contenido que no debería quedar en ningún snapshot");
+        post.setAuthor(author);
+        post = postRepository.save(post);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        postRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Las lecturas de posts no deberían cargar entidades ni hacer flush")
+    void postReads_ShouldNotLoadEntitiesOrFlush() {
+        // --- 1. Arrange ---
+        // Las proyecciones dejan la sesión vacía (no hay nada que volcar); además la transacción debe ser de solo lectura.
+        AtomicBoolean readOnly = new AtomicBoolean();
+        doAnswer(invocation -> {
+            readOnly.set(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return null;
+        }).when(postViewService).recordView(anyLong());
+
+        // --- 2. Act ---
+        List<PostSummaryDTO> summaries = postService.getPosts();
+        Optional<PostResponseDTO> detail = postService.getPostById(post.getIdPost());
+
+        // --- 3. Assert ---
+        assertThat(summaries).extracting(PostSummaryDTO::title).containsExactly("Solo lectura");
+        assertThat(detail).get().extracting(PostResponseDTO::getAuthorName).isEqualTo("Lectora");
+        assertThat(readOnly).isTrue();
+        assertThat(statistics.getFlushCount()).isZero();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Las lecturas de autores no deberían cargar entidades ni hacer flush")
+    void authorReads_ShouldNotLoadEntitiesOrFlush() {
+        // --- 2. Act ---
+        List<AuthorDTO> authors = authorService.getAuthorsDTO();
+        Optional<AuthorDTO> found = authorService.getAuthorByIdDTO(author.getIdAuthor());
+
+        // --- 3. Assert ---
+        assertThat(authors).extracting(AuthorDTO::getName).containsExactly("Lectora");
+        assertThat(found).get().extracting(AuthorDTO::getName).isEqualTo("Lectora");
+        assertThat(statistics.getFlushCount()).isZero();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,123 @@
+package com.adrian.blogweb1.repositoryTest;
+
+import com.adrian.blogweb1.dto.RoleEpochDTO;
+import com.adrian.blogweb1.model.Permission;
+import com.adrian.blogweb1.model.Role;
+import com.adrian.blogweb1.model.UserSec;
+import com.adrian.blogweb1.repository.IPermissionRepository;
+import com.adrian.blogweb1.repository.IRoleRepository;
+import com.adrian.blogweb1.repository.IUserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Prueba contra H2 los borrados masivos sobre las tablas de unión user_roles y roles_permissions.
+@DataJpaTest
+class RoleAssignmentRepositoryTest {
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private IRoleRepository roleRepository;
+
+    @Autowired
+    private IPermissionRepository permissionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("removeRoleFromAllUsers debería borrar solo las filas de user_roles del rol indicado")
+    void removeRoleFromAllUsers_ShouldDeleteOnlyThatRole() {
+        // --- 1. Arrange ---
+        Role user = savedRole("ROLE_USER", Set.of());
+        Role admin = savedRole("ROLE_ADMIN", Set.of());
+        savedUser("ana", Set.of(user, admin));
+        savedUser("luis", Set.of(user));
+        entityManager.flush();
+
+        // --- 2. Act ---
+        int removed = userRepository.removeRoleFromAllUsers(user.getIdRole());
+
+        // --- 3. Assert ---
+        assertThat(removed).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList("SELECT role_id FROM user_roles", Long.class))
+                .containsExactly(admin.getIdRole());
+    }
+
+    @Test
+    @DisplayName("Las épocas deberían subir solo en los roles con el permiso, antes de desasignarlo")
+    void bumpEpochsAndRemovePermission_ShouldAffectOnlyRolesWithPermission() {
+        // --- 1. Arrange ---
+        Permission delete = permissionRepository.save(new Permission("DELETE"));
+        Permission read = permissionRepository.save(new Permission("READ"));
+        Role admin = savedRole("ROLE_ADMIN", Set.of(delete, read));
+        Role reader = savedRole("ROLE_READER", Set.of(read));
+        entityManager.flush();
+
+        // --- 2. Act ---
+        int bumped = roleRepository.bumpEpochsByPermissionId(delete.getIdPermission());
+        List<RoleEpochDTO> epochs = roleRepository.findEpochsByPermissionId(delete.getIdPermission());
+        int removed = roleRepository.removePermissionFromAllRoles(delete.getIdPermission());
+
+        // --- 3. Assert ---
+        assertThat(bumped).isEqualTo(1);
+        assertThat(epochs).containsExactly(new RoleEpochDTO("ROLE_ADMIN", 1L));
+        assertThat(removed).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT authz_epoch FROM roles WHERE id_role = ?", Long.class,
+                reader.getIdRole())).isZero();
+        assertThat(jdbcTemplate.queryForList("SELECT permission_id FROM roles_permissions WHERE role_id = ?", Long.class,
+                admin.getIdRole())).containsExactly(read.getIdPermission());
+    }
+
+    @Test
+    @DisplayName("addPermissions y removePermissions deberían aplicar la diferencia con una sentencia cada uno")
+    void addAndRemovePermissions_ShouldApplyDiff() {
+        // --- 1. Arrange ---
+        Permission read = permissionRepository.save(new Permission("READ"));
+        Permission update = permissionRepository.save(new Permission("UPDATE"));
+        Permission delete = permissionRepository.save(new Permission("DELETE"));
+        Role editor = savedRole("ROLE_EDITOR", Set.of(read, delete));
+        entityManager.flush();
+
+        // --- 2. Act ---
+        int added = roleRepository.addPermissions(editor.getIdRole(), Set.of(update.getIdPermission()));
+        int removed = roleRepository.removePermissions(editor.getIdRole(), Set.of(delete.getIdPermission()));
+        roleRepository.bumpEpoch(editor.getIdRole());
+
+        // --- 3. Assert ---
+        assertThat(added).isEqualTo(1);
+        assertThat(removed).isEqualTo(1);
+        Role reloaded = roleRepository.findById(editor.getIdRole()).orElseThrow();
+        assertThat(reloaded.getPermissionsList()).extracting(Permission::getPermissionName)
+                .containsExactlyInAnyOrder("READ", "UPDATE");
+        assertThat(reloaded.getAuthzEpoch()).isEqualTo(1L);
+    }
+
+    private Role savedRole(String name, Set<Permission> permissions) {
+        Role role = new Role();
+        role.setRole(name);
+        role.getPermissionsList().addAll(permissions);
+        return roleRepository.save(role);
+    }
+
+    private void savedUser(String username, Set<Role> roles) {
+        UserSec user = new UserSec();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.getRolesList().addAll(roles);
+        userRepository.save(user);
+    }
+}
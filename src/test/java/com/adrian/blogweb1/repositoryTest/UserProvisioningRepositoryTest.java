@@ -0,0 +1,137 @@
+package com.adrian.blogweb1.repositoryTest;
+
+import com.adrian.blogweb1.dto.UserBatchErrorDTO;
+import com.adrian.blogweb1.dto.UserBatchResultDTO;
+import com.adrian.blogweb1.dto.UserProvisionRowDTO;
+import com.adrian.blogweb1.model.Role;
+import com.adrian.blogweb1.model.UserSec;
+import com.adrian.blogweb1.repository.IRoleRepository;
+import com.adrian.blogweb1.repository.IUserRepository;
+import com.adrian.blogweb1.security.config.UnknownUsernameCache;
+import com.adrian.blogweb1.service.ICacheInvalidationService;
+import com.adrian.blogweb1.service.IRoleService;
+import com.adrian.blogweb1.service.UserProvisioningService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Prueba el alta masiva real contra H2: batches JDBC con claves generadas y filas de user_roles.
+@DataJpaTest
+class UserProvisioningRepositoryTest {
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private IRoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final IRoleService roleService = mock(IRoleService.class);
+    private ExecutorService hashingExecutor;
+    private UserProvisioningService provisioningService;
+
+    @BeforeEach
+    void setUp() {
+        hashingExecutor = Executors.newFixedThreadPool(2);
+        when(roleService.findAllByIds(anySet())).thenAnswer(invocation ->
+                new HashSet<>(roleRepository.findAllById(invocation.<Set<Long>>getArgument(0))));
+        // Tramos de 2 filas para cruzar varias transacciones y batches.
+        provisioningService = new UserProvisioningService(userRepository, roleService, passwordEncoder, jdbcTemplate,
+                new TransactionTemplate(transactionManager), new UnknownUsernameCache(60, 100, mock(ICacheInvalidationService.class)), hashingExecutor, 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("El alta masiva debería crear usuarios con sus roles y la contraseña cifrada")
+    void provision_ShouldInsertUsersAndRoles() {
+        // --- 1. Arrange ---
+        Role user = savedRole("USER");
+        Role editor = savedRole("EDITOR");
+
+        // --- 2. Act ---
+        UserBatchResultDTO result = provisioningService.provision(List.of(
+                new UserProvisionRowDTO("ana", "ana@test.com", "secreto-1", Set.of(user.getIdRole())),
+                new UserProvisionRowDTO("luis", null, "secreto-2", Set.of(user.getIdRole(), editor.getIdRole())),
+                new UserProvisionRowDTO("eva", "eva@test.com", "secreto-3", Set.of(editor.getIdRole()))));
+
+        // --- 3. Assert ---
+        assertThat(result.received()).isEqualTo(3);
+        assertThat(result.created()).isEqualTo(3);
+        assertThat(result.errors()).isEmpty();
+        verify(roleService, times(1)).findAllByIds(anySet()); // Los roles se resuelven una sola vez
+
+        UserSec luis = userRepository.findByUsername("luis").orElseThrow();
+        assertThat(luis.getRolesList()).extracting(Role::getRole).containsExactlyInAnyOrder("USER", "EDITOR");
+        assertThat(passwordEncoder.matches("secreto-2", luis.getPassword())).isTrue();
+        assertThat(luis.isEnabled()).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_roles", Integer.class)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("El alta masiva debería informar de los errores por fila y crear el resto")
+    void provision_WithInvalidRows_ShouldReportPerRowErrors() {
+        // --- 1. Arrange ---
+        Role user = savedRole("USER");
+        UserSec existing = new UserSec();
+        existing.setUsername("existente");
+        existing.setPassword("x");
+        userRepository.saveAndFlush(existing);
+
+        // --- 2. Act ---
+        UserBatchResultDTO result = provisioningService.provision(List.of(
+                new UserProvisionRowDTO("ok", null, "secreto", Set.of(user.getIdRole())),
+                new UserProvisionRowDTO(" ", null, "secreto", Set.of(user.getIdRole())),
+                new UserProvisionRowDTO("sin-rol", null, "secreto", Set.of(999L)),
+                new UserProvisionRowDTO("ok", null, "secreto", Set.of(user.getIdRole())),
+                new UserProvisionRowDTO("existente", null, "secreto", Set.of(user.getIdRole())),
+                new UserProvisionRowDTO("sin-password", null, null, Set.of(user.getIdRole()))));
+
+        // --- 3. Assert ---
+        assertThat(result.created()).isEqualTo(1);
+        assertThat(result.errors()).extracting(UserBatchErrorDTO::index).containsExactly(1, 2, 3, 4, 5);
+        assertThat(result.errors()).extracting(UserBatchErrorDTO::message).containsExactly(
+                "El campo 'username' no puede estar vacío",
+                "Rol no encontrado con ID: [999]",
+                "Username repetido en el lote",
+                "El username ya existe",
+                "El campo 'password' no puede estar vacío");
+        assertThat(userRepository.findByUsername("ok")).isPresent();
+    }
+
+    private Role savedRole(String name) {
+        Role role = new Role();
+        role.setRole(name);
+        return roleRepository.save(role);
+    }
+}
@@ -1,10 +1,14 @@
 package com.adrian.blogweb1.security.config;
 
+import com.adrian.blogweb1.model.Permission;
 import com.adrian.blogweb1.model.Role;
 import com.adrian.blogweb1.model.UserSec;
 import com.adrian.blogweb1.repository.IRoleRepository;
 import com.adrian.blogweb1.repository.IUserRepository;
 import com.adrian.blogweb1.security.config.props.DefaultAdminProperties;
+import com.adrian.blogweb1.service.ICacheInvalidationService;
+import com.adrian.blogweb1.service.IPermissionService;
+import com.adrian.blogweb1.service.RoleService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,15 +16,26 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +56,24 @@ class CustomOAuth2UserServiceTest {
     @Mock
     private OAuth2User oauthUser;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private OAuth2UserCache oAuth2UserCache = new OAuth2UserCache(300, 100, mock(ICacheInvalidationService.class));
+
+    @Mock
+    private UnknownUsernameCache unknownUsernameCache;
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private IPermissionService permissionService;
+
+    @Mock
+    private RoleEpochRegistry roleEpochRegistry;
+
     // Usamos @InjectMocks, que es más simple y directo.
     @InjectMocks
     private CustomOAuth2UserService customOAuth2UserService;
@@ -147,4 +180,124 @@ class CustomOAuth2UserServiceTest {
         assertThat(resultUser.getRolesList()).contains(adminRole);
         assertThat(resultUser.getRolesList()).doesNotContain(userRole);
     }
+
+    @Test
+    @DisplayName("No debería guardar el usuario si el username y los roles no han cambiado")
+    void findOrCreateUser_WhenNothingChanged_ShouldNotSave() {
+        // --- 1. Arrange ---
+        String email = "test@example.com";
+        String username = "testuser";
+
+        when(oauthUser.getAttribute("email")).thenReturn(email);
+        when(oauthUser.getAttribute("login")).thenReturn(username);
+
+        UserSec existingUser = new UserSec();
+        existingUser.setEmail(email);
+        existingUser.setUsername(username);
+        existingUser.setRolesList(new HashSet<>(Set.of(userRole)));
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(existingUser));
+
+        // --- 2. Act ---
+        UserSec resultUser = customOAuth2UserService.findOrCreateUser(oauthUser);
+
+        // --- 3. Assert ---
+        assertThat(resultUser).isSameAs(existingUser);
+        verify(userRepository, never()).save(any(UserSec.class));
+        verify(roleRepository, never()).findByRole(anyString());
+    }
+
+    @Test
+    @DisplayName("Un segundo login con el mismo login de GitHub debería resolverse desde la caché")
+    void resolveAuthorities_WhenCalledTwice_ShouldHitDatabaseOnce() {
+        // --- 1. Arrange ---
+        String email = "test@example.com";
+        String username = "testuser";
+
+        when(oauthUser.getAttribute("email")).thenReturn(email);
+        when(oauthUser.getAttribute("login")).thenReturn(username);
+
+        UserSec existingUser = new UserSec();
+        existingUser.setIdUserSec(7L);
+        existingUser.setEmail(email);
+        existingUser.setUsername(username);
+        existingUser.setRolesList(new HashSet<>(Set.of(userRole)));
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(existingUser));
+
+        // --- 2. Act ---
+        Collection<? extends GrantedAuthority> first = customOAuth2UserService.resolveAuthorities(oauthUser);
+        Collection<? extends GrantedAuthority> second = customOAuth2UserService.resolveAuthorities(oauthUser);
+
+        // --- 3. Assert ---
+        assertThat(second).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyElementsOf(first.stream().map(GrantedAuthority::getAuthority).toList())
+                .contains("ROLE_ROLE_USER");
+        verify(userRepository, times(1)).findByEmail(email);
+        verify(userRepository, never()).save(any(UserSec.class));
+    }
+
+    @Test
+    @DisplayName("La caché no debería usarse si el email de GitHub ha cambiado")
+    void resolveAuthorities_WhenEmailChanged_ShouldBypassCache() {
+        // --- 1. Arrange ---
+        UserSec cachedUser = new UserSec();
+        cachedUser.setIdUserSec(7L);
+        cachedUser.setEmail("old@example.com");
+        cachedUser.setUsername("testuser");
+        oAuth2UserCache.put("testuser", cachedUser);
+
+        when(oauthUser.getAttribute("email")).thenReturn("new@example.com");
+        when(oauthUser.getAttribute("login")).thenReturn("testuser");
+        when(userRepository.findByEmail("new@example.com")).thenReturn(Optional.empty());
+        when(roleRepository.findByRole("ROLE_USER")).thenReturn(Optional.of(userRole));
+        when(passwordEncoder.encode(anyString())).thenReturn("encoded-password");
+        when(userRepository.save(any(UserSec.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // --- 2. Act ---
+        customOAuth2UserService.resolveAuthorities(oauthUser);
+
+        // --- 3. Assert ---
+        verify(userRepository, times(1)).findByEmail("new@example.com");
+        assertThat(oAuth2UserCache.get("testuser", "new@example.com")).isPresent();
+    }
+
+    @Test
+    @DisplayName("Tras cambiar los permisos de un rol, el siguiente login OAuth2 debería re-resolver las autoridades")
+    void resolveAuthorities_AfterRolePermissionsChange_ShouldReResolve() {
+        // --- 1. Arrange ---
+        String email = "test@example.com";
+        String username = "testuser";
+
+        when(oauthUser.getAttribute("email")).thenReturn(email);
+        when(oauthUser.getAttribute("login")).thenReturn(username);
+
+        UserSec existingUser = new UserSec();
+        existingUser.setIdUserSec(7L);
+        existingUser.setEmail(email);
+        existingUser.setUsername(username);
+        existingUser.setRolesList(new HashSet<>(Set.of(userRole)));
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(existingUser));
+
+        Permission update = new Permission();
+        update.setIdPermission(3L);
+        update.setPermissionName("UPDATE");
+        when(roleRepository.findById(1L)).thenReturn(Optional.of(userRole));
+        // El INSERT sobre roles_permissions se refleja en el rol que devolverá la siguiente lectura.
+        doAnswer(invocation -> {
+            userRole.getPermissionsList().add(update);
+            return 1;
+        }).when(roleRepository).addPermissions(1L, Set.of(3L));
+        RoleService roleService = new RoleService(roleRepository, userRepository, permissionService,
+                roleEpochRegistry, userDetailsCache, oAuth2UserCache);
+
+        Collection<? extends GrantedAuthority> before = customOAuth2UserService.resolveAuthorities(oauthUser);
+
+        // --- 2. Act ---
+        roleService.updateRolePermissions(1L, Set.of(update));
+        Collection<? extends GrantedAuthority> after = customOAuth2UserService.resolveAuthorities(oauthUser);
+
+        // --- 3. Assert ---
+        assertThat(before).extracting(GrantedAuthority::getAuthority).doesNotContain("UPDATE");
+        assertThat(after).extracting(GrantedAuthority::getAuthority).contains("ROLE_ROLE_USER", "UPDATE");
+        verify(userRepository, times(2)).findByEmail(email);
+    }
 }
@@ -0,0 +1,90 @@
+package com.adrian.blogweb1.security.config;
+
+import com.adrian.blogweb1.security.config.props.DataSourcePoolProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HikariPoolPostProcessorTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUpValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @Test
+    @DisplayName("apply debería configurar el pool y la caché de sentencias del driver de PostgreSQL")
+    void apply_WithPostgresUrl_ShouldConfigurePoolAndStatementCache() {
+        // --- 1. Arrange ---
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:postgresql://localhost:5432/blog");
+
+        // --- 2. Act ---
+        HikariPoolPostProcessor.apply(dataSource, properties(20, 5, 60000));
+
+        // --- 3. Assert ---
+        assertThat(dataSource.getPoolName()).isEqualTo("test-pool");
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(20);
+        assertThat(dataSource.getMinimumIdle()).isEqualTo(5);
+        assertThat(dataSource.getLeakDetectionThreshold()).isEqualTo(60000);
+        assertThat(dataSource.getDataSourceProperties())
+                .containsEntry("prepareThreshold", 3)
+                .containsEntry("preparedStatementCacheQueries", 128)
+                .containsEntry("preparedStatementCacheSizeMiB", 4);
+    }
+
+    @Test
+    @DisplayName("apply no debería añadir propiedades del driver de PostgreSQL con otra BD")
+    void apply_WithH2Url_ShouldNotAddPostgresProperties() {
+        // --- 1. Arrange ---
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:pool");
+
+        // --- 2. Act ---
+        HikariPoolPostProcessor.apply(dataSource, properties(10, 10, 0));
+
+        // --- 3. Assert ---
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(10);
+        assertThat(dataSource.getDataSourceProperties()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("La validación debería rechazar minimum-idle mayor que el pool o un umbral de fugas inútil")
+    void validation_ShouldRejectInconsistentValues() {
+        // --- 2. Act ---
+        Set<ConstraintViolation<DataSourcePoolProperties>> valid = validator.validate(properties(10, 10, 0));
+        Set<ConstraintViolation<DataSourcePoolProperties>> idleAbovePool = validator.validate(properties(5, 10, 0));
+        Set<ConstraintViolation<DataSourcePoolProperties>> leakTooLow = validator.validate(properties(10, 10, 500));
+
+        // --- 3. Assert ---
+        assertThat(valid).isEmpty();
+        assertThat(idleAbovePool).extracting(violation -> violation.getPropertyPath().toString())
+                .containsExactly("minimumIdleWithinPoolSize");
+        assertThat(leakTooLow).extracting(violation -> violation.getPropertyPath().toString())
+                .containsExactly("leakDetectionThresholdValid");
+    }
+
+    private static DataSourcePoolProperties properties(int maximumPoolSize, int minimumIdle, long leakDetectionMs) {
+        return new DataSourcePoolProperties("test-pool", maximumPoolSize, minimumIdle, 5000, 600000, 1800000,
+                leakDetectionMs, 3, 128, 4);
+    }
+}
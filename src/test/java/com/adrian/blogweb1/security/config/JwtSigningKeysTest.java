@@ -0,0 +1,71 @@
+package com.adrian.blogweb1.security.config;
+
+import com.adrian.blogweb1.security.config.props.JwtSigningProperties;
+import com.adrian.blogweb1.security.config.props.JwtSigningProperties.Mode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtSigningKeysTest {
+
+    @Test
+    @DisplayName("En modo HMAC no debería cargar claves ni publicar JWKS")
+    void hmacMode_ShouldNotExposeKeys() {
+        // --- 2. Act ---
+        JwtSigningKeys keys = new JwtSigningKeys(properties(Mode.HMAC, null), new DefaultResourceLoader());
+
+        // --- 3. Assert ---
+        assertThat(keys.asymmetricAlgorithm()).isEmpty();
+        assertThat(keys.jwks()).isEmpty();
+        assertThat(keys.keyId()).isNull();
+    }
+
+    @Test
+    @DisplayName("En modo EC debería usar ES256 y publicar un JWK P-256 con su huella como kid")
+    void ecMode_ShouldPublishP256Jwk() {
+        // --- 2. Act ---
+        JwtSigningKeys keys = new JwtSigningKeys(properties(Mode.EC, "classpath:jwt-ec-test.p12"), new DefaultResourceLoader());
+
+        // --- 3. Assert ---
+        assertThat(keys.asymmetricAlgorithm()).get().extracting("name").isEqualTo("ES256");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> jwk = ((List<Map<String, Object>>) keys.jwks().orElseThrow().get("keys")).get(0);
+        assertThat(jwk).containsEntry("kty", "EC")
+                .containsEntry("crv", "P-256")
+                .containsEntry("alg", "ES256")
+                .containsEntry("use", "sig")
+                .containsEntry("kid", keys.keyId())
+                .doesNotContainKey("d");
+        // Coordenadas de 32 bytes -> 43 caracteres base64url sin relleno
+        assertThat((String) jwk.get("x")).hasSize(43);
+        assertThat((String) jwk.get("y")).hasSize(43);
+    }
+
+    @Test
+    @DisplayName("Debería fallar al arrancar si el tipo de clave del keystore no coincide con el modo")
+    void mismatchedKeyType_ShouldFail() {
+        JwtSigningProperties rsaWithEcKeystore = properties(Mode.RSA, "classpath:jwt-ec-test.p12");
+        DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+
+        assertThrows(IllegalStateException.class, () -> new JwtSigningKeys(rsaWithEcKeystore, resourceLoader));
+    }
+
+    @Test
+    @DisplayName("Debería fallar al arrancar si el modo asimétrico no tiene keystore configurado")
+    void missingKeystore_ShouldFail() {
+        JwtSigningProperties withoutKeystore = properties(Mode.RSA, null);
+        DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+
+        assertThrows(IllegalStateException.class, () -> new JwtSigningKeys(withoutKeystore, resourceLoader));
+    }
+
+    private JwtSigningProperties properties(Mode mode, String keystorePath) {
+        return new JwtSigningProperties(mode, keystorePath, "changeit", "PKCS12", "jwt", 3600);
+    }
+}
@@ -0,0 +1,82 @@
+package com.adrian.blogweb1.security.config;
+
+import com.adrian.blogweb1.security.config.props.PasswordHashingProperties.Algorithm;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordEncoderFactoryTest {
+
+    // Costes mínimos para que el test sea rápido; no son valores de producción.
+    private static final PasswordHashingParameters FAST = new PasswordHashingParameters(4, 1024, 1, 1, 1000);
+
+    @Test
+    @DisplayName("Debería cifrar con el prefijo del algoritmo configurado y verificar el resultado")
+    void encode_ShouldUseConfiguredAlgorithmPrefix() {
+        for (Algorithm algorithm : Algorithm.values()) {
+            PasswordEncoder encoder = PasswordEncoderFactory.delegating(algorithm, FAST);
+
+            String hash = encoder.encode("secreta");
+
+            assertThat(hash).startsWith("{" + algorithm.id() + "}");
+            assertThat(encoder.matches("secreta", hash)).isTrue();
+            assertThat(encoder.matches("otra", hash)).isFalse();
+            assertThat(encoder.upgradeEncoding(hash)).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("Un hash BCrypt antiguo sin prefijo debería aceptarse y marcarse para re-cifrar")
+    void legacyBcryptHash_ShouldMatchAndRequireUpgrade() {
+        // --- 1. Arrange ---
+        String legacyHash = new BCryptPasswordEncoder(4).encode("secreta");
+        PasswordEncoder encoder = PasswordEncoderFactory.delegating(Algorithm.ARGON2, FAST);
+
+        // --- 2. Act & 3. Assert ---
+        assertThat(encoder.matches("secreta", legacyHash)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacyHash)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Un hash con otro algoritmo soportado debería aceptarse y marcarse para re-cifrar")
+    void otherAlgorithmHash_ShouldMatchAndRequireUpgrade() {
+        // --- 1. Arrange ---
+        String pbkdf2Hash = PasswordEncoderFactory.delegating(Algorithm.PBKDF2, FAST).encode("secreta");
+        PasswordEncoder encoder = PasswordEncoderFactory.delegating(Algorithm.BCRYPT, FAST);
+
+        // --- 2. Act & 3. Assert ---
+        assertThat(encoder.matches("secreta", pbkdf2Hash)).isTrue();
+        assertThat(encoder.upgradeEncoding(pbkdf2Hash)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Un hash BCrypt con menos coste que el configurado debería marcarse para re-cifrar")
+    void weakerBcryptHash_ShouldRequireUpgrade() {
+        // --- 1. Arrange ---
+        String weakHash = PasswordEncoderFactory.delegating(Algorithm.BCRYPT, FAST).encode("secreta");
+        PasswordEncoder stronger = PasswordEncoderFactory.delegating(Algorithm.BCRYPT, FAST.withBcryptStrength(5));
+
+        // --- 2. Act & 3. Assert ---
+        assertThat(stronger.matches("secreta", weakHash)).isTrue();
+        assertThat(stronger.upgradeEncoding(weakHash)).isTrue();
+    }
+
+    @Test
+    @DisplayName("pickCost debería elegir el mayor coste dentro del objetivo sin bajar del mínimo")
+    void pickCost_ShouldChooseLargestCostWithinTarget() {
+        // Tiempo simulado que se duplica con cada punto de coste, como en BCrypt: 2^cost ns.
+        assertThat(PasswordHashCalibrator.pickCost(10, 16, cost -> 1L << cost, 1L << 12)).isEqualTo(12);
+        assertThat(PasswordHashCalibrator.pickCost(10, 16, cost -> 1L << cost, 1L << 20)).isEqualTo(16);
+        assertThat(PasswordHashCalibrator.pickCost(10, 16, cost -> 1L << cost, 1L)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("scaleIterations debería escalar PBKDF2 linealmente sin bajar del mínimo")
+    void scaleIterations_ShouldScaleLinearlyWithFloor() {
+        assertThat(PasswordHashCalibrator.scaleIterations(310_000, 100, 300)).isEqualTo(930_000);
+        assertThat(PasswordHashCalibrator.scaleIterations(310_000, 100, 50)).isEqualTo(310_000);
+    }
+}
@@ -0,0 +1,94 @@
+package com.adrian.blogweb1.security.config;
+
+import com.adrian.blogweb1.dto.PermissionNameDTO;
+import com.adrian.blogweb1.repository.IPermissionRepository;
+import com.adrian.blogweb1.service.ICacheInvalidationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PermissionBitRegistryTest {
+
+    @Mock
+    private IPermissionRepository permissionRepository;
+
+    @Mock
+    private ICacheInvalidationService cacheInvalidationService;
+
+    private PermissionBitRegistry permissionBitRegistry;
+
+    @BeforeEach
+    void setUp() {
+        permissionBitRegistry = new PermissionBitRegistry(permissionRepository, 100, cacheInvalidationService);
+        when(permissionRepository.findAllNames()).thenReturn(List.of(
+                new PermissionNameDTO(1L, "READ"),
+                new PermissionNameDTO(2L, "CREATE"),
+                new PermissionNameDTO(10L, "DELETE")
+        ));
+        permissionBitRegistry.refresh();
+    }
+
+    @Test
+    @DisplayName("encode y authoritiesFor deberían ser simétricos")
+    void encodeAndDecode_ShouldRoundTrip() {
+        // --- 2. Act ---
+        String mask = permissionBitRegistry.encode(List.of("READ", "DELETE")).orElseThrow();
+        List<GrantedAuthority> authorities = permissionBitRegistry.authoritiesFor(List.of("ADMIN"), mask);
+
+        // --- 3. Assert ---
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_ADMIN", "READ", "DELETE");
+    }
+
+    @Test
+    @DisplayName("authoritiesFor debería devolver la misma lista inmutable para la misma combinación")
+    void authoritiesFor_ShouldReuseCachedImmutableList() {
+        // --- 1. Arrange ---
+        String mask = permissionBitRegistry.encode(List.of("CREATE")).orElseThrow();
+
+        // --- 2. Act ---
+        List<GrantedAuthority> first = permissionBitRegistry.authoritiesFor(List.of("USER"), mask);
+        List<GrantedAuthority> second = permissionBitRegistry.authoritiesFor(List.of("USER"), mask);
+
+        // --- 3. Assert ---
+        assertThat(second).isSameAs(first);
+        assertThat(first.getClass().getName()).contains("Immutable");
+    }
+
+    @Test
+    @DisplayName("encode debería devolver vacío si algún permiso no tiene bit asignado")
+    void encode_WithUnknownPermission_ShouldReturnEmpty() {
+        assertThat(permissionBitRegistry.encode(List.of("READ", "UNKNOWN"))).isEqualTo(Optional.empty());
+    }
+
+    @Test
+    @DisplayName("remove debería hacer que el bit del permiso borrado se ignore al decodificar")
+    void remove_ShouldDropDeletedPermission() {
+        // --- 1. Arrange ---
+        String mask = permissionBitRegistry.encode(List.of("READ", "CREATE")).orElseThrow();
+
+        // El permiso también desaparece de la BD, por si la decodificación fuerza una recarga.
+        when(permissionRepository.findAllNames()).thenReturn(List.of(
+                new PermissionNameDTO(1L, "READ"),
+                new PermissionNameDTO(10L, "DELETE")
+        ));
+
+        // --- 2. Act ---
+        permissionBitRegistry.remove(2L);
+
+        // --- 3. Assert ---
+        assertThat(permissionBitRegistry.authoritiesFor(List.of(), mask)).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("READ");
+    }
+}
@@ -0,0 +1,97 @@
+package com.adrian.blogweb1.security.config;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrecompiledAuthorizationManagerTest {
+
+    @Mock
+    private AuthorizationManager<MethodInvocation> delegate;
+
+    private final SampleController controller = new SampleController();
+
+    @Test
+    @DisplayName("Debería conceder acceso a un JwtAuthenticationToken con la autoridad requerida sin usar SpEL")
+    void check_WithJwtTokenHavingAuthority_ShouldGrant() throws Exception {
+        // --- 1. Arrange ---
+        PrecompiledAuthorizationManager manager = new PrecompiledAuthorizationManager(delegate);
+        manager.precompile(SampleController.class);
+        Authentication authentication = new JwtAuthenticationToken("testuser",
+                AuthoritySnapshot.of(List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("READ"))));
+
+        // --- 2. Act ---
+        AuthorizationDecision decision = manager.check(() -> authentication, invocationOf("read"));
+
+        // --- 3. Assert ---
+        assertThat(decision.isGranted()).isTrue();
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    @DisplayName("Debería denegar el acceso si falta la autoridad, también para autenticaciones que no son JWT")
+    void check_WithoutAuthority_ShouldDeny() throws Exception {
+        // --- 1. Arrange ---
+        PrecompiledAuthorizationManager manager = new PrecompiledAuthorizationManager(delegate);
+        Authentication authentication = new TestingAuthenticationToken("testuser", null, "READ");
+
+        // --- 2. Act ---
+        AuthorizationDecision decision = manager.check(() -> authentication, invocationOf("create"));
+
+        // --- 3. Assert ---
+        assertThat(decision.isGranted()).isFalse();
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    @DisplayName("Debería delegar en SpEL las expresiones que no son hasAuthority simples")
+    void check_WithComplexExpression_ShouldDelegate() throws Exception {
+        // --- 1. Arrange ---
+        PrecompiledAuthorizationManager manager = new PrecompiledAuthorizationManager(delegate);
+        AuthorizationDecision expected = new AuthorizationDecision(true);
+        when(delegate.check(any(), any())).thenReturn(expected);
+        Authentication authentication = new TestingAuthenticationToken("testuser", null, "READ");
+
+        // --- 2. Act ---
+        AuthorizationDecision decision = manager.check(() -> authentication, invocationOf("complex"));
+
+        // --- 3. Assert ---
+        assertThat(decision).isSameAs(expected);
+    }
+
+    private MethodInvocation invocationOf(String methodName) throws NoSuchMethodException {
+        return new SimpleMethodInvocation(controller, SampleController.class.getMethod(methodName));
+    }
+
+    static class SampleController {
+
+        @PreAuthorize("hasAuthority('READ')")
+        public void read() {
+        }
+
+        @PreAuthorize("hasAuthority( 'CREATE' )")
+        public void create() {
+        }
+
+        @PreAuthorize("hasAuthority('READ') and #root != null")
+        public void complex() {
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.adrian.blogweb1.security.config;
+
+import com.adrian.blogweb1.dto.CacheInvalidationEvent.CacheType;
+import com.adrian.blogweb1.dto.RoleEpochDTO;
+import com.adrian.blogweb1.model.Role;
+import com.adrian.blogweb1.repository.IRoleRepository;
+import com.adrian.blogweb1.service.ICacheInvalidationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RoleEpochRegistryTest {
+
+    @Mock
+    private IRoleRepository roleRepository;
+
+    @Mock
+    private ICacheInvalidationService cacheInvalidationService;
+
+    private RoleEpochRegistry roleEpochRegistry;
+
+    @BeforeEach
+    void setUp() {
+        roleEpochRegistry = new RoleEpochRegistry(roleRepository, cacheInvalidationService);
+        when(roleRepository.findAllEpochs()).thenReturn(List.of(
+                new RoleEpochDTO("USER", 0L),
+                new RoleEpochDTO("EDITOR", 2L)
+        ));
+        roleEpochRegistry.refresh();
+    }
+
+    @Test
+    @DisplayName("isStale debería devolver false si todas las épocas del token están al día")
+    void isStale_WhenEpochsMatch_ShouldReturnFalse() {
+        assertThat(roleEpochRegistry.isStale(Map.of("USER", 0, "EDITOR", 2))).isFalse();
+    }
+
+    @Test
+    @DisplayName("isStale debería devolver true tras un cambio de permisos en uno de los roles")
+    void isStale_AfterBump_ShouldReturnTrue() {
+        // --- 1. Arrange ---
+        Role editor = new Role();
+        editor.setRole("EDITOR");
+        editor.setAuthzEpoch(2L);
+
+        // --- 2. Act ---
+        roleEpochRegistry.bump(editor);
+
+        // --- 3. Assert ---
+        assertThat(editor.getAuthzEpoch()).isEqualTo(3L);
+        assertThat(roleEpochRegistry.isStale(Map.of("EDITOR", 2))).isTrue();
+        assertThat(roleEpochRegistry.isStale(Map.of("EDITOR", 3))).isFalse();
+        // El resto de nodos recarga sus épocas sin esperar al refresco periódico.
+        verify(cacheInvalidationService).publishAll(CacheType.ROLE_EPOCHS);
+    }
+
+    @Test
+    @DisplayName("isStale debería devolver true si el rol del token ya no existe")
+    void isStale_WhenRoleWasDeleted_ShouldReturnTrue() {
+        // --- 1. Arrange ---
+        when(roleRepository.findAllEpochs()).thenReturn(List.of(new RoleEpochDTO("USER", 0L)));
+
+        // --- 2. Act ---
+        roleEpochRegistry.refresh();
+
+        // --- 3. Assert ---
+        assertThat(roleEpochRegistry.isStale(Map.of("EDITOR", 2))).isTrue();
+        assertThat(roleEpochRegistry.isStale(Map.of("USER", 0))).isFalse();
+    }
+
+    @Test
+    @DisplayName("refresh no debería retroceder una época incrementada localmente")
+    void refresh_ShouldNotMoveEpochBackwards() {
+        // --- 1. Arrange ---
+        Role editor = new Role();
+        editor.setRole("EDITOR");
+        editor.setAuthzEpoch(2L);
+        roleEpochRegistry.bump(editor);
+
+        // --- 2. Act ---
+        roleEpochRegistry.refresh();
+
+        // --- 3. Assert ---
+        assertThat(roleEpochRegistry.epochsFor(List.of("EDITOR"))).containsEntry("EDITOR", 3L);
+    }
+
+    @Test
+    @DisplayName("bump dentro de una transacción solo debería aplicarse en memoria si la transacción confirma")
+    void bump_InsideTransaction_ShouldApplyOnlyAfterCommit() {
+        // --- 1. Arrange ---
+        Role editor = new Role();
+        editor.setRole("EDITOR");
+        editor.setAuthzEpoch(2L);
+        Role user = new Role();
+        user.setRole("USER");
+        user.setAuthzEpoch(0L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // --- 2. Act ---
+            roleEpochRegistry.bump(editor);
+            roleEpochRegistry.bump(user);
+
+            // --- 3. Assert ---
+            // Antes de confirmar, la tabla sigue con las épocas de la BD.
+            assertThat(roleEpochRegistry.epochsFor(List.of("EDITOR", "USER")))
+                    .containsEntry("EDITOR", 2L).containsEntry("USER", 0L);
+
+            // Solo se confirma la primera "transacción"; la segunda se revierte.
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.get(0).afterCommit();
+            synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(roleEpochRegistry.epochsFor(List.of("EDITOR", "USER")))
+                .containsEntry("EDITOR", 3L).containsEntry("USER", 0L);
+        assertThat(roleEpochRegistry.isStale(Map.of("USER", 0))).isFalse();
+    }
+}
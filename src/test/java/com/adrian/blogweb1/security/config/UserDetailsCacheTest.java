@@ -0,0 +1,81 @@
+package com.adrian.blogweb1.security.config;
+
+import com.adrian.blogweb1.service.ICacheInvalidationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.core.userdetails.User;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.Mockito.mock;
+
+class UserDetailsCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private UserDetailsCache userDetailsCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        userDetailsCache = new UserDetailsCache(60, 100, beanFactory.getBeanProvider(MeterRegistry.class),
+                mock(ICacheInvalidationService.class));
+    }
+
+    @Test
+    @DisplayName("get debería devolver una copia nueva en cada lectura")
+    void get_ShouldReturnFreshCopy() {
+        // --- 1. Arrange ---
+        userDetailsCache.put(User.withUsername("ana").password("hash").authorities("READ").build());
+
+        // --- 2. Act ---
+        User first = (User) userDetailsCache.get("ana").orElseThrow();
+        first.eraseCredentials();
+        User second = (User) userDetailsCache.get("ana").orElseThrow();
+
+        // --- 3. Assert ---
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPassword()).isEqualTo("hash");
+        assertThat(second.getAuthorities()).extracting("authority").containsExactly("READ");
+    }
+
+    @Test
+    @DisplayName("evict y evictAll deberían vaciar las entradas afectadas")
+    void evict_ShouldRemoveEntries() {
+        // --- 1. Arrange ---
+        userDetailsCache.put(User.withUsername("ana").password("hash").build());
+        userDetailsCache.put(User.withUsername("luis").password("hash").build());
+
+        // --- 2. Act & 3. Assert ---
+        userDetailsCache.evict("ana");
+        assertThat(userDetailsCache.get("ana")).isEmpty();
+        assertThat(userDetailsCache.get("luis")).isPresent();
+
+        userDetailsCache.evictAll();
+        assertThat(userDetailsCache.get("luis")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debería publicar aciertos y fallos en el MeterRegistry")
+    void get_ShouldRecordHitAndMissMetrics() {
+        // --- 1. Arrange ---
+        userDetailsCache.put(User.withUsername("ana").password("hash").build());
+
+        // --- 2. Act ---
+        userDetailsCache.get("ana");
+        userDetailsCache.get("ana");
+        userDetailsCache.get("nadie");
+
+        // --- 3. Assert ---
+        assertThat(meterRegistry.get("cache.gets").tag("cache", UserDetailsCache.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", UserDetailsCache.CACHE_NAME).tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(userDetailsCache.hitRate()).isCloseTo(2.0 / 3, offset(0.001));
+    }
+}
@@ -1,5 +1,10 @@
 package com.adrian.blogweb1.security.config.filter;
 
+import com.adrian.blogweb1.security.config.AuthoritySnapshot;
+import com.adrian.blogweb1.security.config.JwtAuthenticationToken;
+import com.adrian.blogweb1.security.config.PermissionBitRegistry;
+import com.adrian.blogweb1.security.config.RoleEpochRegistry;
+import com.adrian.blogweb1.service.ITokenRevocationService;
 import com.adrian.blogweb1.utils.JwtUtils;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.Claim;
@@ -18,10 +23,15 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -32,6 +42,18 @@ class JwtTokenValidatorTest {
     @Mock
     private JwtUtils jwtUtils;
 
+    @Mock
+    private ITokenRevocationService tokenRevocationService;
+
+    @Mock
+    private RoleEpochRegistry roleEpochRegistry;
+
+    @Mock
+    private PermissionBitRegistry permissionBitRegistry;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
     @Mock
     private FilterChain filterChain;
 
@@ -133,4 +155,96 @@ class JwtTokenValidatorTest {
         // Verificamos que la cadena de filtros NO continuó después del error
         verify(filterChain, never()).doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Debería devolver 401 Unauthorized si el token JWT ha sido revocado")
+    void doFilterInternal_whenTokenIsRevoked_shouldReturnUnauthorized() throws ServletException, IOException {
+        // --- 1. Arrange ---
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer revoked.jwt.token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        Instant issuedAt = Instant.parse("2026-01-01T10:00:00Z");
+        when(jwtUtils.validateToken("revoked.jwt.token")).thenReturn(decodedJWT);
+        when(jwtUtils.extractUsername(decodedJWT)).thenReturn("testuser");
+        when(decodedJWT.getId()).thenReturn("jti-1");
+        when(decodedJWT.getIssuedAtAsInstant()).thenReturn(issuedAt);
+        when(tokenRevocationService.isRevoked("jti-1", "testuser", issuedAt)).thenReturn(true);
+
+        // --- 2. Act ---
+        jwtTokenValidator.doFilterInternal(request, response, filterChain);
+
+        // --- 3. Assert ---
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_UNAUTHORIZED);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(filterChain, never()).doFilter(request, response);
+    }
+
+    @Test
+    @DisplayName("Debería re-resolver las autoridades desde la BD si la época de algún rol es obsoleta")
+    void doFilterInternal_whenRoleEpochIsStale_shouldReloadAuthorities() throws ServletException, IOException {
+        // --- 1. Arrange ---
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer stale.jwt.token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        Claim roleEpochsClaim = mock(Claim.class);
+        Map<String, Object> tokenEpochs = Map.of("EDITOR", 1);
+
+        when(jwtUtils.validateToken("stale.jwt.token")).thenReturn(decodedJWT);
+        when(jwtUtils.extractUsername(decodedJWT)).thenReturn("testuser");
+        when(decodedJWT.getClaim(JwtUtils.ROLE_EPOCHS_CLAIM)).thenReturn(roleEpochsClaim);
+        when(roleEpochsClaim.asMap()).thenReturn(tokenEpochs);
+        when(roleEpochRegistry.isStale(tokenEpochs)).thenReturn(true);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(
+                new User("testuser", "", List.of(new SimpleGrantedAuthority("ROLE_EDITOR"), new SimpleGrantedAuthority("UPDATE"))));
+
+        // --- 2. Act ---
+        jwtTokenValidator.doFilterInternal(request, response, filterChain);
+
+        // --- 3. Assert ---
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getAuthorities()).extracting("authority")
+                .containsExactlyInAnyOrder("ROLE_EDITOR", "UPDATE");
+        // Las autoridades del token no se usan: vienen de la BD
+        verify(decodedJWT, never()).getClaim("permissions");
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    @DisplayName("Debería obtener las autoridades del registro de bits si el token trae la máscara de permisos")
+    void doFilterInternal_whenTokenHasPermissionBits_shouldUseBitRegistry() throws ServletException, IOException {
+        // --- 1. Arrange ---
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer compact.jwt.token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        Claim rolesClaim = mock(Claim.class);
+        Claim bitsClaim = mock(Claim.class);
+        AuthoritySnapshot cachedAuthorities = AuthoritySnapshot.of(
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("READ")));
+
+        when(jwtUtils.validateToken("compact.jwt.token")).thenReturn(decodedJWT);
+        when(jwtUtils.extractUsername(decodedJWT)).thenReturn("testuser");
+        when(decodedJWT.getClaim("roles")).thenReturn(rolesClaim);
+        when(rolesClaim.asList(String.class)).thenReturn(List.of("ADMIN"));
+        when(decodedJWT.getClaim(JwtUtils.PERMISSION_BITS_CLAIM)).thenReturn(bitsClaim);
+        when(bitsClaim.asString()).thenReturn("AQ");
+        when(permissionBitRegistry.snapshotFor(List.of("ADMIN"), "AQ")).thenReturn(cachedAuthorities);
+
+        // --- 2. Act ---
+        jwtTokenValidator.doFilterInternal(request, response, filterChain);
+
+        // --- 3. Assert ---
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getAuthorities()).extracting("authority")
+                .containsExactlyInAnyOrder("ROLE_ADMIN", "READ");
+        assertThat(authentication).isInstanceOf(JwtAuthenticationToken.class);
+        assertThat(((JwtAuthenticationToken) authentication).getAuthorityNames()).containsExactlyInAnyOrder("ROLE_ADMIN", "READ");
+        verify(decodedJWT, never()).getClaim("permissions");
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+}
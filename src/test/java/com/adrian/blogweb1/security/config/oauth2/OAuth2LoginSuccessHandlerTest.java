@@ -3,6 +3,7 @@ package com.adrian.blogweb1.security.config.oauth2;
 
 import com.adrian.blogweb1.security.config.CustomOAuth2User;
 import com.adrian.blogweb1.security.config.OAuth2LoginSuccessHandler;
+import com.adrian.blogweb1.service.IRefreshTokenService;
 import com.adrian.blogweb1.utils.JwtUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -14,9 +15,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.mockito.ArgumentCaptor;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
@@ -33,7 +32,7 @@ class OAuth2LoginSuccessHandlerTest {
     private JwtUtils jwtUtils;
 
     @Mock
-    private UserDetailsService userDetailsService;
+    private IRefreshTokenService refreshTokenService;
 
     @Mock
     private HttpServletRequest request;
@@ -68,23 +67,31 @@ class OAuth2LoginSuccessHandlerTest {
         when(oAuth2User.getUsername()).thenReturn(username);
         when(oAuth2User.getEmail()).thenReturn(email);
 
-        // Simulamos la carga del usuario desde nuestra base de datos
-        UserDetails userDetails = new User(username, "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
-        when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
+        // Las autoridades ya vienen resueltas en el principal por CustomOAuth2UserService
+        doReturn(List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("READ")))
+                .when(oAuth2User).getAuthorities();
 
         // Simulamos la creación del token
-        when(jwtUtils.createToken(any(Authentication.class))).thenReturn(fakeToken);
+        ArgumentCaptor<Authentication> authCaptor = ArgumentCaptor.forClass(Authentication.class);
+        when(jwtUtils.createToken(authCaptor.capture())).thenReturn(fakeToken);
+        when(refreshTokenService.issueRefreshToken(username)).thenReturn("fake-refresh-token");
 
         // --- 2. Act ---
         successHandler.onAuthenticationSuccess(request, response, authentication);
 
         // --- 3. Assert ---
+        // El token se genera con las autoridades del principal, sin recargar el usuario
+        assertThat(authCaptor.getValue().getName()).isEqualTo(username);
+        assertThat(authCaptor.getValue().getAuthorities()).extracting("authority")
+                .containsExactly("ROLE_USER", "READ");
+
         // Verificamos que se estableció el tipo de contenido correcto
         verify(response).setContentType("application/json");
 
         // Verificamos que el JSON de respuesta contiene el token y los datos del usuario
         String responseBody = stringWriter.toString();
         assertThat(responseBody).contains("\"token\":\"Bearer " + fakeToken + "\"");
+        assertThat(responseBody).contains("\"refreshToken\":\"fake-refresh-token\"");
         assertThat(responseBody).contains("\"username\":\"" + username + "\"");
         assertThat(responseBody).contains("\"email\":\"" + email + "\"");
     }
@@ -114,8 +121,8 @@ class OAuth2LoginSuccessHandlerTest {
     }
 
     @Test
-    @DisplayName("Debería devolver 500 Internal Server Error si UserDetailsService lanza una excepción")
-    void onAuthenticationSuccess_WhenUserDetailsServiceFails_ShouldReturnInternalServerError() throws Exception {
+    @DisplayName("Debería devolver 500 Internal Server Error si la generación del token falla")
+    void onAuthenticationSuccess_WhenTokenCreationFails_ShouldReturnInternalServerError() throws Exception {
         // --- 1. Arrange ---
         StringWriter stringWriter = new StringWriter();
         PrintWriter printWriter = new PrintWriter(stringWriter);
@@ -124,8 +131,8 @@ class OAuth2LoginSuccessHandlerTest {
         when(authentication.getPrincipal()).thenReturn(oAuth2User);
         when(oAuth2User.getUsername()).thenReturn("someuser");
 
-        // Simulamos que el servicio falla al buscar el usuario
-        when(userDetailsService.loadUserByUsername("someuser")).thenThrow(new RuntimeException("Error de base de datos simulado"));
+        // Simulamos que la generación del token falla
+        when(jwtUtils.createToken(any(Authentication.class))).thenThrow(new RuntimeException("Error de \"firma\" simulado"));
 
         // --- 2. Act ---
         successHandler.onAuthenticationSuccess(request, response, authentication);
@@ -133,6 +140,7 @@ class OAuth2LoginSuccessHandlerTest {
         // --- 3. Assert ---
         verify(response).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         String responseBody = stringWriter.toString();
-        assertThat(responseBody).contains("Error de base de datos simulado");
+        // El mensaje se escapa correctamente dentro del JSON
+        assertThat(responseBody).contains("Error de \\\"firma\\\" simulado");
     }
 }
@@ -5,7 +5,12 @@ import com.adrian.blogweb1.dto.AuthorCreateRequestDTO;
 import com.adrian.blogweb1.dto.AuthorUpdateRequestDTO;
 import com.adrian.blogweb1.model.Author;
 import com.adrian.blogweb1.repository.IAuthorRepository;
+import com.adrian.blogweb1.repository.IPostRepository;
 import com.adrian.blogweb1.service.AuthorService;
+import com.adrian.blogweb1.service.ICacheInvalidationService;
+import com.adrian.blogweb1.service.IPostChangeService;
+import com.adrian.blogweb1.service.IPostViewService;
+import com.adrian.blogweb1.service.ITrendingPostsService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,9 +19,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -29,6 +38,24 @@ class AuthorServiceTest {
     @Mock
     private IAuthorRepository authorRepository;
 
+    @Mock
+    private IPostRepository postRepository;
+
+    @Mock
+    private IPostChangeService postChangeService;
+
+    @Mock
+    private IPostViewService postViewService;
+
+    @Mock
+    private ITrendingPostsService trendingPostsService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ICacheInvalidationService cacheInvalidationService;
+
     @InjectMocks
     private AuthorService authorService;
 
@@ -47,15 +74,11 @@ class AuthorServiceTest {
     @DisplayName("Debería devolver una lista de todos los autores")
     void findAll_ShouldReturnListOfAuthors() {
         // --- 1. Arrange ---
-        // Usamos el 'author' común del setUp y creamos uno adicional.
-        Author author2 = new Author();
-        author2.setIdAuthor(2L);
-        author2.setName("Autor Dos");
+        // La consulta ya devuelve los DTO: no se cargan entidades Author.
+        List<AuthorDTO> listaDeAutores = List.of(new AuthorDTO(1L, "Autor de Prueba"), new AuthorDTO(2L, "Autor Dos"));
 
-        List<Author> listaDeAutores = List.of(author, author2);
-
-        // b) Damos el guion al mock: "Cuando te llamen con findAll(), devuelve nuestra lista"
-        when(authorRepository.findAll()).thenReturn(listaDeAutores);
+        // b) Damos el guion al mock: "Cuando te pidan la proyección, devuelve nuestra lista"
+        when(authorRepository.findAllDTO()).thenReturn(listaDeAutores);
 
         // --- 2. Act ---
         // Ejecutamos el método que queremos probar
@@ -68,6 +91,7 @@ class AuthorServiceTest {
         assertThat(authors).hasSize(2)
                 .extracting(AuthorDTO::getName) // Extrae el nombre de cada DTO en la lista
                 .containsExactly("Autor de Prueba", "Autor Dos");
+        verify(authorRepository, never()).findAll();
     }
 
     @Test
@@ -76,8 +100,8 @@ class AuthorServiceTest {
         // --- 1. Arrange ---
         Long authorId = author.getIdAuthor();
 
-        // b) Damos el guion al mock: "Cuando te llamen con findById(1L), devuelve un Optional con nuestro autor"
-        when(authorRepository.findById(authorId)).thenReturn(Optional.of(this.author));
+        // b) Damos el guion al mock: "Cuando te pidan la proyección del 1L, devuelve un Optional con nuestro autor"
+        when(authorRepository.findDTOById(authorId)).thenReturn(Optional.of(new AuthorDTO(authorId, "Autor de Prueba")));
 
         // --- 2. Act ---
         // Ejecutamos el método que queremos probar
@@ -97,7 +121,7 @@ class AuthorServiceTest {
     void findById_WhenAuthorDoesNotExist_ShouldReturnEmptyOptional() {
         // --- 1. Arrange ---
         Long nonExistentId = 99L;
-        when(authorRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+        when(authorRepository.findDTOById(nonExistentId)).thenReturn(Optional.empty());
 
         // --- 2. Act ---
         Optional<AuthorDTO> result = authorService.getAuthorByIdDTO(nonExistentId);
@@ -183,25 +207,48 @@ class AuthorServiceTest {
     }
 
     @Test
-    @DisplayName("Debería eliminar un autor cuando existe")
+    @DisplayName("Debería eliminar un autor cuando existe, sin cargarlo ni pasar por la cascada")
     void deleteAuthor_WhenAuthorExists_ShouldCompleteSuccessfully() {
         // --- 1. Arrange ---
         Long existingId = 1L;
+        when(authorRepository.existsById(existingId)).thenReturn(true);
+        runTransactionsInline();
+        when(postRepository.findIdsByAuthor(eq(existingId), any(Pageable.class))).thenReturn(List.of(10L, 11L));
 
-        // Damos el guion: cuando se busque por el ID, se encontrará el autor.
-        when(authorRepository.findById(existingId)).thenReturn(Optional.of(author));
-        // No es estrictamente necesario mockear un método void, pero es buena práctica ser explícito.
-        doNothing().when(authorRepository).delete(any(Author.class));
+        // --- 2. Act ---
+        authorService.deleteAuthor(existingId);
+
+        // --- 3. Assert ---
+        verify(postChangeService).recordDeletions(List.of(10L, 11L));
+        verify(postRepository).deleteAllByIdInBatch(List.of(10L, 11L));
+        verify(authorRepository).deleteAllByIdInBatch(List.of(existingId));
+        verify(postViewService).forget(10L);
+        verify(trendingPostsService).forget(11L);
+        verify(authorRepository, never()).findById(any());
+        verify(authorRepository, never()).delete(any(Author.class));
+    }
+
+    @Test
+    @DisplayName("Debería borrar los posts por tramos y el autor solo con el último tramo")
+    void deleteAuthor_WithManyPosts_ShouldDeleteInChunks() {
+        // --- 1. Arrange ---
+        Long existingId = 1L;
+        List<Long> fullChunk = LongStream.rangeClosed(1, 1000).boxed().toList();
+        when(authorRepository.existsById(existingId)).thenReturn(true);
+        runTransactionsInline();
+        when(postRepository.findIdsByAuthor(eq(existingId), any(Pageable.class)))
+                .thenReturn(fullChunk)
+                .thenReturn(List.of(1001L));
 
         // --- 2. Act ---
-        // Ejecutamos el método. No esperamos que devuelva nada.
         authorService.deleteAuthor(existingId);
 
         // --- 3. Assert ---
-        // Verificamos que se llamó al método delete del repositorio con el autor correcto.
-        // Esto confirma que la lógica de búsqueda y eliminación se ejecutó.
-        verify(authorRepository).findById(existingId);
-        verify(authorRepository).delete(author);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(postRepository).deleteAllByIdInBatch(fullChunk);
+        verify(postRepository).deleteAllByIdInBatch(List.of(1001L));
+        // El autor se borra una sola vez, junto con el último tramo.
+        verify(authorRepository, times(1)).deleteAllByIdInBatch(List.of(existingId));
     }
 
     @Test
@@ -209,16 +256,20 @@ class AuthorServiceTest {
     void deleteAuthor_WhenAuthorDoesNotExist_ShouldThrowException() {
         // --- 1. Arrange ---
         Long nonExistentId = 99L;
-        // La forma más simple de evitar el error de "UnnecessaryStubbing" en este caso
-        // es usar lenient(). Esto le dice a Mockito que esta simulación está bien
-        // y que no debe considerarla "innecesaria" si la prueba termina en una excepción.
-        lenient().when(authorRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+        when(authorRepository.existsById(nonExistentId)).thenReturn(false);
 
         // --- 2. Act & 3. Assert ---
         assertThatThrownBy(() -> authorService.deleteAuthor(nonExistentId))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessageContaining("No se puede eliminar. Autor no encontrado con id: " + nonExistentId);
 
-        verify(authorRepository, never()).delete(any(Author.class));
+        verify(authorRepository, never()).deleteAllByIdInBatch(any());
+        verifyNoInteractions(postRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
     }
-}
\ No newline at end of file
+}
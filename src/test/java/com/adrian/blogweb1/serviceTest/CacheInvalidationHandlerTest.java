@@ -0,0 +1,105 @@
+package com.adrian.blogweb1.serviceTest;
+
+import com.adrian.blogweb1.dto.CacheInvalidationEvent;
+import com.adrian.blogweb1.dto.CacheInvalidationEvent.CacheType;
+import com.adrian.blogweb1.dto.PostSummaryDTO;
+import com.adrian.blogweb1.model.UserSec;
+import com.adrian.blogweb1.repository.IPostRepository;
+import com.adrian.blogweb1.security.config.OAuth2UserCache;
+import com.adrian.blogweb1.security.config.PermissionBitRegistry;
+import com.adrian.blogweb1.security.config.RoleEpochRegistry;
+import com.adrian.blogweb1.security.config.UnknownUsernameCache;
+import com.adrian.blogweb1.security.config.UserDetailsCache;
+import com.adrian.blogweb1.service.CacheInvalidationHandler;
+import com.adrian.blogweb1.service.ICacheInvalidationService;
+import com.adrian.blogweb1.service.IPostViewService;
+import com.adrian.blogweb1.service.ITrendingPostsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationHandlerTest {
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private UnknownUsernameCache unknownUsernameCache;
+
+    @Mock
+    private RoleEpochRegistry roleEpochRegistry;
+
+    @Mock
+    private PermissionBitRegistry permissionBitRegistry;
+
+    @Mock
+    private IPostViewService postViewService;
+
+    @Mock
+    private ITrendingPostsService trendingPostsService;
+
+    @Mock
+    private IPostRepository postRepository;
+
+    private final OAuth2UserCache oAuth2UserCache = new OAuth2UserCache(300, 100, mock(ICacheInvalidationService.class));
+    private CacheInvalidationHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new CacheInvalidationHandler(userDetailsCache, unknownUsernameCache, oAuth2UserCache,
+                roleEpochRegistry, permissionBitRegistry, postViewService, trendingPostsService, postRepository);
+    }
+
+    @Test
+    @DisplayName("POST_METADATA debería releer el título y actualizar las tendencias sin olvidar el post")
+    void onInvalidation_WithPostMetadata_ShouldReapplyMetadata() {
+        // --- 1. Arrange ---
+        when(postRepository.findSummariesByIds(List.of(7L)))
+                .thenReturn(List.of(new PostSummaryDTO(7L, "Título editado", null, null, "Autora")));
+
+        // --- 2. Act ---
+        handler.onInvalidation(new CacheInvalidationEvent(CacheType.POST_METADATA, List.of("7")));
+
+        // --- 3. Assert ---
+        verify(trendingPostsService).updateMetadata(7L, "Título editado", "Autora");
+        verify(trendingPostsService, never()).forget(7L);
+        verify(postViewService, never()).forget(7L);
+    }
+
+    @Test
+    @DisplayName("OAUTH2_USERS debería borrar solo las entradas de los usernames recibidos")
+    void onInvalidation_WithOAuth2Users_ShouldInvalidateMatchingUsers() {
+        // --- 1. Arrange ---
+        oAuth2UserCache.put("gh-ana", user(1L, "ana", "ana@example.com"));
+        oAuth2UserCache.put("gh-luis", user(2L, "luis", "luis@example.com"));
+
+        // --- 2. Act ---
+        handler.onInvalidation(new CacheInvalidationEvent(CacheType.OAUTH2_USERS, List.of("ana")));
+
+        // --- 3. Assert ---
+        assertThat(oAuth2UserCache.get("gh-ana", "ana@example.com")).isEmpty();
+        assertThat(oAuth2UserCache.get("gh-luis", "luis@example.com")).isPresent();
+    }
+
+    private static UserSec user(Long id, String username, String email) {
+        UserSec user = new UserSec();
+        user.setIdUserSec(id);
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setRolesList(Set.of());
+        return user;
+    }
+}
@@ -0,0 +1,130 @@
+package com.adrian.blogweb1.serviceTest;
+
+import com.adrian.blogweb1.dto.CacheInvalidationEvent;
+import com.adrian.blogweb1.dto.CacheInvalidationEvent.CacheType;
+import com.adrian.blogweb1.model.CacheInvalidationMessage;
+import com.adrian.blogweb1.repository.ICacheInvalidationRepository;
+import com.adrian.blogweb1.service.CacheInvalidationService;
+import com.adrian.blogweb1.service.CacheInvalidationService.Transport;
+import com.adrian.blogweb1.utils.DatabasePlatform;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationServiceTest {
+
+    @Mock
+    private ICacheInvalidationRepository repository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private DatabasePlatform databasePlatform;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CacheInvalidationService cacheInvalidationService;
+
+    @BeforeEach
+    void setUp() {
+        cacheInvalidationService = new CacheInvalidationService(repository, jdbcTemplate, dataSource, databasePlatform,
+                objectMapper, eventPublisher, Clock.systemUTC(), Transport.TABLE, "cache_invalidation", 100, 10, 1000, 1000);
+    }
+
+    @Test
+    @DisplayName("publish debería repartir muchas claves en varios mensajes sin superar el límite de pg_notify")
+    void publish_WithManyKeys_ShouldSplitIntoBoundedPayloads() throws Exception {
+        // --- 1. Arrange ---
+        List<String> usernames = IntStream.range(0, 2_000).mapToObj(i -> "usuario-con-nombre-largo-" + i).toList();
+
+        // --- 2. Act ---
+        cacheInvalidationService.publish(CacheType.USER_DETAILS, usernames);
+
+        // --- 3. Assert ---
+        ArgumentCaptor<CacheInvalidationMessage> captor = ArgumentCaptor.forClass(CacheInvalidationMessage.class);
+        verify(repository, atLeast(2)).save(captor.capture());
+        List<String> received = new ArrayList<>();
+        for (CacheInvalidationMessage message : captor.getAllValues()) {
+            assertThat(message.getPayload().getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(7000);
+            objectMapper.readTree(message.getPayload()).get("keys").forEach(key -> received.add(key.asText()));
+        }
+        assertThat(received).containsExactlyElementsOf(usernames);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("poll debería aplicar los mensajes de otros nodos e ignorar los propios")
+    void poll_ShouldDispatchOnlyForeignMessages() throws Exception {
+        // --- 1. Arrange ---
+        // Primer sondeo: solo fija el cursor.
+        when(repository.findMaxId()).thenReturn(10L);
+        cacheInvalidationService.poll();
+
+        cacheInvalidationService.publish(CacheType.UNKNOWN_USERNAMES, List.of("propio"));
+        ArgumentCaptor<CacheInvalidationMessage> captor = ArgumentCaptor.forClass(CacheInvalidationMessage.class);
+        verify(repository).save(captor.capture());
+        String ownPayload = captor.getValue().getPayload();
+        JsonNode foreign = objectMapper.readTree(ownPayload);
+        String foreignPayload = ownPayload.replace(foreign.get("origin").asText(), "otro-nodo");
+
+        when(repository.findAfter(anyLong(), any(Pageable.class))).thenReturn(List.of(
+                new CacheInvalidationMessage(11L, ownPayload, null),
+                new CacheInvalidationMessage(12L, foreignPayload, null)
+        ));
+
+        // --- 2. Act ---
+        int read = cacheInvalidationService.poll();
+
+        // --- 3. Assert ---
+        assertThat(read).isEqualTo(2);
+        verify(eventPublisher).publishEvent(new CacheInvalidationEvent(CacheType.UNKNOWN_USERNAMES, List.of("propio")));
+    }
+
+    @Test
+    @DisplayName("Con el transporte NONE no debería publicar nada")
+    void publish_WithNoneTransport_ShouldDoNothing() {
+        // --- 1. Arrange ---
+        CacheInvalidationService disabled = new CacheInvalidationService(repository, jdbcTemplate, dataSource,
+                databasePlatform, objectMapper, eventPublisher, Clock.systemUTC(), Transport.NONE, "cache_invalidation",
+                100, 10, 1000, 1000);
+
+        // --- 2. Act ---
+        disabled.publishAll(CacheType.ROLE_EPOCHS);
+
+        // --- 3. Assert ---
+        verify(repository, never()).save(any());
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
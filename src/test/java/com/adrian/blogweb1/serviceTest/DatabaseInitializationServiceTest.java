@@ -1,21 +1,28 @@
 package com.adrian.blogweb1.serviceTest;
 
 import com.adrian.blogweb1.model.Permission;
+import com.adrian.blogweb1.model.Post;
 import com.adrian.blogweb1.model.Role;
 import com.adrian.blogweb1.repository.IPermissionRepository;
+import com.adrian.blogweb1.repository.IPostRepository;
 import com.adrian.blogweb1.repository.IRoleRepository;
 import com.adrian.blogweb1.service.DatabaseInitializationService;
 import com.adrian.blogweb1.service.UserService;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -32,6 +39,12 @@ class DatabaseInitializationServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private IPostRepository postRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private DatabaseInitializationService initializationService;
 
@@ -110,4 +123,26 @@ class DatabaseInitializationServiceTest {
         // Verificamos que no se llegó a guardar ningún rol
         verify(roleRepository, never()).save(any(Role.class));
     }
+
+    @Test
+    @DisplayName("Debería calcular el extracto de los posts existentes que no lo tienen")
+    void initializeDatabase_whenPostsLackExcerpt_shouldBackfill() {
+        // --- 1. Arrange ---
+        when(permissionRepository.findByPermissionName(anyString())).thenReturn(Optional.of(new Permission()));
+        when(roleRepository.findByRole(anyString())).thenReturn(Optional.of(new Role()));
+        Post legacyPost = new Post();
+        ReflectionTestUtils.setField(legacyPost, "content", "Contenido antiguo");
+        when(postRepository.findByExcerptIsNullAndContentIsNotNull(any(Pageable.class)))
+                .thenReturn(List.of(legacyPost))
+                .thenReturn(List.of());
+
+        // --- 2. Act ---
+        initializationService.initializeDatabase();
+
+        // --- 3. Assert ---
+        assertThat(legacyPost.getExcerpt()).isEqualTo("Contenido antiguo");
+        verify(postRepository, times(1)).saveAll(List.of(legacyPost));
+        // Cada lote se vuelca y se desvincula del contexto de persistencia antes de pedir el siguiente.
+        verify(entityManager, times(1)).clear();
+    }
 }
@@ -1,19 +1,33 @@
 package com.adrian.blogweb1.serviceTest;
 
+import com.adrian.blogweb1.dto.RoleEpochDTO;
+import com.adrian.blogweb1.exception.ResourceNotFoundException;
 import com.adrian.blogweb1.model.Permission;
 import com.adrian.blogweb1.repository.IPermissionRepository;
+import com.adrian.blogweb1.repository.IRoleRepository;
+import com.adrian.blogweb1.security.config.PermissionBitRegistry;
+import com.adrian.blogweb1.security.config.RoleEpochRegistry;
+import com.adrian.blogweb1.security.config.OAuth2UserCache;
+import com.adrian.blogweb1.security.config.UserDetailsCache;
 import com.adrian.blogweb1.service.PermissionService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,6 +36,21 @@ class PermissionServiceTest {
     @Mock
     private IPermissionRepository permissionRepository;
 
+    @Mock
+    private IRoleRepository roleRepository;
+
+    @Mock
+    private RoleEpochRegistry roleEpochRegistry;
+
+    @Mock
+    private PermissionBitRegistry permissionBitRegistry;
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private OAuth2UserCache oAuth2UserCache;
+
     @InjectMocks
     private PermissionService permissionService;
 
@@ -79,4 +108,50 @@ class PermissionServiceTest {
         // --- 3. Assert ---
         assertThat(resultado).isNotPresent();
     }
+
+    @Test
+    @DisplayName("deletePermission debería subir la época de sus roles y desasignarlo con un borrado masivo")
+    void deletePermission_ShouldBumpEpochsAndDeleteJoinRowsInBulk() {
+        // --- 1. Arrange ---
+        when(permissionRepository.existsById(5L)).thenReturn(true);
+        when(roleRepository.findEpochsByPermissionId(5L)).thenReturn(List.of(new RoleEpochDTO("ROLE_ADMIN", 4L)));
+
+        // --- 2. Act ---
+        permissionService.deletePermission(5L);
+
+        // --- 3. Assert ---
+        // La época se sube antes de borrar la relación: después ya no se sabría qué roles la tenían.
+        InOrder order = inOrder(roleRepository, permissionRepository);
+        order.verify(roleRepository).bumpEpochsByPermissionId(5L);
+        order.verify(roleRepository).removePermissionFromAllRoles(5L);
+        order.verify(permissionRepository).deleteAllByIdInBatch(List.of(5L));
+        verify(roleRepository, never()).findRolesByPermissionId(any());
+        verify(roleEpochRegistry).register("ROLE_ADMIN", 4L);
+        verify(permissionBitRegistry).remove(5L);
+        verify(userDetailsCache).evictAll();
+        verify(oAuth2UserCache).evictAll();
+    }
+
+    @Test
+    @DisplayName("deletePermission debería lanzar ResourceNotFoundException si el permiso no existe")
+    void deletePermission_WhenPermissionDoesNotExist_ShouldThrowException() {
+        when(permissionRepository.existsById(99L)).thenReturn(false);
+
+        assertThatThrownBy(() -> permissionService.deletePermission(99L)).isInstanceOf(ResourceNotFoundException.class);
+        verify(roleRepository, never()).removePermissionFromAllRoles(any());
+    }
+
+    @Test
+    @DisplayName("findAllByIds debería resolver todos los permisos con una consulta e informar de los que faltan")
+    void findAllByIds_WithMissingIds_ShouldThrowListingThem() {
+        // --- 1. Arrange ---
+        Permission read = new Permission("READ");
+        read.setIdPermission(1L);
+        when(permissionRepository.findAllById(Set.of(1L, 7L, 3L))).thenReturn(List.of(read));
+
+        // --- 2. Act & 3. Assert ---
+        assertThatThrownBy(() -> permissionService.findAllByIds(Set.of(1L, 7L, 3L)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Permisos no encontrados con ID: [3, 7]");
+    }
 }
@@ -0,0 +1,146 @@
+package com.adrian.blogweb1.serviceTest;
+
+import com.adrian.blogweb1.dto.PostChangeEventDTO;
+import com.adrian.blogweb1.dto.PostChangesDTO;
+import com.adrian.blogweb1.model.PostOutboxEvent;
+import com.adrian.blogweb1.model.PostOutboxEvent.EventType;
+import com.adrian.blogweb1.repository.IPostOutboxRepository;
+import com.adrian.blogweb1.service.FilePostEventSink;
+import com.adrian.blogweb1.service.IPostEventSink;
+import com.adrian.blogweb1.service.PostChangeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostChangeServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Mock
+    private IPostOutboxRepository outboxRepository;
+
+    // Sink en memoria: guarda cada lote recibido.
+    private final List<List<PostChangeEventDTO>> publishedBatches = new ArrayList<>();
+
+    private PostChangeService postChangeService;
+
+    @BeforeEach
+    void setUp() {
+        IPostEventSink inMemorySink = publishedBatches::add;
+        postChangeService = new PostChangeService(outboxRepository, inMemorySink,
+                Clock.fixed(NOW, ZoneOffset.UTC), 100, 7);
+    }
+
+    @Test
+    @DisplayName("relay debería entregar los eventos pendientes en un lote, marcarlos como publicados y numerarlos en el feed")
+    void relay_ShouldPublishBatchAndMarkPublished() {
+        // --- 1. Arrange ---
+        PostOutboxEvent created = event(1L, 10L, EventType.CREATED);
+        PostOutboxEvent updated = event(2L, 10L, EventType.UPDATED);
+        when(outboxRepository.findUnpublished(any())).thenReturn(List.of(created, updated));
+        when(outboxRepository.findMaxFeedSequence()).thenReturn(40L);
+
+        // --- 2. Act ---
+        int relayed = postChangeService.relay();
+
+        // --- 3. Assert ---
+        assertThat(relayed).isEqualTo(2);
+        assertThat(publishedBatches).hasSize(1);
+        assertThat(publishedBatches.get(0)).extracting(PostChangeEventDTO::type).containsExactly("CREATED", "UPDATED");
+        // La secuencia continúa desde la última asignada, en el orden del lote.
+        assertThat(List.of(created, updated)).extracting(PostOutboxEvent::getFeedSequence).containsExactly(41L, 42L);
+        assertThat(List.of(created, updated)).extracting(PostOutboxEvent::getPublishedAt).containsOnly(NOW);
+    }
+
+    @Test
+    @DisplayName("relay no debería marcar nada como publicado si el sink falla")
+    void relay_WhenSinkFails_ShouldNotMarkPublished() {
+        // --- 1. Arrange ---
+        IPostEventSink failingSink = events -> {
+            throw new IllegalStateException("sink caído");
+        };
+        PostChangeService service = new PostChangeService(outboxRepository, failingSink,
+                Clock.fixed(NOW, ZoneOffset.UTC), 100, 7);
+        PostOutboxEvent deleted = event(1L, 10L, EventType.DELETED);
+        when(outboxRepository.findUnpublished(any())).thenReturn(List.of(deleted));
+
+        // --- 2. Act & 3. Assert ---
+        assertThatThrownBy(service::relay).isInstanceOf(IllegalStateException.class);
+        assertThat(deleted.getPublishedAt()).isNull();
+        assertThat(deleted.getFeedSequence()).isNull();
+        verify(outboxRepository, never()).findMaxFeedSequence();
+    }
+
+    @Test
+    @DisplayName("getChanges debería devolver como cursor la secuencia del feed del último evento, no su id")
+    void getChanges_ShouldReturnNextCursor() {
+        // --- 1. Arrange ---
+        // El evento 12 se confirmó antes que el 8: el relay le dio una secuencia menor.
+        when(outboxRepository.findChangesAfter(eq(5L), any()))
+                .thenReturn(List.of(relayed(12L, 10L, EventType.UPDATED, 6L), relayed(8L, 11L, EventType.CREATED, 9L)));
+
+        // --- 2. Act ---
+        PostChangesDTO changes = postChangeService.getChanges(5L, 100);
+
+        // --- 3. Assert ---
+        assertThat(changes.events()).extracting(PostChangeEventDTO::idPost).containsExactly(10L, 11L);
+        assertThat(changes.events()).extracting(PostChangeEventDTO::eventId).containsExactly(12L, 8L);
+        assertThat(changes.nextSince()).isEqualTo(9L);
+    }
+
+    @Test
+    @DisplayName("getChanges sin novedades debería mantener el cursor recibido")
+    void getChanges_WithoutEvents_ShouldKeepCursor() {
+        // --- 1. Arrange ---
+        when(outboxRepository.findChangesAfter(anyLong(), any())).thenReturn(List.of());
+
+        // --- 2. Act & 3. Assert ---
+        assertThat(postChangeService.getChanges(42L, 100).nextSince()).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("FilePostEventSink debería añadir una línea JSON por evento")
+    void fileSink_ShouldAppendJsonLines(@TempDir Path tempDir) throws Exception {
+        // --- 1. Arrange ---
+        Path file = tempDir.resolve("events/post-events.jsonl");
+        FilePostEventSink sink = new FilePostEventSink(file, new ObjectMapper().registerModule(new JavaTimeModule()));
+
+        // --- 2. Act ---
+        sink.publish(List.of(new PostChangeEventDTO(1L, 10L, "CREATED", "Título", NOW)));
+        sink.publish(List.of(new PostChangeEventDTO(2L, 10L, "DELETED", null, NOW)));
+
+        // --- 3. Assert ---
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).contains("\"eventId\":1", "\"type\":\"CREATED\"");
+    }
+
+    private static PostOutboxEvent event(Long id, Long postId, EventType type) {
+        return new PostOutboxEvent(id, postId, type, "Título", NOW.minusSeconds(10), null, null);
+    }
+
+    private static PostOutboxEvent relayed(Long id, Long postId, EventType type, long feedSequence) {
+        return new PostOutboxEvent(id, postId, type, "Título", NOW.minusSeconds(10), NOW.minusSeconds(5), feedSequence);
+    }
+}
@@ -2,13 +2,21 @@ package com.adrian.blogweb1.serviceTest;
 
 
 
+import com.adrian.blogweb1.dto.CacheInvalidationEvent.CacheType;
 import com.adrian.blogweb1.dto.PostCreateRequestDTO;
+import com.adrian.blogweb1.dto.PostCreatedEvent;
 import com.adrian.blogweb1.dto.PostResponseDTO;
+import com.adrian.blogweb1.dto.PostSummaryDTO;
 import com.adrian.blogweb1.dto.PostUpdateRequestDTO;
 import com.adrian.blogweb1.model.Author;
 import com.adrian.blogweb1.model.Post;
+import com.adrian.blogweb1.model.PostOutboxEvent.EventType;
 import com.adrian.blogweb1.repository.IAuthorRepository;
 import com.adrian.blogweb1.repository.IPostRepository;
+import com.adrian.blogweb1.service.ICacheInvalidationService;
+import com.adrian.blogweb1.service.IPostChangeService;
+import com.adrian.blogweb1.service.IPostViewService;
+import com.adrian.blogweb1.service.ITrendingPostsService;
 import com.adrian.blogweb1.service.PostService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +27,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Collections;
 import java.util.List;
@@ -27,6 +38,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +50,21 @@ class PostServiceTest {
     @Mock
     private IAuthorRepository authorRepository;
 
+    @Mock
+    private IPostViewService postViewService;
+
+    @Mock
+    private ITrendingPostsService trendingPostsService;
+
+    @Mock
+    private IPostChangeService postChangeService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ICacheInvalidationService cacheInvalidationService;
+
     @InjectMocks
     private PostService postService;
 
@@ -85,6 +112,9 @@ class PostServiceTest {
         // --- 3. Assert ---
         // Verificamos que el método save del postRepository fue llamado exactamente 1 vez
         verify(postRepository).save(postCaptor.capture());
+        verify(trendingPostsService).recordCreation(any(), eq("Nuevo Post de Prueba"), eq("Autor de Prueba"));
+        verify(postChangeService).record(eq(EventType.CREATED), any(), eq("Nuevo Post de Prueba"));
+        verify(eventPublisher).publishEvent(any(PostCreatedEvent.class));
         Post postGuardado = postCaptor.getValue();
 
         // Verificamos que los datos en el objeto Post que se guardó son los correctos
@@ -92,6 +122,42 @@ class PostServiceTest {
         assertThat(postGuardado.getAuthor().getName()).isEqualTo("Autor de Prueba");
     }
 
+    @Test
+    @DisplayName("Crear, editar o borrar un post no debería tocar tendencias ni visitas si la transacción se revierte")
+    void writes_WhenTransactionRollsBack_ShouldNotTouchInMemoryState() {
+        // --- 1. Arrange ---
+        PostCreateRequestDTO request = new PostCreateRequestDTO();
+        request.setTitle("Nuevo Post de Prueba");
+        request.setContent("Contenido del post de prueba.");
+        request.setAuthorId(1L);
+        PostUpdateRequestDTO detallesNuevos = new PostUpdateRequestDTO();
+        detallesNuevos.setTitle("Título Nuevo");
+        detallesNuevos.setContent("Contenido Nuevo");
+
+        when(authorRepository.findById(1L)).thenReturn(Optional.of(author));
+        when(postRepository.save(any(Post.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(postRepository.findById(101L)).thenReturn(Optional.of(post));
+        when(postRepository.existsById(101L)).thenReturn(true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // --- 2. Act ---
+            postService.savePost(request);
+            postService.updatePost(101L, detallesNuevos);
+            postService.deletePost(101L);
+
+            // --- 3. Assert ---
+            // Nada se aplica antes del commit, y tras el rollback tampoco.
+            verifyNoInteractions(trendingPostsService, postViewService);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verifyNoInteractions(trendingPostsService, postViewService);
+    }
+
     @Test
     @DisplayName("Debería lanzar una excepción al intentar guardar un post con un autor que no existe")
     void savePost_WhenAuthorDoesNotExist_ShouldThrowException() {
@@ -117,39 +183,35 @@ class PostServiceTest {
     }
 
     @Test
-    @DisplayName("Debería devolver una lista de DTOs de posts cuando existen posts")
-    void getPosts_WhenPostsExist_ShouldReturnPostResponseDTOList() {
+    @DisplayName("Debería devolver la proyección de resumen de los posts sin leer el contenido")
+    void getPosts_WhenPostsExist_ShouldReturnPostSummaryDTOList() {
         // --- 1. Arrange ---
-        Post post2 = new Post();
-        post2.setIdPost(102L);
-        post2.setTitle("Título 2");
-        post2.setAuthor(author);
-        List<Post> listaDePosts = List.of(post, post2);
+        List<PostSummaryDTO> resumenes = List.of(
+                new PostSummaryDTO(101L, "Título de Prueba", "Contenido de Prueba", null, "Autor de Prueba"),
+                new PostSummaryDTO(102L, "Título 2", null, null, "Autor de Prueba"));
 
-        // b) Damos el guion al mock: "Cuando te llamen con findAll(), devuelve nuestra lista de posts"
-        when(postRepository.findAll()).thenReturn(listaDePosts);
+        // b) Damos el guion al mock: "Cuando te pidan los resúmenes, devuelve nuestra lista"
+        when(postRepository.findAllSummaries()).thenReturn(resumenes);
 
         // --- 2. Act ---
-        // Ejecutamos el método que queremos probar
-        List<PostResponseDTO> resultado = postService.getPosts();
+        List<PostSummaryDTO> resultado = postService.getPosts();
 
         // --- 3. Assert ---
-        // Verificamos que el resultado es el esperado
-        assertThat(resultado).isNotNull();
-        assertThat(resultado.size()).isEqualTo(2); // Debería haber 2 DTOs
-        assertThat(resultado.get(0).getTitle()).isEqualTo("Título de Prueba"); // Verificamos el título del primer DTO
-        assertThat(resultado.get(1).getAuthorName()).isEqualTo("Autor de Prueba"); // Verificamos el autor del segundo DTO
+        assertThat(resultado).hasSize(2);
+        assertThat(resultado.get(0).title()).isEqualTo("Título de Prueba");
+        assertThat(resultado.get(1).authorName()).isEqualTo("Autor de Prueba");
+        verify(postRepository, never()).findAll();
     }
 
     @Test
     @DisplayName("Debería devolver una lista vacía cuando no existen posts")
     void getPosts_WhenNoPostsExist_ShouldReturnEmptyList() {
         // --- 1. Arrange ---
-        // Damos el guion al mock: "Cuando te llamen con findAll(), devuelve una lista vacía"
-        when(postRepository.findAll()).thenReturn(Collections.emptyList());
+        // Damos el guion al mock: "Cuando te pidan los resúmenes, devuelve una lista vacía"
+        when(postRepository.findAllSummaries()).thenReturn(Collections.emptyList());
 
         // --- 2. Act ---
-        List<PostResponseDTO> resultado = postService.getPosts();
+        List<PostSummaryDTO> resultado = postService.getPosts();
 
         // --- 3. Assert ---
         // Verificamos que el resultado es una lista no nula pero vacía
@@ -157,12 +219,27 @@ class PostServiceTest {
         assertThat(resultado).isEmpty();
     }
 
+    @Test
+    @DisplayName("setContent debería mantener el extracto recortado en un límite de palabra")
+    void setContent_ShouldMaintainExcerpt() {
+        // --- 1. Arrange ---
+        String contenidoLargo = "palabra ".repeat(60) + "\n\n fin";
+
+        // --- 2. Act ---
+        post.setContent(contenidoLargo);
+
+        // --- 3. Assert ---
+        assertThat(post.getExcerpt()).endsWith("palabra…").hasSizeLessThanOrEqualTo(Post.EXCERPT_LENGTH + 1);
+        assertThat(Post.excerptOf("  corto \n texto ")).isEqualTo("corto texto");
+    }
+
     @Test
     @DisplayName("Debería devolver un Optional con un DTO de post cuando el ID existe")
     void getPostById_WhenPostExists_ShouldReturnOptionalOfPostResponseDTO() {
         // --- 1. Arrange ---
-        // b) Damos el guion al mock: "Cuando te pidan el post con ID 1, devuelve este post"
-        when(postRepository.findById(post.getIdPost())).thenReturn(Optional.of(post));
+        // b) Damos el guion al mock: "Cuando te pidan la proyección del post con ID 1, devuélvela"
+        when(postRepository.findResponseById(post.getIdPost())).thenReturn(Optional.of(new PostResponseDTO(
+                post.getIdPost(), post.getTitle(), post.getContent(), post.getCreatedAt(), "Autor de Prueba")));
 
         // --- 2. Act ---
         // Ejecutamos el método que queremos probar
@@ -174,6 +251,10 @@ class PostServiceTest {
         // Verificamos que los datos dentro del DTO son los correctos
         assertThat(resultado.get().getTitle()).isEqualTo("Título de Prueba");
         assertThat(resultado.get().getAuthorName()).isEqualTo("Autor de Prueba");
+        // La visita se registra en memoria, sin tocar el repositorio.
+        verify(postViewService, times(1)).recordView(post.getIdPost());
+        verify(trendingPostsService, times(1)).recordView(post.getIdPost(), "Título de Prueba", "Autor de Prueba");
+        verify(postRepository, never()).save(any(Post.class));
     }
 
     @Test
@@ -222,6 +303,8 @@ class PostServiceTest {
 
         // Verificamos que el objeto que se pasó al método save() tenía los datos correctos
         assertThat(postGuardado.getTitle()).isEqualTo("Título Nuevo");
+        // El resto de nodos refresca el título en sus tendencias.
+        verify(cacheInvalidationService).publish(CacheType.POST_METADATA, List.of("1"));
     }
 
     @Test
@@ -263,6 +346,8 @@ class PostServiceTest {
         // Verificamos que el método 'deleteById' de nuestro mock del repositorio
         // fue llamado exactamente 1 vez con el 'postId' correcto como argumento.
         verify(postRepository, times(1)).deleteById(postId);
+        verify(postViewService, times(1)).forget(postId);
+        verify(postChangeService, times(1)).record(EventType.DELETED, postId, null);
     }
 
     @Test
@@ -289,7 +374,7 @@ class PostServiceTest {
         long postIdQueNoExiste = 999L;
 
         // Damos el guion al mock: "Cuando te pidan el post con ID 999, devuelve un Optional vacío"
-        when(postRepository.findById(postIdQueNoExiste)).thenReturn(Optional.empty());
+        when(postRepository.findResponseById(postIdQueNoExiste)).thenReturn(Optional.empty());
 
         // --- 2. Act ---
         Optional<PostResponseDTO> resultado = postService.getPostById(postIdQueNoExiste);
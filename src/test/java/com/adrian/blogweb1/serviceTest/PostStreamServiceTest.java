@@ -0,0 +1,132 @@
+package com.adrian.blogweb1.serviceTest;
+
+import com.adrian.blogweb1.dto.PostSummaryDTO;
+import com.adrian.blogweb1.service.PostStreamService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PostStreamServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    @DisplayName("publish debería enviar el post serializado a todos los suscriptores")
+    void publish_ShouldSendToEverySubscriber() {
+        // --- 1. Arrange ---
+        TestablePostStreamService service = new TestablePostStreamService(Runnable::run, 4, 10, false);
+        RecordingEmitter first = (RecordingEmitter) service.subscribe();
+        RecordingEmitter second = (RecordingEmitter) service.subscribe();
+
+        // --- 2. Act ---
+        service.publish(post(7L));
+
+        // --- 3. Assert ---
+        assertThat(first.sentPayloads()).anyMatch(payload -> payload.contains("\"idPost\":7"));
+        assertThat(second.sentPayloads()).anyMatch(payload -> payload.contains("\"idPost\":7"));
+    }
+
+    @Test
+    @DisplayName("Un suscriptor que no consume y llena su búfer debería desconectarse sin afectar al resto")
+    void publish_WhenBufferIsFull_ShouldDropSlowConsumer() {
+        // --- 1. Arrange ---
+        // Executor que nunca ejecuta: simula un cliente cuyas escrituras no avanzan.
+        Executor stalledExecutor = task -> { };
+        TestablePostStreamService service = new TestablePostStreamService(stalledExecutor, 2, 10, false);
+        RecordingEmitter slow = (RecordingEmitter) service.subscribe();
+
+        // --- 2. Act ---
+        service.publish(post(1L));
+        service.publish(post(2L));
+        service.publish(post(3L));
+
+        // --- 3. Assert ---
+        assertThat(service.getSubscriberCount()).isZero();
+        assertThat(slow.completed).isTrue();
+    }
+
+    @Test
+    @DisplayName("Un suscriptor desconectado debería eliminarse al fallar el envío")
+    void publish_WhenSendFails_ShouldRemoveSubscriber() {
+        // --- 1. Arrange ---
+        TestablePostStreamService service = new TestablePostStreamService(Runnable::run, 4, 10, true);
+        service.subscribe();
+
+        // --- 2. Act ---
+        service.publish(post(1L));
+
+        // --- 3. Assert ---
+        assertThat(service.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("subscribe debería rechazar con 503 al superar el máximo de suscriptores")
+    void subscribe_WhenLimitReached_ShouldReject() {
+        // --- 1. Arrange ---
+        TestablePostStreamService service = new TestablePostStreamService(Runnable::run, 4, 1, false);
+        service.subscribe();
+
+        // --- 2. Act & 3. Assert ---
+        assertThatThrownBy(service::subscribe).isInstanceOf(ResponseStatusException.class);
+    }
+
+    private static PostSummaryDTO post(Long id) {
+        return new PostSummaryDTO(id, "Post " + id, "Extracto", null, "Autor");
+    }
+
+    private class TestablePostStreamService extends PostStreamService {
+
+        private final boolean failOnSend;
+
+        private TestablePostStreamService(Executor executor, int bufferSize, int maxSubscribers, boolean failOnSend) {
+            super(objectMapper, executor, bufferSize, 60_000, maxSubscribers);
+            this.failOnSend = failOnSend;
+        }
+
+        @Override
+        protected SseEmitter newEmitter(long timeoutMillis) {
+            return new RecordingEmitter(failOnSend);
+        }
+    }
+
+    // Emitter que registra lo enviado en lugar de escribir en una respuesta HTTP.
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final boolean failOnSend;
+        private final List<String> payloads = new ArrayList<>();
+        private boolean completed;
+
+        private RecordingEmitter(boolean failOnSend) {
+            this.failOnSend = failOnSend;
+        }
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+            if (failOnSend) {
+                throw new IOException("Conexión cerrada por el cliente");
+            }
+            items.forEach(item -> payloads.add(String.valueOf(item.getData())));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        private List<String> sentPayloads() {
+            return payloads;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.adrian.blogweb1.serviceTest;
+
+import com.adrian.blogweb1.repository.IPostRepository;
+import com.adrian.blogweb1.service.PostViewService;
+import com.adrian.blogweb1.utils.DatabasePlatform;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostViewServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DatabasePlatform databasePlatform;
+
+    @Mock
+    private IPostRepository postRepository;
+
+    private PostViewService postViewService;
+
+    @BeforeEach
+    void setUp() {
+        postViewService = new PostViewService(jdbcTemplate, databasePlatform, postRepository, 1000);
+    }
+
+    @Test
+    @DisplayName("flush debería volcar en PostgreSQL un único UPDATE ... FROM (VALUES ...) con los deltas acumulados")
+    void flush_OnPostgres_ShouldIssueSingleValuesUpdate() {
+        // --- 1. Arrange ---
+        when(databasePlatform.isPostgres()).thenReturn(true);
+        postViewService.recordView(1L);
+        postViewService.recordView(1L);
+        postViewService.recordView(2L);
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> argsCaptor = ArgumentCaptor.forClass(Object[].class);
+
+        // --- 2. Act ---
+        int flushed = postViewService.flush();
+
+        // --- 3. Assert ---
+        assertThat(flushed).isEqualTo(2);
+        verify(jdbcTemplate, times(1)).update(sqlCaptor.capture(), argsCaptor.capture());
+        assertThat(sqlCaptor.getValue()).contains("FROM (VALUES", "AS v(id_post, delta)");
+        assertThat(argsCaptor.getValue()).containsExactlyInAnyOrder(1L, 2L, 2L, 1L);
+        // Nada pendiente: el segundo volcado no hace I/O.
+        assertThat(postViewService.flush()).isZero();
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("flush debería usar un batch JDBC en bases de datos que no son PostgreSQL")
+    void flush_OnOtherDatabases_ShouldUseJdbcBatch() {
+        // --- 1. Arrange ---
+        when(databasePlatform.isPostgres()).thenReturn(false);
+        postViewService.recordView(5L);
+
+        // --- 2. Act ---
+        postViewService.flush();
+
+        // --- 3. Assert ---
+        verify(jdbcTemplate).batchUpdate(eq("UPDATE post SET view_count = view_count + ? WHERE id_post = ?"), anyList());
+    }
+
+    @Test
+    @DisplayName("flush debería conservar los deltas para el siguiente intento si la BD falla")
+    void flush_WhenDatabaseFails_ShouldKeepPendingViews() {
+        // --- 1. Arrange ---
+        when(databasePlatform.isPostgres()).thenReturn(false);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("BD caída"))
+                .thenReturn(new int[]{1});
+        postViewService.recordView(3L);
+
+        // --- 2. Act ---
+        int firstAttempt = postViewService.flush();
+        int secondAttempt = postViewService.flush();
+
+        // --- 3. Assert ---
+        assertThat(firstAttempt).isZero();
+        assertThat(secondAttempt).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("flush debería reintentar solo los bloques que no llegaron a aplicarse")
+    void flush_WhenLaterChunkFails_ShouldRetryOnlyUnappliedChunks() {
+        // --- 1. Arrange ---
+        PostViewService service = new PostViewService(jdbcTemplate, databasePlatform, postRepository, 1);
+        when(databasePlatform.isPostgres()).thenReturn(false);
+        // Cada bloque (un post) se copia al recibirlo: la lista que llega es una vista sobre los deltas.
+        List<Object[]> applied = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenAnswer(invocation -> {
+                    applied.addAll(invocation.<List<Object[]>>getArgument(1));
+                    return new int[]{1};
+                })
+                .thenThrow(new DataAccessResourceFailureException("BD caída"))
+                .thenAnswer(invocation -> {
+                    applied.addAll(invocation.<List<Object[]>>getArgument(1));
+                    return new int[]{1};
+                });
+        service.recordView(1L);
+        service.recordView(2L);
+        service.recordView(2L);
+        service.recordView(3L);
+        service.recordView(3L);
+        service.recordView(3L);
+
+        // --- 2. Act ---
+        int firstAttempt = service.flush();
+        int secondAttempt = service.flush();
+
+        // --- 3. Assert ---
+        assertThat(firstAttempt).isEqualTo(1);
+        assertThat(secondAttempt).isEqualTo(2);
+        // Cada post se vuelca una sola vez y con su delta completo.
+        assertThat(applied).extracting(delta -> delta[1] + "=" + delta[0])
+                .containsExactlyInAnyOrder("1=1", "2=2", "3=3");
+        assertThat(service.flush()).isZero();
+    }
+
+    @Test
+    @DisplayName("getMostViewed debería acotar el límite solicitado")
+    void getMostViewed_ShouldClampLimit() {
+        // --- 1. Arrange ---
+        when(postRepository.findMostViewed(any())).thenReturn(List.of());
+
+        // --- 2. Act ---
+        postViewService.getMostViewed(10_000);
+
+        // --- 3. Assert ---
+        verify(postRepository).findMostViewed(argThat(pageable -> pageable.getPageSize() == 100));
+    }
+}
@@ -0,0 +1,158 @@
+package com.adrian.blogweb1.serviceTest;
+
+import com.adrian.blogweb1.dto.TokenPairDTO;
+import com.adrian.blogweb1.exception.InvalidTokenException;
+import com.adrian.blogweb1.model.RefreshToken;
+import com.adrian.blogweb1.model.UserSec;
+import com.adrian.blogweb1.repository.IRefreshTokenRepository;
+import com.adrian.blogweb1.repository.IUserRepository;
+import com.adrian.blogweb1.service.RefreshTokenService;
+import com.adrian.blogweb1.utils.JwtUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Mock
+    private IRefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private IUserRepository userRepository;
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    private RefreshTokenService refreshTokenService;
+
+    private UserSec user;
+
+    @BeforeEach
+    void setUp() {
+        Clock fixedClock = Clock.fixed(NOW, ZoneOffset.UTC);
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, userRepository, jwtUtils,
+                fixedClock, Duration.ofDays(14).toMillis());
+
+        user = new UserSec();
+        user.setIdUserSec(1L);
+        user.setUsername("testuser");
+        user.setEnabled(true);
+    }
+
+    @Test
+    @DisplayName("issueRefreshToken debería guardar solo el hash del token con la caducidad configurada")
+    void issueRefreshToken_ShouldPersistHashedToken() {
+        // --- 1. Arrange ---
+        when(userRepository.findIdByUsername("testuser")).thenReturn(Optional.of(1L));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        ArgumentCaptor<RefreshToken> tokenCaptor = ArgumentCaptor.forClass(RefreshToken.class);
+
+        // --- 2. Act ---
+        String rawToken = refreshTokenService.issueRefreshToken("testuser");
+
+        // --- 3. Assert ---
+        verify(refreshTokenRepository).save(tokenCaptor.capture());
+        RefreshToken saved = tokenCaptor.getValue();
+        assertThat(rawToken).isNotBlank();
+        assertThat(saved.getTokenHash()).hasSize(64).isNotEqualTo(rawToken);
+        assertThat(saved.getFamilyId()).isNotBlank();
+        assertThat(saved.getExpiresAt()).isEqualTo(NOW.plus(Duration.ofDays(14)));
+        assertThat(saved.isRevoked()).isFalse();
+    }
+
+    @Test
+    @DisplayName("rotate debería emitir un nuevo par de tokens de la misma familia")
+    void rotate_WithValidToken_ShouldIssueNewPair() {
+        // --- 1. Arrange ---
+        RefreshToken current = buildToken(false, NOW.plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.markAsUsed(current.getIdRefreshToken())).thenReturn(1);
+        when(jwtUtils.createToken(any(Authentication.class))).thenReturn("new.access.token");
+        ArgumentCaptor<RefreshToken> tokenCaptor = ArgumentCaptor.forClass(RefreshToken.class);
+
+        // --- 2. Act ---
+        TokenPairDTO result = refreshTokenService.rotate("raw-token");
+
+        // --- 3. Assert ---
+        assertThat(result.username()).isEqualTo("testuser");
+        assertThat(result.accessToken()).isEqualTo("new.access.token");
+        assertThat(result.refreshToken()).isNotEqualTo("raw-token");
+        verify(refreshTokenRepository).save(tokenCaptor.capture());
+        assertThat(tokenCaptor.getValue().getFamilyId()).isEqualTo("family-1");
+        verify(refreshTokenRepository, never()).revokeFamily(anyString());
+    }
+
+    @Test
+    @DisplayName("rotate debería revocar toda la familia si el token ya había sido usado")
+    void rotate_WithReusedToken_ShouldRevokeFamily() {
+        // --- 1. Arrange ---
+        RefreshToken reused = buildToken(true, NOW.plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.of(reused));
+
+        // --- 2. Act & 3. Assert ---
+        assertThatThrownBy(() -> refreshTokenService.rotate("raw-token"))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessageContaining("reutilizado");
+        verify(refreshTokenRepository).revokeFamily("family-1");
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+        verifyNoInteractions(jwtUtils);
+    }
+
+    @Test
+    @DisplayName("rotate debería rechazar un token expirado")
+    void rotate_WithExpiredToken_ShouldThrow() {
+        // --- 1. Arrange ---
+        RefreshToken expired = buildToken(false, NOW.minusSeconds(1));
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.of(expired));
+        when(refreshTokenRepository.markAsUsed(expired.getIdRefreshToken())).thenReturn(1);
+
+        // --- 2. Act & 3. Assert ---
+        assertThatThrownBy(() -> refreshTokenService.rotate("raw-token"))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessageContaining("expirado");
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    @DisplayName("rotate debería rechazar un token desconocido")
+    void rotate_WithUnknownToken_ShouldThrow() {
+        // --- 1. Arrange ---
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.empty());
+
+        // --- 2. Act & 3. Assert ---
+        assertThatThrownBy(() -> refreshTokenService.rotate("unknown"))
+                .isInstanceOf(InvalidTokenException.class);
+    }
+
+    private RefreshToken buildToken(boolean revoked, Instant expiresAt) {
+        RefreshToken token = new RefreshToken();
+        token.setIdRefreshToken(10L);
+        token.setTokenHash("hash");
+        token.setFamilyId("family-1");
+        token.setUser(user);
+        token.setCreatedAt(NOW.minusSeconds(3600));
+        token.setExpiresAt(expiresAt);
+        token.setRevoked(revoked);
+        return token;
+    }
+}
@@ -4,11 +4,14 @@ package com.adrian.blogweb1.serviceTest;
 import com.adrian.blogweb1.exception.ResourceNotFoundException;
 import com.adrian.blogweb1.model.Permission;
 import com.adrian.blogweb1.model.Role;
-import com.adrian.blogweb1.model.UserSec;
 import com.adrian.blogweb1.repository.IPermissionRepository;
 import com.adrian.blogweb1.repository.IRoleRepository;
 import com.adrian.blogweb1.repository.IUserRepository;
+import com.adrian.blogweb1.security.config.RoleEpochRegistry;
+import com.adrian.blogweb1.security.config.OAuth2UserCache;
+import com.adrian.blogweb1.security.config.UserDetailsCache;
 import com.adrian.blogweb1.service.DatabaseInitializationService;
+import com.adrian.blogweb1.service.IPermissionService;
 import com.adrian.blogweb1.service.RoleService;
 import com.adrian.blogweb1.service.UserService;
 import org.junit.jupiter.api.DisplayName;
@@ -18,7 +21,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -26,6 +28,7 @@ import java.util.Set;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -39,11 +42,20 @@ class RoleServiceTest {
     private IRoleRepository roleRepository;
 
     @Mock
-    private IPermissionRepository permissionRepository;
+    private IPermissionService permissionService;
 
     @Mock
     private IUserRepository userRepository;
 
+    @Mock
+    private RoleEpochRegistry roleEpochRegistry;
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private OAuth2UserCache oAuth2UserCache;
+
 
     @InjectMocks
     private RoleService roleService;
@@ -89,28 +101,28 @@ class RoleServiceTest {
     }
 
     @Test
-    @DisplayName("deleteRole debería desasociar el rol de los usuarios y luego eliminarlo")
+    @DisplayName("deleteRole debería desasociar el rol con un borrado masivo, sin cargar usuarios, y luego eliminarlo")
     void deleteRole_WhenRoleExists_ShouldDisassociateAndThenDelete() {
         // --- 1. Arrange ---
         long roleId = 1L;
         Role roleToDelete = new Role();
         roleToDelete.setIdRole(roleId);
+        roleToDelete.setRole("ROLE_USER");
 
-        UserSec userWithRole = new UserSec();
-        userWithRole.setRolesList(new HashSet<>(Set.of(roleToDelete)));
-
-        // Guion 1: Cuando se busque el rol, se encontrará.
+        // Guion: Cuando se busque el rol, se encontrará.
         when(roleRepository.findById(roleId)).thenReturn(Optional.of(roleToDelete));
-        // Guion 2: Cuando se busquen usuarios con ese rol, se encontrará una lista con un usuario.
-        when(userRepository.findByRolesListContains(roleToDelete)).thenReturn(List.of(userWithRole));
+        when(userRepository.removeRoleFromAllUsers(roleId)).thenReturn(3);
 
         // --- 2. Act ---
         roleService.deleteRole(roleId);
 
         // --- 3. Assert ---
-        verify(userRepository, times(1)).saveAll(List.of(userWithRole)); // Verificamos que se guardan los usuarios actualizados
+        verify(userRepository).removeRoleFromAllUsers(roleId); // Un único DELETE sobre user_roles
+        verify(userRepository, never()).findByRolesListContains(any());
+        verify(userRepository, never()).saveAll(anyList());
         verify(roleRepository, times(1)).delete(roleToDelete); // Verificamos que el rol se elimina
-        assertThat(userWithRole.getRolesList()).isEmpty(); // Verificamos que la lista de roles del usuario ahora está vacía
+        verify(roleEpochRegistry).remove("ROLE_USER"); // Los JWT con el rol pasan a ser obsoletos
+        verify(oAuth2UserCache).evictAll(); // Los logins de GitHub cacheados vuelven a resolver sus roles
     }
 
 
@@ -159,6 +171,84 @@ class RoleServiceTest {
         verify(roleRepository, times(1)).save(rolAEnviar);
     }
 
+    @Test
+    @DisplayName("updateRolePermissions debería aplicar solo la diferencia y avanzar la época del rol")
+    void updateRolePermissions_ShouldApplyDiffAndBumpRoleEpoch() {
+        // --- 1. Arrange ---
+        Role role = new Role();
+        role.setIdRole(1L);
+        role.setRole("EDITOR");
+        role.getPermissionsList().addAll(Set.of(permission(4L, "READ"), permission(6L, "DELETE")));
+
+        Role updatedRole = new Role();
+        updatedRole.setIdRole(1L);
+        updatedRole.setRole("EDITOR");
+        updatedRole.setAuthzEpoch(1L);
+
+        when(roleRepository.findById(1L)).thenReturn(Optional.of(role), Optional.of(updatedRole));
+        when(permissionService.findAllByIds(Set.of(4L, 5L)))
+                .thenReturn(Set.of(permission(4L, "READ"), permission(5L, "UPDATE")));
+
+        // --- 2. Act ---
+        Role resultado = roleService.updateRolePermissions(1L, Set.of(permission(4L, null), permission(5L, null)));
+
+        // --- 3. Assert ---
+        // READ se mantiene: solo se da de alta UPDATE y de baja DELETE.
+        verify(roleRepository).addPermissions(1L, Set.of(5L));
+        verify(roleRepository).removePermissions(1L, Set.of(6L));
+        verify(roleRepository).bumpEpoch(1L);
+        verify(roleRepository, never()).save(any(Role.class));
+        verify(roleEpochRegistry).register(updatedRole);
+        verify(userDetailsCache).evictAll();
+        verify(oAuth2UserCache).evictAll();
+        assertThat(resultado).isSameAs(updatedRole);
+    }
+
+    @Test
+    @DisplayName("updateRolePermissions no debería tocar la BD ni la época si los permisos no cambian")
+    void updateRolePermissions_WithSamePermissions_ShouldDoNothing() {
+        // --- 1. Arrange ---
+        Role role = new Role();
+        role.setIdRole(1L);
+        role.getPermissionsList().add(permission(4L, "READ"));
+        when(roleRepository.findById(1L)).thenReturn(Optional.of(role));
+        when(permissionService.findAllByIds(Set.of(4L))).thenReturn(Set.of(permission(4L, "READ")));
+
+        // --- 2. Act ---
+        Role resultado = roleService.updateRolePermissions(1L, Set.of(permission(4L, null)));
+
+        // --- 3. Assert ---
+        assertThat(resultado).isSameAs(role);
+        verify(roleRepository, never()).bumpEpoch(any());
+        verify(roleEpochRegistry, never()).register(any(Role.class));
+        verify(userDetailsCache, never()).evictAll();
+        verify(oAuth2UserCache, never()).evictAll();
+    }
+
+    @Test
+    @DisplayName("updateRolePermissions debería lanzar ResourceNotFoundException si falta algún permiso")
+    void updateRolePermissions_WithMissingPermission_ShouldThrowWithoutChanges() {
+        // --- 1. Arrange ---
+        Role role = new Role();
+        role.setIdRole(1L);
+        when(roleRepository.findById(1L)).thenReturn(Optional.of(role));
+        when(permissionService.findAllByIds(Set.of(99L)))
+                .thenThrow(new ResourceNotFoundException("Permisos no encontrados con ID: [99]"));
+
+        // --- 2. Act & 3. Assert ---
+        assertThrows(ResourceNotFoundException.class,
+                () -> roleService.updateRolePermissions(1L, Set.of(permission(99L, null))));
+        verify(roleRepository, never()).addPermissions(any(), any());
+        verify(roleRepository, never()).bumpEpoch(any());
+    }
+
+    private static Permission permission(Long id, String name) {
+        Permission permission = new Permission();
+        permission.setIdPermission(id);
+        permission.setPermissionName(name);
+        return permission;
+    }
+
     @ExtendWith(MockitoExtension.class)
     static
     class DatabaseInitializationServiceTest {
@@ -0,0 +1,160 @@
+package com.adrian.blogweb1.serviceTest;
+
+import com.adrian.blogweb1.model.RevokedToken;
+import com.adrian.blogweb1.model.RevokedToken.RevocationType;
+import com.adrian.blogweb1.repository.IRevokedTokenRepository;
+import com.adrian.blogweb1.service.TokenRevocationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Mock
+    private IRevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationService = buildService(1000);
+    }
+
+    @Test
+    @DisplayName("isRevoked debería devolver false sin consultar la BD para un token no revocado")
+    void isRevoked_WhenNotRevoked_ShouldNotHitDatabase() {
+        // --- 2. Act ---
+        boolean revoked = tokenRevocationService.isRevoked("jti-1", "testuser", NOW);
+
+        // --- 3. Assert ---
+        assertThat(revoked).isFalse();
+        verifyNoInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    @DisplayName("revokeToken debería persistir la revocación y aplicarla de inmediato en este nodo")
+    void revokeToken_ShouldPersistAndApplyLocally() {
+        // --- 2. Act ---
+        tokenRevocationService.revokeToken("jti-1", NOW.plusSeconds(900));
+
+        // --- 3. Assert ---
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        assertThat(tokenRevocationService.isRevoked("jti-1", "testuser", NOW)).isTrue();
+        assertThat(tokenRevocationService.isRevoked("jti-2", "testuser", NOW)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Una revocación dentro de una transacción que se revierte no debería aplicarse en este nodo")
+    void revokeSubject_WhenTransactionRollsBack_ShouldNotApplyLocally() {
+        // --- 1. Arrange ---
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // --- 2. Act ---
+            tokenRevocationService.revokeSubject("rolledback");
+            tokenRevocationService.revokeSubject("committed");
+
+            // --- 3. Assert ---
+            // Antes de confirmar, ninguna de las dos se aplica en memoria.
+            assertThat(tokenRevocationService.isRevoked("jti-1", "committed", NOW.minusSeconds(60))).isFalse();
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            synchronizations.get(1).afterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(tokenRevocationService.isRevoked("jti-1", "rolledback", NOW.minusSeconds(60))).isFalse();
+        assertThat(tokenRevocationService.isRevoked("jti-2", "committed", NOW.minusSeconds(60))).isTrue();
+    }
+
+    @Test
+    @DisplayName("revokeSubject debería invalidar solo los tokens emitidos hasta el momento de la revocación")
+    void revokeSubject_ShouldRejectOnlyOlderTokens() {
+        // --- 2. Act ---
+        tokenRevocationService.revokeSubject("testuser");
+
+        // --- 3. Assert ---
+        assertThat(tokenRevocationService.isRevoked("jti-1", "testuser", NOW.minusSeconds(60))).isTrue();
+        assertThat(tokenRevocationService.isRevoked("jti-2", "testuser", NOW.plusSeconds(60))).isFalse();
+        assertThat(tokenRevocationService.isRevoked("jti-3", "otheruser", NOW.minusSeconds(60))).isFalse();
+    }
+
+    @Test
+    @DisplayName("refresh debería cargar solo las revocaciones nuevas desde el último id visto")
+    void refresh_ShouldLoadIncrementally() {
+        // --- 1. Arrange ---
+        when(revokedTokenRepository.findActiveAfter(0L, NOW)).thenReturn(List.of(row(7L, "jti-remote")));
+        when(revokedTokenRepository.findActiveAfter(7L, NOW)).thenReturn(List.of());
+
+        // --- 2. Act ---
+        tokenRevocationService.refresh();
+        tokenRevocationService.refresh();
+
+        // --- 3. Assert ---
+        assertThat(tokenRevocationService.isRevoked("jti-remote", "testuser", NOW)).isTrue();
+        verify(revokedTokenRepository).findActiveAfter(0L, NOW);
+        verify(revokedTokenRepository).findActiveAfter(7L, NOW);
+    }
+
+    @Test
+    @DisplayName("isRevoked debería confirmar en BD si el conjunto exacto se ha desbordado")
+    void isRevoked_WhenExactSetOverflowed_ShouldFallBackToDatabase() {
+        // --- 1. Arrange ---
+        tokenRevocationService = buildService(1);
+        when(revokedTokenRepository.findActiveAfter(anyLong(), eq(NOW)))
+                .thenReturn(List.of(row(1L, "jti-1"), row(2L, "jti-2")));
+        when(revokedTokenRepository.findLatestRevocation(RevocationType.JTI, "jti-2", NOW))
+                .thenReturn(Optional.of(NOW));
+        tokenRevocationService.refresh();
+
+        // --- 2. Act & 3. Assert ---
+        assertThat(tokenRevocationService.isRevoked("jti-1", "testuser", NOW)).isTrue();
+        assertThat(tokenRevocationService.isRevoked("jti-2", "testuser", NOW)).isTrue();
+        verify(revokedTokenRepository, times(1)).findLatestRevocation(RevocationType.JTI, "jti-2", NOW);
+    }
+
+    @Test
+    @DisplayName("purgeAndRebuild debería borrar las revocaciones caducadas y reconstruir el filtro")
+    void purgeAndRebuild_ShouldDropExpiredEntries() {
+        // --- 1. Arrange ---
+        tokenRevocationService.revokeToken("jti-old", NOW.plusSeconds(1));
+        when(revokedTokenRepository.deleteExpired(NOW)).thenReturn(1);
+        when(revokedTokenRepository.findActiveAfter(0L, NOW)).thenReturn(List.of());
+
+        // --- 2. Act ---
+        tokenRevocationService.purgeAndRebuild();
+
+        // --- 3. Assert ---
+        assertThat(tokenRevocationService.isRevoked("jti-old", "testuser", NOW)).isFalse();
+    }
+
+    private TokenRevocationService buildService(int maxExactEntries) {
+        return new TokenRevocationService(revokedTokenRepository, Clock.fixed(NOW, ZoneOffset.UTC),
+                900000L, 1000L, 0.001, maxExactEntries);
+    }
+
+    private RevokedToken row(Long id, String jti) {
+        return new RevokedToken(id, RevocationType.JTI, jti, NOW.minusSeconds(10), NOW.plusSeconds(900));
+    }
+}
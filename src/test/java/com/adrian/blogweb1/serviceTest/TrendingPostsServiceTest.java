@@ -0,0 +1,135 @@
+package com.adrian.blogweb1.serviceTest;
+
+import com.adrian.blogweb1.dto.TrendingPostDTO;
+import com.adrian.blogweb1.service.TrendingPostsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrendingPostsServiceTest {
+
+    private static final long HALF_LIFE_MINUTES = 60;
+
+    private MutableClock clock;
+    private TrendingPostsService trendingPostsService;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-01-01T10:00:00Z"));
+        trendingPostsService = new TrendingPostsService(clock, HALF_LIFE_MINUTES, 2, 100, 5);
+    }
+
+    @Test
+    @DisplayName("Debería devolver los K posts con más puntuación en orden descendente")
+    void snapshot_ShouldKeepTopKOrderedByScore() {
+        // --- 1. Arrange ---
+        view(1L, 1);
+        view(2L, 3);
+        view(3L, 2);
+
+        // --- 2. Act ---
+        trendingPostsService.snapshot();
+        List<TrendingPostDTO> trending = trendingPostsService.getTrending();
+
+        // --- 3. Assert ---
+        assertThat(trending).extracting(TrendingPostDTO::idPost).containsExactly(2L, 3L);
+        assertThat(trending.get(0).score()).isCloseTo(3.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Las visitas antiguas deberían pesar la mitad tras cada vida media")
+    void snapshot_ShouldDecayOlderActivity() {
+        // --- 1. Arrange ---
+        view(1L, 4);                               // 4 visitas hace dos vidas medias -> vale 1
+        clock.advance(Duration.ofMinutes(2 * HALF_LIFE_MINUTES));
+        view(2L, 2);                               // 2 visitas ahora -> vale 2
+
+        // --- 2. Act ---
+        trendingPostsService.snapshot();
+
+        // --- 3. Assert ---
+        List<TrendingPostDTO> trending = trendingPostsService.getTrending();
+        assertThat(trending).extracting(TrendingPostDTO::idPost).containsExactly(2L, 1L);
+        assertThat(trending.get(1).score()).isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("La creación debería contar con su peso y los empates resolverse por id")
+    void snapshot_ShouldWeightCreationsAndBreakTiesById() {
+        // --- 1. Arrange ---
+        trendingPostsService.recordCreation(9L, "Nuevo", "Autor");
+        view(4L, 5);
+
+        // --- 2. Act ---
+        trendingPostsService.snapshot();
+
+        // --- 3. Assert ---
+        assertThat(trendingPostsService.getTrending()).extracting(TrendingPostDTO::idPost).containsExactly(4L, 9L);
+    }
+
+    @Test
+    @DisplayName("Debería seguir ordenando bien tras renormalizar la escala y olvidar los posts borrados")
+    void snapshot_AfterRenormalization_ShouldPreserveRanking() {
+        // --- 1. Arrange ---
+        view(1L, 1);
+        clock.advance(Duration.ofMinutes(65 * HALF_LIFE_MINUTES));
+        view(2L, 1);
+        view(3L, 3);
+        trendingPostsService.forget(3L);
+
+        // --- 2. Act ---
+        trendingPostsService.snapshot();
+        view(2L, 1);
+        trendingPostsService.snapshot();
+
+        // --- 3. Assert ---
+        List<TrendingPostDTO> trending = trendingPostsService.getTrending();
+        assertThat(trending).extracting(TrendingPostDTO::idPost).containsExactly(2L);
+        assertThat(trending.get(0).score()).isCloseTo(2.0, within(1e-9));
+    }
+
+    private void view(Long idPost, int times) {
+        for (int i = 0; i < times; i++) {
+            trendingPostsService.recordView(idPost, "Post " + idPost, "Autor");
+        }
+    }
+
+    // Reloj controlable desde el test para que el decaimiento sea determinista.
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -4,21 +4,39 @@ import com.adrian.blogweb1.model.Permission;
 import com.adrian.blogweb1.model.Role;
 import com.adrian.blogweb1.model.UserSec;
 import com.adrian.blogweb1.repository.IUserRepository;
+import com.adrian.blogweb1.security.config.UnknownUsernameCache;
+import com.adrian.blogweb1.security.config.UserDetailsCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.adrian.blogweb1.service.ICacheInvalidationService;
 import com.adrian.blogweb1.service.UserDetailsServiceImp;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +45,13 @@ class UserDetailsServiceImpTest {
     @Mock
     private IUserRepository userRepository;
 
+    @Spy
+    private UnknownUsernameCache unknownUsernameCache = new UnknownUsernameCache(60, 100, mock(ICacheInvalidationService.class));
+
+    @Spy
+    private UserDetailsCache userDetailsCache = new UserDetailsCache(60, 100,
+            new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class), mock(ICacheInvalidationService.class));
+
     @InjectMocks
     private UserDetailsServiceImp userDetailsService;
 
@@ -89,4 +114,90 @@ class UserDetailsServiceImpTest {
 
         assertThat(exception.getMessage()).isEqualTo("Usuario no encontrado con el nombre: " + username);
     }
+
+    @Test
+    @DisplayName("updatePassword debería guardar el nuevo hash y devolver el usuario con él")
+    void updatePassword_shouldPersistNewHashAndKeepAuthorities() {
+        // --- 1. Arrange ---
+        UserDetails current = User.withUsername("testuser").password("$2a$10$antiguo").authorities("READ").build();
+        when(userRepository.updatePassword("testuser", "{argon2}nuevo")).thenReturn(1);
+
+        // --- 2. Act ---
+        UserDetails updated = userDetailsService.updatePassword(current, "{argon2}nuevo");
+
+        // --- 3. Assert ---
+        verify(userRepository).updatePassword("testuser", "{argon2}nuevo");
+        assertThat(updated.getPassword()).isEqualTo("{argon2}nuevo");
+        assertThat(updated.getAuthorities()).extracting("authority").containsExactly("READ");
+    }
+
+    @Test
+    @DisplayName("El segundo login de la misma cuenta debería resolverse desde la caché sin consultar la BD")
+    void loadUserByUsername_whenCached_shouldSkipRepository() {
+        // --- 1. Arrange ---
+        UserSec userFromDb = new UserSec();
+        userFromDb.setUsername("servicio");
+        userFromDb.setPassword("hash");
+        when(userRepository.findByUsername("servicio")).thenReturn(Optional.of(userFromDb));
+
+        // --- 2. Act ---
+        UserDetails first = userDetailsService.loadUserByUsername("servicio");
+        ((User) first).eraseCredentials(); // lo que hace ProviderManager tras autenticar
+        UserDetails second = userDetailsService.loadUserByUsername("servicio");
+
+        // --- 3. Assert ---
+        verify(userRepository, times(1)).findByUsername("servicio");
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPassword()).isEqualTo("hash");
+    }
+
+    @Test
+    @DisplayName("Un username ya visto como inexistente no debería volver a consultar la BD")
+    void loadUserByUsername_whenUsernameKnownMissing_shouldSkipRepository() {
+        // --- 1. Arrange ---
+        when(userRepository.findByUsername("fantasma")).thenReturn(Optional.empty());
+
+        // --- 2. Act ---
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("fantasma"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("fantasma"));
+
+        // --- 3. Assert ---
+        verify(userRepository, times(1)).findByUsername("fantasma");
+    }
+
+    @Test
+    @DisplayName("Tras forget, el username debería volver a buscarse en la BD")
+    void loadUserByUsername_afterForget_shouldQueryRepositoryAgain() {
+        // --- 1. Arrange ---
+        when(userRepository.findByUsername("nuevo")).thenReturn(Optional.empty());
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("nuevo"));
+
+        // --- 2. Act ---
+        unknownUsernameCache.forget("nuevo");
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("nuevo"));
+
+        // --- 3. Assert ---
+        verify(userRepository, times(2)).findByUsername("nuevo");
+    }
+
+    @Test
+    @DisplayName("El login con un username cacheado como inexistente debería seguir haciendo la comparación ficticia de contraseña")
+    void authenticate_whenUsernameKnownMissing_shouldStillRunDummyPasswordCompare() {
+        // --- 1. Arrange ---
+        PasswordEncoder passwordEncoder = spy(new BCryptPasswordEncoder(4));
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(passwordEncoder);
+        provider.setUserDetailsService(userDetailsService);
+        when(userRepository.findByUsername("fantasma")).thenReturn(Optional.empty());
+
+        // --- 2. Act ---
+        for (int i = 0; i < 2; i++) {
+            assertThrows(BadCredentialsException.class, () ->
+                    provider.authenticate(new UsernamePasswordAuthenticationToken("fantasma", "clave")));
+        }
+
+        // --- 3. Assert ---
+        // La BD solo se consulta la primera vez, pero el hash ficticio se compara en ambos intentos.
+        verify(userRepository, times(1)).findByUsername("fantasma");
+        verify(passwordEncoder, times(2)).matches(eq("clave"), anyString());
+    }
 }
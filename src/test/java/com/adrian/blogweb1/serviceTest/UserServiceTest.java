@@ -5,8 +5,13 @@ import com.adrian.blogweb1.model.Role;
 import com.adrian.blogweb1.model.UserSec;
 import com.adrian.blogweb1.repository.IRoleRepository;
 import com.adrian.blogweb1.repository.IUserRepository;
+import com.adrian.blogweb1.security.config.UnknownUsernameCache;
+import com.adrian.blogweb1.security.config.OAuth2UserCache;
+import com.adrian.blogweb1.security.config.UserDetailsCache;
 import com.adrian.blogweb1.security.config.props.DefaultAdminProperties;
+import com.adrian.blogweb1.service.IRefreshTokenService;
 import com.adrian.blogweb1.service.IRoleService;
+import com.adrian.blogweb1.service.ITokenRevocationService;
 import com.adrian.blogweb1.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -51,6 +56,21 @@ class UserServiceTest {
     @Mock
     private DefaultAdminProperties adminProperties; // Necesario para el test de createDefaultUser
 
+    @Mock
+    private ITokenRevocationService tokenRevocationService;
+
+    @Mock
+    private IRefreshTokenService refreshTokenService;
+
+    @Mock
+    private UnknownUsernameCache unknownUsernameCache;
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private OAuth2UserCache oAuth2UserCache;
+
 
     // 3. @InjectMocks: Crea una instancia REAL de UserService, pero en lugar de inyectarle
     // un IUserRepository real, le inyecta el MOCK que creamos arriba.
@@ -206,6 +226,8 @@ class UserServiceTest {
         // Verificación extra (opcional pero muy buena práctica):
         // Verificamos que el método 'encode' del passwordEncoder fue llamado exactamente 1 vez.
         verify(passwordEncoder, times(1)).encode("password123");
+        // El username deja de figurar como inexistente para el login.
+        verify(unknownUsernameCache).forget("newUser");
     }
 
     @Test
@@ -281,6 +303,39 @@ class UserServiceTest {
         assertThat(usuarioCapturado.getEmail()).isEqualTo("email_nuevo@test.com");
         // ¿El ID sigue siendo el mismo? (¡Importante!)
         assertThat(usuarioCapturado.getIdUserSec()).isEqualTo(userId);
+        // El login deja de ver la versión cacheada con el nombre antiguo y con el nuevo.
+        verify(userDetailsCache).evict("usuario_antiguo");
+        verify(userDetailsCache).evict("usuario_nuevo");
+        verify(oAuth2UserCache).evictUser("usuario_antiguo");
+    }
+
+    @Test
+    @DisplayName("updateUser debería revocar los tokens del usuario cuando se deshabilita su cuenta")
+    void updateUser_WhenUserIsDisabled_ShouldRevokeTokens() {
+        // --- 1. Arrange ---
+        long userId = 1L;
+        UserSec usuarioExistente = new UserSec();
+        usuarioExistente.setIdUserSec(userId);
+        usuarioExistente.setUsername("testuser");
+        usuarioExistente.setEnabled(true);
+        usuarioExistente.setAccountNotLocked(true);
+        usuarioExistente.setAccountNotExpired(true);
+
+        UserSec detallesNuevos = new UserSec();
+        detallesNuevos.setUsername("testuser");
+        detallesNuevos.setEnabled(false);
+        detallesNuevos.setAccountNotLocked(true);
+        detallesNuevos.setAccountNotExpired(true);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(usuarioExistente));
+        when(userRepository.save(any(UserSec.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // --- 2. Act ---
+        userService.updateUser(userId, detallesNuevos);
+
+        // --- 3. Assert ---
+        verify(tokenRevocationService, times(1)).revokeSubject("testuser");
+        verify(refreshTokenService, times(1)).revokeAllForUser(userId);
     }
 
     @Test
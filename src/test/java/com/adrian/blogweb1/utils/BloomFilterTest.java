@@ -0,0 +1,56 @@
+package com.adrian.blogweb1.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("mightContain nunca debería dar falsos negativos")
+    void mightContain_ShouldNeverReturnFalseNegatives() {
+        // --- 1. Arrange ---
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+
+        // --- 2. Act ---
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("jti-" + i);
+        }
+
+        // --- 3. Assert ---
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("jti-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("La tasa de falsos positivos debería mantenerse cerca de la configurada")
+    void mightContain_ShouldKeepFalsePositiveRateNearConfigured() {
+        // --- 1. Arrange ---
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("jti-" + i);
+        }
+
+        // --- 2. Act ---
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // --- 3. Assert ---
+        // Margen amplio para que el test no sea frágil: el valor esperado ronda el 1%.
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    @DisplayName("create debería rechazar parámetros inválidos")
+    void create_WithInvalidArguments_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1.5));
+    }
+}
@@ -1,33 +1,67 @@
 package com.adrian.blogweb1.utils;
 
+import com.adrian.blogweb1.model.Role;
+import com.adrian.blogweb1.dto.PermissionNameDTO;
+import com.adrian.blogweb1.repository.IPermissionRepository;
+import com.adrian.blogweb1.repository.IRoleRepository;
+import com.adrian.blogweb1.security.config.JwtSigningKeys;
+import com.adrian.blogweb1.security.config.PermissionBitRegistry;
+import com.adrian.blogweb1.security.config.RoleEpochRegistry;
+import com.adrian.blogweb1.security.config.props.JwtSigningProperties;
+import com.adrian.blogweb1.service.ICacheInvalidationService;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.math.BigInteger;
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class JwtUtilsTest {
 
     private JwtUtils jwtUtils;
 
+    private RoleEpochRegistry roleEpochRegistry;
+
+    private PermissionBitRegistry permissionBitRegistry;
+
+    private IPermissionRepository permissionRepository;
+
     @BeforeEach
     void setUp() {
-        jwtUtils = new JwtUtils();
+        roleEpochRegistry = new RoleEpochRegistry(mock(IRoleRepository.class), mock(ICacheInvalidationService.class));
+        permissionRepository = mock(IPermissionRepository.class);
+        permissionBitRegistry = new PermissionBitRegistry(permissionRepository, 100, mock(ICacheInvalidationService.class));
+        jwtUtils = buildJwtUtils(new JwtSigningProperties(JwtSigningProperties.Mode.HMAC, null, null, "PKCS12", "jwt", 3600));
+    }
+
+    private JwtUtils buildJwtUtils(JwtSigningProperties signingProperties) {
+        JwtUtils utils = new JwtUtils(roleEpochRegistry, permissionBitRegistry,
+                new JwtSigningKeys(signingProperties, new DefaultResourceLoader()));
         // Inyectamos valores de prueba en los campos privados anotados con @Value
-        ReflectionTestUtils.setField(jwtUtils, "privateKey", "my-super-secret-key-for-testing-12345");
-        ReflectionTestUtils.setField(jwtUtils, "userGenerator", "test-issuer");
-        ReflectionTestUtils.setField(jwtUtils, "expirationTimeInMillis", 3600000L); // 1 hora
+        ReflectionTestUtils.setField(utils, "privateKey", "my-super-secret-key-for-testing-12345");
+        ReflectionTestUtils.setField(utils, "userGenerator", "test-issuer");
+        ReflectionTestUtils.setField(utils, "expirationTimeInMillis", 3600000L); // 1 hora
+        return utils;
     }
 
     @Test
@@ -56,6 +90,9 @@ class JwtUtilsTest {
         assertThat(decodedJWT.getIssuer()).isEqualTo("test-issuer");
         assertThat(decodedJWT.getClaim("permissions").asList(String.class))
                 .containsExactlyInAnyOrder("READ", "COMMENT");
+        // Cada token lleva un jti único para poder revocarlo individualmente
+        assertThat(decodedJWT.getId()).isNotBlank();
+        assertThat(jwtUtils.validateToken(jwtUtils.createToken(authentication)).getId()).isNotEqualTo(decodedJWT.getId());
     }
 
     @Test
@@ -107,4 +144,99 @@ class JwtUtilsTest {
         assertThat(allClaims.get("sub").asString()).isEqualTo("testuser");
         assertThat(allClaims.get("iss").asString()).isEqualTo("test-issuer");
     }
+
+    @Test
+    @DisplayName("createToken debería incluir los roles y su época de autorización actual")
+    void createToken_shouldEmbedRolesAndEpochs() {
+        // --- 1. Arrange ---
+        Role role = new Role();
+        role.setRole("EDITOR");
+        role.setAuthzEpoch(3L);
+        roleEpochRegistry.register(role);
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                "testuser",
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_EDITOR"), new SimpleGrantedAuthority("READ"))
+        );
+
+        // --- 2. Act ---
+        DecodedJWT decodedJWT = jwtUtils.validateToken(jwtUtils.createToken(authentication));
+
+        // --- 3. Assert ---
+        assertThat(decodedJWT.getClaim(JwtUtils.ROLES_CLAIM).asList(String.class)).containsExactly("EDITOR");
+        assertThat(decodedJWT.getClaim(JwtUtils.ROLE_EPOCHS_CLAIM).asMap()).containsEntry("EDITOR", 3);
+    }
+
+    @Test
+    @DisplayName("createToken debería codificar los permisos como máscara de bits cuando todos tienen bit asignado")
+    void createToken_shouldEncodePermissionsAsBitmask() {
+        // --- 1. Arrange ---
+        when(permissionRepository.findAllNames()).thenReturn(List.of(
+                new PermissionNameDTO(1L, "READ"),
+                new PermissionNameDTO(2L, "CREATE"),
+                new PermissionNameDTO(3L, "COMMENT")
+        ));
+        permissionBitRegistry.refresh();
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                "testuser",
+                null,
+                List.of(new SimpleGrantedAuthority("READ"), new SimpleGrantedAuthority("COMMENT"))
+        );
+
+        // --- 2. Act ---
+        DecodedJWT decodedJWT = jwtUtils.validateToken(jwtUtils.createToken(authentication));
+
+        // --- 3. Assert ---
+        // Bits 0 y 2 -> 0b101 -> "BQ" en base64url
+        assertThat(decodedJWT.getClaim(JwtUtils.PERMISSION_BITS_CLAIM).asString()).isEqualTo("BQ");
+        assertThat(decodedJWT.getClaim(JwtUtils.PERMISSIONS_CLAIM).isMissing()).isTrue();
+        assertThat(permissionBitRegistry.authoritiesFor(List.of(), "BQ")).extracting("authority")
+                .containsExactlyInAnyOrder("READ", "COMMENT");
+    }
+
+    @Test
+    @DisplayName("En modo RSA el token debería llevar kid y verificarse solo con la clave pública del JWKS")
+    void createToken_inRsaMode_shouldBeVerifiableWithPublishedJwk() throws Exception {
+        // --- 1. Arrange ---
+        JwtSigningProperties rsaProperties = new JwtSigningProperties(JwtSigningProperties.Mode.RSA,
+                "classpath:jwt-rsa-test.p12", "changeit", "PKCS12", "jwt", 3600);
+        JwtSigningKeys signingKeys = new JwtSigningKeys(rsaProperties, new DefaultResourceLoader());
+        JwtUtils rsaJwtUtils = buildJwtUtils(rsaProperties);
+        Authentication authentication = new UsernamePasswordAuthenticationToken("testuser", null, List.of());
+
+        // --- 2. Act ---
+        String token = rsaJwtUtils.createToken(authentication);
+
+        // --- 3. Assert ---
+        // Un verificador externo reconstruye la clave pública a partir del JWK publicado
+        @SuppressWarnings("unchecked")
+        Map<String, Object> jwk = ((List<Map<String, Object>>) signingKeys.jwks().orElseThrow().get("keys")).get(0);
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        RSAPublicKey publicKey = (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(
+                new BigInteger(1, decoder.decode((String) jwk.get("n"))),
+                new BigInteger(1, decoder.decode((String) jwk.get("e")))));
+
+        DecodedJWT decodedJWT = JWT.require(Algorithm.RSA256(publicKey, null)).withIssuer("test-issuer").build().verify(token);
+        assertThat(decodedJWT.getAlgorithm()).isEqualTo("RS256");
+        assertThat(decodedJWT.getKeyId()).isEqualTo(jwk.get("kid"));
+        assertThat(rsaJwtUtils.validateToken(token).getSubject()).isEqualTo("testuser");
+        // Un token HMAC con el secreto compartido ya no es aceptado
+        assertThrows(JWTVerificationException.class, () -> rsaJwtUtils.validateToken(jwtUtils.createToken(authentication)));
+    }
+
+    @Test
+    @DisplayName("En modo HMAC el token no debería llevar cabecera kid")
+    void createToken_inHmacMode_shouldNotSetKeyId() {
+        // --- 1. Arrange ---
+        Authentication authentication = new UsernamePasswordAuthenticationToken("testuser", null, List.of());
+
+        // --- 2. Act ---
+        DecodedJWT decodedJWT = jwtUtils.validateToken(jwtUtils.createToken(authentication));
+
+        // --- 3. Assert ---
+        assertThat(decodedJWT.getAlgorithm()).isEqualTo("HS256");
+        assertThat(decodedJWT.getKeyId()).isNull();
+    }
 }